@@ -0,0 +1,78 @@
+package ca.tweetzy.auctionhouse.benchmark;
+
+import ca.tweetzy.auctionhouse.api.AuctionAPI;
+import ca.tweetzy.auctionhouse.auction.AuctionItemCategory;
+import ca.tweetzy.auctionhouse.helpers.MaterialCategorizer;
+import ca.tweetzy.auctionhouse.standin.BukkitStandIn;
+import org.bukkit.Material;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The current file has been created by Kiran Hart
+ * Date Created: October 18 2026
+ * Time Created: 11:59 p.m.
+ * Usage of any code found within this class is prohibited unless given explicit permission otherwise
+ *
+ * The small helpers that run once per listing whenever a page is drawn or searched
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuctionApiBenchmark {
+
+    private final List<String> lore = Arrays.asList(
+            "&7A sword forged in the depths",
+            "&7Sharpness V",
+            "&7Unbreaking III",
+            "&7Mending"
+    );
+
+    private double price;
+    private int material;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BukkitStandIn.install();
+    }
+
+    @Benchmark
+    public String formatNumber() {
+        // a different number every call, a constant would let the format be cached by the JIT
+        this.price = this.price >= 1_000_000_000 ? 0.5 : this.price * 1.37 + 1;
+        return AuctionAPI.getInstance().formatNumber(this.price);
+    }
+
+    @Benchmark
+    public boolean matchSentence() {
+        return AuctionAPI.getInstance().match("diamond", "Diamond Sword");
+    }
+
+    @Benchmark
+    public boolean matchLore() {
+        return AuctionAPI.getInstance().match("mending", this.lore);
+    }
+
+    @Benchmark
+    public AuctionItemCategory categorizeMaterial() {
+        final Material[] materials = MarketFixture.MATERIALS;
+        this.material = (this.material + 1) % materials.length;
+        return MaterialCategorizer.getMaterialCategory(materials[this.material]);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void categorizeEveryMaterial(Blackhole blackhole) {
+        for (Material material : Material.values()) {
+            if (material.isLegacy()) continue;
+            blackhole.consume(MaterialCategorizer.getMaterialCategory(material));
+        }
+    }
+}
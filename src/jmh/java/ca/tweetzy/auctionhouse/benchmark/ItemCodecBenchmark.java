@@ -0,0 +1,49 @@
+package ca.tweetzy.auctionhouse.benchmark;
+
+import ca.tweetzy.auctionhouse.api.AuctionAPI;
+import ca.tweetzy.auctionhouse.standin.BukkitStandIn;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The current file has been created by Kiran Hart
+ * Date Created: October 18 2026
+ * Time Created: 11:58 p.m.
+ * Usage of any code found within this class is prohibited unless given explicit permission otherwise
+ *
+ * Encoding and decoding the stored form of a listed item
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemCodecBenchmark {
+
+    @Param({"DIAMOND_SWORD", "COBBLESTONE"})
+    public Material material;
+
+    private ItemStack item;
+    private String encoded;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BukkitStandIn.install();
+        this.item = new ItemStack(this.material, this.material.getMaxStackSize());
+        this.encoded = AuctionAPI.encodeItem(this.item);
+    }
+
+    @Benchmark
+    public String encode() {
+        return AuctionAPI.encodeItem(this.item);
+    }
+
+    @Benchmark
+    public ItemStack decode() {
+        return AuctionAPI.decodeItem(this.encoded);
+    }
+}
@@ -0,0 +1,86 @@
+package ca.tweetzy.auctionhouse.benchmark;
+
+import ca.tweetzy.auctionhouse.auction.AuctionedItem;
+import ca.tweetzy.auctionhouse.helpers.MaterialCategorizer;
+import ca.tweetzy.auctionhouse.managers.AuctionItemManager;
+import ca.tweetzy.auctionhouse.standin.BukkitStandIn;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The current file has been created by Kiran Hart
+ * Date Created: October 18 2026
+ * Time Created: 11:31 p.m.
+ * Usage of any code found within this class is prohibited unless given explicit permission otherwise
+ *
+ * Builds a market of listings that looks like a busy server: a few hundred sellers, a mix of common materials,
+ * prices spread over several orders of magnitude and a third of the listings being auctions
+ */
+public final class MarketFixture {
+
+    public static final Material[] MATERIALS = {
+            Material.DIAMOND, Material.DIAMOND_SWORD, Material.DIAMOND_PICKAXE, Material.NETHERITE_INGOT, Material.IRON_INGOT,
+            Material.GOLD_INGOT, Material.EMERALD, Material.COBBLESTONE, Material.OAK_LOG, Material.SPRUCE_PLANKS,
+            Material.COOKED_BEEF, Material.BREAD, Material.GOLDEN_APPLE, Material.ENCHANTED_BOOK, Material.ELYTRA,
+            Material.SHULKER_BOX, Material.SPAWNER, Material.BOW, Material.IRON_CHESTPLATE, Material.OBSIDIAN
+    };
+
+    private static final int SELLERS = 500;
+
+    private MarketFixture() {
+    }
+
+    /**
+     * @param listings is how many listings to create
+     * @param seed     keeps every fork on the same market
+     * @return a new item manager holding the listings, none of them due within the next hour
+     */
+    public static AuctionItemManager createMarket(int listings, long seed) {
+        BukkitStandIn.install();
+
+        final AuctionItemManager auctionItemManager = new AuctionItemManager();
+        BukkitStandIn.useAuctionItemManager(auctionItemManager);
+
+        final Random random = new Random(seed);
+        final UUID[] sellers = new UUID[SELLERS];
+        for (int i = 0; i < SELLERS; i++) sellers[i] = new UUID(seed, i);
+
+        // listings of the same stack share one item, a million distinct stacks would only make the setup heavier
+        final Map<String, ItemStack> templates = new HashMap<>();
+        final long now = System.currentTimeMillis();
+
+        for (int i = 0; i < listings; i++) {
+            final Material material = MATERIALS[random.nextInt(MATERIALS.length)];
+            final int amount = material.getMaxStackSize() == 1 ? 1 : 1 + random.nextInt(material.getMaxStackSize());
+            final ItemStack item = templates.computeIfAbsent(material.name() + amount, key -> new ItemStack(material, amount));
+
+            final int seller = random.nextInt(SELLERS);
+            final boolean isBidItem = random.nextInt(3) == 0;
+            // log uniform between 1 and 1,000,000
+            final double price = Math.floor(Math.pow(10, random.nextDouble() * 6) * 100) / 100;
+            final long expiresAt = now + TimeUnit.HOURS.toMillis(1) + (long) (random.nextDouble() * TimeUnit.DAYS.toMillis(2));
+
+            auctionItemManager.addAuctionItem(new AuctionedItem(
+                    new UUID(~seed, i),
+                    sellers[seller],
+                    isBidItem ? sellers[(seller + 1) % SELLERS] : sellers[seller],
+                    "Seller" + seller,
+                    "Seller" + ((seller + 1) % SELLERS),
+                    MaterialCategorizer.getMaterialCategory(material),
+                    item,
+                    price,
+                    isBidItem ? Math.max(1, price / 2) : 0,
+                    isBidItem ? 1 : 0,
+                    isBidItem ? Math.max(1, price / 2) : price,
+                    isBidItem,
+                    false,
+                    expiresAt
+            ));
+        }
+
+        return auctionItemManager;
+    }
+}
@@ -0,0 +1,96 @@
+package ca.tweetzy.auctionhouse.benchmark;
+
+import ca.tweetzy.auctionhouse.auction.AuctionItemCategory;
+import ca.tweetzy.auctionhouse.auction.AuctionSortType;
+import ca.tweetzy.auctionhouse.auction.AuctionedItem;
+import ca.tweetzy.auctionhouse.managers.AuctionItemManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * The current file has been created by Kiran Hart
+ * Date Created: October 18 2026
+ * Time Created: 11:48 p.m.
+ * Usage of any code found within this class is prohibited unless given explicit permission otherwise
+ *
+ * The filtering, sorting and paging the main auction house does before it draws a page. This follows the same path
+ * as GUIAuctionHouse#drawItems, only without a viewer, the filter whitelist and the per world check
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+public class MarketViewBenchmark {
+
+    private static final int PAGE_SIZE = 45;
+
+    public enum View {
+        ALL, CATEGORY, SEARCH, BIDS_ONLY
+    }
+
+    @Param({"10000", "100000", "1000000"})
+    public int listings;
+
+    @Param({"ALL", "CATEGORY", "SEARCH", "BIDS_ONLY"})
+    public View view;
+
+    @Param({"RECENT", "PRICE"})
+    public AuctionSortType sortType;
+
+    @Param({"1", "10"})
+    public int page;
+
+    private AuctionItemManager auctionItemManager;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        this.auctionItemManager = MarketFixture.createMarket(this.listings, 42L);
+    }
+
+    @Benchmark
+    public List<AuctionedItem> drawPage() {
+        final Set<AuctionedItem> searchMatches = this.view == View.SEARCH ? this.auctionItemManager.search("diamond") : null;
+
+        final Predicate<AuctionedItem> matches = auctionItem -> {
+            if (auctionItem.isExpired()) return false;
+            if (searchMatches != null && !searchMatches.contains(auctionItem)) return false;
+            if (this.view == View.CATEGORY && auctionItem.getCategory() != AuctionItemCategory.TOOLS) return false;
+            return this.view != View.BIDS_ONLY || auctionItem.isBidItem();
+        };
+
+        Collection<AuctionedItem> candidates = null;
+        if (this.view == View.CATEGORY) candidates = this.auctionItemManager.getItemsByCategory(AuctionItemCategory.TOOLS);
+        if (searchMatches != null) candidates = searchMatches;
+
+        final Iterable<AuctionedItem> ordered;
+        if (candidates != null && candidates.size() * 4 < this.auctionItemManager.getItemsByState(false).size()) {
+            final List<AuctionedItem> sorted = new ArrayList<>(candidates);
+            sorted.sort(this.sortType.getComparator());
+            ordered = sorted;
+        } else {
+            ordered = this.auctionItemManager.getSortedItems(this.sortType);
+        }
+
+        final boolean unfiltered = this.view == View.ALL;
+        final int skip = (this.page - 1) * PAGE_SIZE;
+        final List<AuctionedItem> pageItems = new ArrayList<>(PAGE_SIZE);
+        int total = 0;
+
+        for (AuctionedItem auctionItem : ordered) {
+            if (!matches.test(auctionItem)) continue;
+            if (total >= skip && pageItems.size() < PAGE_SIZE) pageItems.add(auctionItem);
+            total++;
+            if (unfiltered && pageItems.size() == PAGE_SIZE) break;
+        }
+
+        return pageItems;
+    }
+}
@@ -0,0 +1,41 @@
+package ca.tweetzy.auctionhouse.benchmark;
+
+import ca.tweetzy.auctionhouse.tasks.TickAuctionsTask;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The current file has been created by Kiran Hart
+ * Date Created: October 18 2026
+ * Time Created: 11:57 p.m.
+ * Usage of any code found within this class is prohibited unless given explicit permission otherwise
+ *
+ * One pass of the auction tick over a market where nothing is due yet, which is what the tick costs almost every time
+ * it runs. Ending an auction pays out through the economy and messages players, neither of which the stand in has
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+public class TickAuctionsBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int listings;
+
+    private TickAuctionsTask task;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        MarketFixture.createMarket(this.listings, 42L);
+        // never scheduled, the benchmark runs it directly
+        this.task = new TickAuctionsTask();
+    }
+
+    @Benchmark
+    public void tick() {
+        this.task.run();
+    }
+}
@@ -4,6 +4,7 @@ import ca.tweetzy.auctionhouse.api.UpdateChecker;
 import ca.tweetzy.auctionhouse.api.hook.PlaceholderAPIHook;
 import ca.tweetzy.auctionhouse.api.hook.UltraEconomyHook;
 import ca.tweetzy.auctionhouse.auction.AuctionPlayer;
+import ca.tweetzy.auctionhouse.auction.AuctionedItem;
 import ca.tweetzy.auctionhouse.commands.*;
 import ca.tweetzy.auctionhouse.database.DataManager;
 import ca.tweetzy.auctionhouse.database.migrations.*;
@@ -13,6 +14,9 @@ import ca.tweetzy.auctionhouse.managers.*;
 import ca.tweetzy.auctionhouse.settings.LocaleSettings;
 import ca.tweetzy.auctionhouse.settings.Settings;
 import ca.tweetzy.auctionhouse.tasks.AutoSaveTask;
+import ca.tweetzy.auctionhouse.tasks.FlushItemsTask;
+import ca.tweetzy.auctionhouse.tasks.MetricsExportTask;
+import ca.tweetzy.auctionhouse.tasks.RefreshAuctionPagesTask;
 import ca.tweetzy.auctionhouse.tasks.TickAuctionsTask;
 import ca.tweetzy.core.TweetyCore;
 import ca.tweetzy.core.TweetyPlugin;
@@ -58,6 +62,10 @@ public class AuctionHouse extends TweetyPlugin {
     @Setter
     private boolean migrating = false;
 
+    @Getter
+    @Setter
+    private volatile boolean loading = false;
+
     @Getter
     private final GuiManager guiManager = new GuiManager(this);
 
@@ -87,6 +95,12 @@ public class AuctionHouse extends TweetyPlugin {
     @Getter
     private AuctionStatManager auctionStatManager;
 
+    @Getter
+    private MarketAnalyticsManager marketAnalyticsManager;
+
+    @Getter
+    private PriceSuggestionManager priceSuggestionManager;
+
     @Getter
     private DatabaseConnector databaseConnector;
 
@@ -162,7 +176,9 @@ public class AuctionHouse extends TweetyPlugin {
                 new _6_BigIntMigration(),
                 new _7_TransactionBigIntMigration(),
                 new _8_ItemPerWorldMigration(),
-                new _9_StatsMigration()
+                new _9_StatsMigration(),
+                new _10_ItemAmountMigration(),
+                new _11_TransactionIndexMigration()
         );
 
         dataMigrationManager.runMigrations();
@@ -171,6 +187,9 @@ public class AuctionHouse extends TweetyPlugin {
         this.auctionItemManager = new AuctionItemManager();
         this.auctionItemManager.start();
 
+        // convert items still stored as yaml, this runs in the background
+        this.dataManager.migrateItemEncoding();
+
         // load transactions
         this.transactionManager = new TransactionManager();
         this.transactionManager.loadTransactions();
@@ -186,6 +205,11 @@ public class AuctionHouse extends TweetyPlugin {
         this.auctionStatManager = new AuctionStatManager();
         this.auctionStatManager.loadStats();
 
+        this.marketAnalyticsManager = new MarketAnalyticsManager();
+
+        this.priceSuggestionManager = new PriceSuggestionManager();
+        this.priceSuggestionManager.loadSketches();
+
         // gui manager
         this.guiManager.init();
 
@@ -211,15 +235,25 @@ public class AuctionHouse extends TweetyPlugin {
         );
 
         // Placeholder API
-        if (Bukkit.getPluginManager().getPlugin("PlaceholderAPIHook") != null) {
+        if (Bukkit.getPluginManager().getPlugin("PlaceholderAPI") != null) {
             new PlaceholderAPIHook(this).register();
         }
 
+        // every change to the market runs on the market loop, it has to be running before anything can be listed
+        MarketLoop.getInstance().start();
+
         // start the auction tick task
         TickAuctionsTask.startTask();
+        if (Settings.AUTO_REFRESH_AUCTION_PAGES.getBoolean()) {
+            RefreshAuctionPagesTask.startTask();
+        }
         // auto save task
         if (Settings.AUTO_SAVE_ENABLED.getBoolean()) {
             AutoSaveTask.startTask();
+            FlushItemsTask.startTask();
+        }
+        if (Settings.METRICS_EXPORT_ENABLED.getBoolean()) {
+            MetricsExportTask.startTask();
         }
 
         // update check
@@ -257,10 +291,12 @@ public class AuctionHouse extends TweetyPlugin {
     @Override
     public void onPluginDisable() {
         if (this.dataManager != null) {
+            MarketLoop.getInstance().stop();
             this.auctionItemManager.end();
             this.filterManager.saveFilterWhitelist(false);
             this.auctionBanManager.saveBans(false);
             this.auctionStatManager.saveStats();
+            this.priceSuggestionManager.saveSketches();
             this.dataManager.close();
         }
 
@@ -276,6 +312,7 @@ public class AuctionHouse extends TweetyPlugin {
         LocaleSettings.setup();
         this.commandManager.setSyntaxErrorMessage(TextUtils.formatText(getLocale().getMessage("commands.invalid_syntax").getMessage().split("\n")));
         this.commandManager.setNoPermsMessage(TextUtils.formatText(getLocale().getMessage("commands.no_permission").getMessage()));
+        AuctionedItem.invalidateDisplayStacks();
     }
 
     @Override
@@ -9,6 +9,7 @@ import ca.tweetzy.auctionhouse.auction.AuctionSaleType;
 import ca.tweetzy.auctionhouse.auction.AuctionedItem;
 import ca.tweetzy.auctionhouse.helpers.ConfigurationItemHelper;
 import ca.tweetzy.auctionhouse.helpers.MaterialCategorizer;
+import ca.tweetzy.auctionhouse.managers.MarketLoop;
 import ca.tweetzy.auctionhouse.managers.SoundManager;
 import ca.tweetzy.auctionhouse.settings.Settings;
 import ca.tweetzy.core.compatibility.CompatibleHand;
@@ -26,6 +27,8 @@ import org.bukkit.ChatColor;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.command.CommandSender;
 import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.serialization.ConfigurationSerializable;
+import org.bukkit.configuration.serialization.ConfigurationSerialization;
 import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemFlag;
@@ -41,6 +44,7 @@ import org.jetbrains.annotations.Nullable;
 
 import java.awt.*;
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.text.DecimalFormat;
 import java.text.NumberFormat;
 import java.text.SimpleDateFormat;
@@ -52,6 +56,9 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
 
 /**
  * The current file has been created by Kiran Hart
@@ -198,14 +205,270 @@ public class AuctionAPI {
 
 	// ========================================================================================
 
+	/*
+	 * Items are stored as the prefix followed by base64 of [codec version][flags][payload], deflated when it is big enough
+	 * for that to pay off. Version 2 writes the serialized item as a tagged tree of its values, the item stack's own type is
+	 * implied and strings and numbers are length or varint prefixed, so even a plain item takes less room than its yaml.
+	 * Version 1 is the bukkit object stream, written for the rare item holding a value the tree can't store.
+	 * Anything without the prefix is a legacy yaml item
+	 */
+	public static final String BINARY_ITEM_PREFIX = "AH#";
+	private static final byte ITEM_CODEC_OBJECT_STREAM = 1;
+	private static final byte ITEM_CODEC_VALUE_TREE = 2;
+	private static final byte ITEM_FLAG_DEFLATED = 1;
+	private static final int ITEM_DEFLATE_THRESHOLD = 256;
+
+	private static final byte VALUE_STRING = 0;
+	private static final byte VALUE_INT = 1;
+	private static final byte VALUE_LONG = 2;
+	private static final byte VALUE_DOUBLE = 3;
+	private static final byte VALUE_FLOAT = 4;
+	private static final byte VALUE_SHORT = 5;
+	private static final byte VALUE_BYTE = 6;
+	private static final byte VALUE_TRUE = 7;
+	private static final byte VALUE_FALSE = 8;
+	private static final byte VALUE_LIST = 9;
+	private static final byte VALUE_MAP = 10;
+	private static final byte VALUE_OBJECT = 11;
+
 	public static String encodeItem(ItemStack itemStack) {
+		byte version = ITEM_CODEC_VALUE_TREE;
+		byte[] data;
+		try {
+			data = writeValueTree(itemStack);
+		} catch (IOException e) {
+			// something in the item isn't a plain value, the object stream can still store it
+			version = ITEM_CODEC_OBJECT_STREAM;
+			try {
+				data = writeObjectStream(itemStack);
+			} catch (IOException ex) {
+				ex.printStackTrace();
+				return encodeLegacyItem(itemStack);
+			}
+		}
+
+		byte flags = 0;
+		if (Settings.COMPRESS_STORED_ITEMS.getBoolean() && data.length >= ITEM_DEFLATE_THRESHOLD) {
+			try {
+				byte[] deflated = deflate(data);
+				if (deflated.length < data.length) {
+					data = deflated;
+					flags |= ITEM_FLAG_DEFLATED;
+				}
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+
+		byte[] encoded = new byte[data.length + 2];
+		encoded[0] = version;
+		encoded[1] = flags;
+		System.arraycopy(data, 0, encoded, 2, data.length);
+		return BINARY_ITEM_PREFIX + Base64.getEncoder().encodeToString(encoded);
+	}
+
+	public static ItemStack decodeItem(String string) {
+		if (string == null) return null;
+		if (!isBinaryEncodedItem(string)) return decodeLegacyItem(string);
+
+		byte[] encoded;
+		try {
+			encoded = Base64.getDecoder().decode(string.substring(BINARY_ITEM_PREFIX.length()));
+		} catch (IllegalArgumentException e) {
+			e.printStackTrace();
+			return null;
+		}
+
+		if (encoded.length < 2 || (encoded[0] != ITEM_CODEC_OBJECT_STREAM && encoded[0] != ITEM_CODEC_VALUE_TREE)) {
+			AuctionHouse.getInstance().getLogger().warning("Could not decode an item stored with an unknown codec version");
+			return null;
+		}
+
+		try {
+			InputStream payload = new ByteArrayInputStream(encoded, 2, encoded.length - 2);
+			if ((encoded[1] & ITEM_FLAG_DEFLATED) != 0) payload = new InflaterInputStream(payload);
+
+			if (encoded[0] == ITEM_CODEC_VALUE_TREE) {
+				try (DataInputStream stream = new DataInputStream(payload)) {
+					return ItemStack.deserialize(readMap(stream));
+				}
+			}
+
+			try (BukkitObjectInputStream stream = new BukkitObjectInputStream(payload)) {
+				return (ItemStack) stream.readObject();
+			}
+		} catch (IOException | ClassNotFoundException | RuntimeException e) {
+			e.printStackTrace();
+			return null;
+		}
+	}
+
+	public static boolean isBinaryEncodedItem(String string) {
+		return string != null && string.startsWith(BINARY_ITEM_PREFIX);
+	}
+
+	private static byte[] writeObjectStream(ItemStack itemStack) throws IOException {
+		try (ByteArrayOutputStream payload = new ByteArrayOutputStream(); BukkitObjectOutputStream bukkitStream = new BukkitObjectOutputStream(payload)) {
+			bukkitStream.writeObject(itemStack);
+			bukkitStream.flush();
+			return payload.toByteArray();
+		}
+	}
+
+	private static byte[] writeValueTree(ItemStack itemStack) throws IOException {
+		ByteArrayOutputStream payload = new ByteArrayOutputStream(64);
+		try (DataOutputStream stream = new DataOutputStream(payload)) {
+			// the root is always an item stack, so unlike nested objects its alias isn't written
+			writeMap(stream, itemStack.serialize());
+		}
+		return payload.toByteArray();
+	}
+
+	private static void writeValue(DataOutputStream stream, Object value) throws IOException {
+		if (value instanceof String) {
+			stream.writeByte(VALUE_STRING);
+			writeString(stream, (String) value);
+		} else if (value instanceof Integer) {
+			stream.writeByte(VALUE_INT);
+			writeVarLong(stream, (Integer) value);
+		} else if (value instanceof Long) {
+			stream.writeByte(VALUE_LONG);
+			writeVarLong(stream, (Long) value);
+		} else if (value instanceof Double) {
+			stream.writeByte(VALUE_DOUBLE);
+			stream.writeDouble((Double) value);
+		} else if (value instanceof Float) {
+			stream.writeByte(VALUE_FLOAT);
+			stream.writeFloat((Float) value);
+		} else if (value instanceof Short) {
+			stream.writeByte(VALUE_SHORT);
+			writeVarLong(stream, (Short) value);
+		} else if (value instanceof Byte) {
+			stream.writeByte(VALUE_BYTE);
+			stream.writeByte((Byte) value);
+		} else if (value instanceof Boolean) {
+			stream.writeByte((Boolean) value ? VALUE_TRUE : VALUE_FALSE);
+		} else if (value instanceof List) {
+			stream.writeByte(VALUE_LIST);
+			List<?> list = (List<?>) value;
+			writeVarLong(stream, list.size());
+			for (Object element : list) writeValue(stream, element);
+		} else if (value instanceof Map) {
+			stream.writeByte(VALUE_MAP);
+			writeMap(stream, (Map<?, ?>) value);
+		} else if (value instanceof ConfigurationSerializable) {
+			stream.writeByte(VALUE_OBJECT);
+			writeString(stream, ConfigurationSerialization.getAlias(((ConfigurationSerializable) value).getClass()));
+			writeMap(stream, ((ConfigurationSerializable) value).serialize());
+		} else {
+			throw new NotSerializableException(value == null ? "null" : value.getClass().getName());
+		}
+	}
+
+	private static void writeMap(DataOutputStream stream, Map<?, ?> map) throws IOException {
+		writeVarLong(stream, map.size());
+		for (Map.Entry<?, ?> entry : map.entrySet()) {
+			if (!(entry.getKey() instanceof String)) throw new NotSerializableException("map key " + entry.getKey());
+			writeString(stream, (String) entry.getKey());
+			writeValue(stream, entry.getValue());
+		}
+	}
+
+	private static Object readValue(DataInputStream stream) throws IOException {
+		final byte type = stream.readByte();
+		switch (type) {
+			case VALUE_STRING:
+				return readString(stream);
+			case VALUE_INT:
+				return (int) readVarLong(stream);
+			case VALUE_LONG:
+				return readVarLong(stream);
+			case VALUE_DOUBLE:
+				return stream.readDouble();
+			case VALUE_FLOAT:
+				return stream.readFloat();
+			case VALUE_SHORT:
+				return (short) readVarLong(stream);
+			case VALUE_BYTE:
+				return stream.readByte();
+			case VALUE_TRUE:
+				return true;
+			case VALUE_FALSE:
+				return false;
+			case VALUE_LIST:
+				final int size = (int) readVarLong(stream);
+				final List<Object> list = new ArrayList<>(Math.min(size, 64));
+				for (int i = 0; i < size; i++) list.add(readValue(stream));
+				return list;
+			case VALUE_MAP:
+				return readMap(stream);
+			case VALUE_OBJECT:
+				final String alias = readString(stream);
+				final Map<String, Object> serialized = readMap(stream);
+				serialized.put(ConfigurationSerialization.SERIALIZED_TYPE_KEY, alias);
+				return ConfigurationSerialization.deserializeObject(serialized);
+			default:
+				throw new StreamCorruptedException("unknown value type " + type);
+		}
+	}
+
+	private static Map<String, Object> readMap(DataInputStream stream) throws IOException {
+		final int size = (int) readVarLong(stream);
+		final Map<String, Object> map = new LinkedHashMap<>();
+		for (int i = 0; i < size; i++) {
+			final String key = readString(stream);
+			map.put(key, readValue(stream));
+		}
+		return map;
+	}
+
+	private static void writeString(DataOutputStream stream, String string) throws IOException {
+		byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+		writeVarLong(stream, bytes.length);
+		stream.write(bytes);
+	}
+
+	private static String readString(DataInputStream stream) throws IOException {
+		byte[] bytes = new byte[(int) readVarLong(stream)];
+		stream.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	// zigzag encoded so small negative numbers stay small as well
+	private static void writeVarLong(DataOutputStream stream, long value) throws IOException {
+		long zigzag = (value << 1) ^ (value >> 63);
+		while ((zigzag & ~0x7FL) != 0) {
+			stream.writeByte((int) ((zigzag & 0x7F) | 0x80));
+			zigzag >>>= 7;
+		}
+		stream.writeByte((int) zigzag);
+	}
+
+	private static long readVarLong(DataInputStream stream) throws IOException {
+		long zigzag = 0;
+		for (int shift = 0; shift < 64; shift += 7) {
+			final byte b = stream.readByte();
+			zigzag |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) return (zigzag >>> 1) ^ -(zigzag & 1);
+		}
+		throw new StreamCorruptedException("malformed varint");
+	}
+
+	private static byte[] deflate(byte[] data) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 2);
+		try (DeflaterOutputStream deflater = new DeflaterOutputStream(out, new Deflater(Deflater.BEST_SPEED))) {
+			deflater.write(data);
+		}
+		return out.toByteArray();
+	}
+
+	private static String encodeLegacyItem(ItemStack itemStack) {
 		YamlConfiguration config = new YamlConfiguration();
 		config.set("i", itemStack);
 		return config.saveToString();
-//        return DatatypeConverter.printBase64Binary(config.saveToString().getBytes(StandardCharsets.UTF_8));
 	}
 
-	public static ItemStack decodeItem(String string) {
+	private static ItemStack decodeLegacyItem(String string) {
 		YamlConfiguration config = new YamlConfiguration();
 		try {
 			config.loadFromString(string);
@@ -221,6 +484,10 @@ public class AuctionAPI {
 			AuctionHouse.getInstance().getLocale().newMessage("&cAuction House is currently migrating auction items, auction usage is disabled until it's finished").sendPrefixedMessage(commandSender);
 			return true;
 		}
+		if (AuctionHouse.getInstance().isLoading()) {
+			AuctionHouse.getInstance().getLocale().newMessage("&cAuction House is still loading auction items, auction usage is disabled until it's finished").sendPrefixedMessage(commandSender);
+			return true;
+		}
 		return false;
 	}
 
@@ -721,10 +988,13 @@ public class AuctionAPI {
 				return;
 			}
 
-			AuctionHouse.getInstance().getAuctionItemManager().addAuctionItem(auctionedItem);
-			if (Settings.BROADCAST_AUCTION_LIST.getBoolean()) {
-				Bukkit.getOnlinePlayers().forEach(p -> AuctionHouse.getInstance().getLocale().newMessage(msgToAll).sendPrefixedMessage(p));
-			}
+			// the callback runs on a database thread, the listing joins the market on the market loop
+			MarketLoop.getInstance().submit(() -> {
+				AuctionHouse.getInstance().getAuctionItemManager().addAuctionItem(auctionedItem);
+				if (Settings.BROADCAST_AUCTION_LIST.getBoolean()) {
+					Bukkit.getOnlinePlayers().forEach(p -> AuctionHouse.getInstance().getLocale().newMessage(msgToAll).sendPrefixedMessage(p));
+				}
+			});
 		});
 	}
 
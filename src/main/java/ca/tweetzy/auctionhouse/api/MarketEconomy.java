@@ -0,0 +1,48 @@
+package ca.tweetzy.auctionhouse.api;
+
+import ca.tweetzy.core.hooks.EconomyManager;
+import org.bukkit.OfflinePlayer;
+
+/**
+ * The current file has been created by Kiran Hart
+ * Date Created: October 18 2026
+ * Time Created: 3:12 a.m.
+ * Usage of any code found within this class is prohibited unless given explicit permission otherwise
+ *
+ * Where the money for bids and purchases comes from and goes to
+ */
+public interface MarketEconomy {
+
+	/**
+	 * The server's economy, every player trades with this one
+	 */
+	MarketEconomy SERVER = new MarketEconomy() {
+		@Override
+		public boolean hasBalance(OfflinePlayer player, double amount) {
+			return EconomyManager.hasBalance(player, amount);
+		}
+
+		@Override
+		public double getBalance(OfflinePlayer player) {
+			return EconomyManager.getBalance(player);
+		}
+
+		@Override
+		public void withdraw(OfflinePlayer player, double amount) {
+			AuctionAPI.getInstance().withdrawBalance(player, amount);
+		}
+
+		@Override
+		public void deposit(OfflinePlayer player, double amount) {
+			AuctionAPI.getInstance().depositBalance(player, amount);
+		}
+	};
+
+	boolean hasBalance(OfflinePlayer player, double amount);
+
+	double getBalance(OfflinePlayer player);
+
+	void withdraw(OfflinePlayer player, double amount);
+
+	void deposit(OfflinePlayer player, double amount);
+}
@@ -1,7 +1,9 @@
 package ca.tweetzy.auctionhouse.api.hook;
 
 import ca.tweetzy.auctionhouse.AuctionHouse;
+import ca.tweetzy.auctionhouse.api.AuctionAPI;
 import ca.tweetzy.auctionhouse.auction.AuctionPlayer;
+import ca.tweetzy.auctionhouse.managers.MarketAnalyticsManager;
 import me.clip.placeholderapi.expansion.PlaceholderExpansion;
 import org.bukkit.OfflinePlayer;
 import org.jetbrains.annotations.NotNull;
@@ -58,7 +60,42 @@ public class PlaceholderAPIHook extends PlaceholderExpansion {
         }
 
         if (params.equalsIgnoreCase("server_active_auctions")) {
-            return String.valueOf(AuctionHouse.getInstance().getAuctionItemManager().getItems().size());
+            return String.valueOf(AuctionHouse.getInstance().getAuctionItemManager().getItemsByState(false).size());
+        }
+
+        // market_<window>_<stat>_<material>, for example market_24h_median_DIAMOND_SWORD
+        if (params.toLowerCase().startsWith("market_")) {
+            final String[] parts = params.split("_", 4);
+            if (parts.length != 4) return null;
+
+            final MarketAnalyticsManager.Window window = MarketAnalyticsManager.Window.fromKey(parts[1]);
+            if (window == null) return null;
+
+            final MarketAnalyticsManager.MarketSnapshot market = AuctionHouse.getInstance().getMarketAnalyticsManager().getSnapshot(parts[3], window);
+            switch (parts[2].toLowerCase()) {
+                case "listed":
+                    return String.valueOf(market.getListed());
+                case "sales":
+                    return String.valueOf(market.getSales());
+                case "volume":
+                    return String.valueOf(market.getVolume());
+                case "turnover":
+                    return AuctionAPI.getInstance().formatNumber(market.getTurnover());
+                case "average":
+                    return AuctionAPI.getInstance().formatNumber(market.getAveragePrice());
+                case "p25":
+                    return AuctionAPI.getInstance().formatNumber(market.getP25());
+                case "median":
+                    return AuctionAPI.getInstance().formatNumber(market.getMedian());
+                case "p75":
+                    return AuctionAPI.getInstance().formatNumber(market.getP75());
+                case "p90":
+                    return AuctionAPI.getInstance().formatNumber(market.getP90());
+                case "sellthrough":
+                    return String.valueOf(Math.round(market.getSellThrough() * 100));
+                default:
+                    return null;
+            }
         }
 
         return null;
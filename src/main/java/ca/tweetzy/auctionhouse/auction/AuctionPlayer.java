@@ -52,15 +52,7 @@ public class AuctionPlayer {
     }
 
     public List<AuctionedItem> getItems(boolean getExpired) {
-        List<AuctionedItem> items = new ArrayList<>();
-
-        for (Map.Entry<UUID, AuctionedItem> entry : AuctionHouse.getInstance().getAuctionItemManager().getItems().entrySet()) {
-            AuctionedItem auctionItem = entry.getValue();
-            if (auctionItem.getOwner().equals(this.player.getUniqueId()) && auctionItem.isExpired() == getExpired && !AuctionHouse.getInstance().getAuctionItemManager().getGarbageBin().containsKey(auctionItem.getId())) {
-                items.add(auctionItem);
-            }
-        }
-        return items;
+        return AuctionHouse.getInstance().getAuctionItemManager().getItems(this.player.getUniqueId(), getExpired);
     }
 
     public void resetFilter() {
@@ -2,6 +2,9 @@ package ca.tweetzy.auctionhouse.auction;
 
 import ca.tweetzy.auctionhouse.AuctionHouse;
 
+import java.util.Comparator;
+import java.util.function.ToDoubleFunction;
+
 /**
  * The current file has been created by Kiran Hart
  * Date Created: June 18 2021
@@ -10,13 +13,18 @@ import ca.tweetzy.auctionhouse.AuctionHouse;
  */
 public enum AuctionSortType {
 
-    RECENT("Recent"),
-    PRICE("Price");
+    RECENT("Recent", AuctionedItem::getExpiresAt, true),
+    PRICE("Price", AuctionedItem::getCurrentPrice, true),
+    UNIT_PRICE("Unit Price", AuctionedItem::getUnitPrice, false);
 
     final String type;
+    final ToDoubleFunction<AuctionedItem> sortKey;
+    final boolean descending;
 
-    AuctionSortType(String type) {
+    AuctionSortType(String type, ToDoubleFunction<AuctionedItem> sortKey, boolean descending) {
         this.type = type;
+        this.sortKey = sortKey;
+        this.descending = descending;
     }
 
     public String getTranslatedType() {
@@ -25,6 +33,8 @@ public enum AuctionSortType {
                 return AuctionHouse.getInstance().getLocale().getMessage("auction_filter.sort_order.price").getMessage();
             case RECENT:
                 return AuctionHouse.getInstance().getLocale().getMessage("auction_filter.sort_order.recent").getMessage();
+            case UNIT_PRICE:
+                return AuctionHouse.getInstance().getLocale().getMessage("auction_filter.sort_order.unit_price").getMessage();
             default:
                 return getType();
         }
@@ -34,6 +44,23 @@ public enum AuctionSortType {
         return type;
     }
 
+    /**
+     * @param auctionedItem is the item being sorted
+     * @return the value this sort type orders items by
+     */
+    public double getSortKey(AuctionedItem auctionedItem) {
+        return this.sortKey.applyAsDouble(auctionedItem);
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    public Comparator<AuctionedItem> getComparator() {
+        Comparator<AuctionedItem> comparator = Comparator.comparingDouble(this.sortKey);
+        return this.descending ? comparator.reversed() : comparator;
+    }
+
     public AuctionSortType next() {
         return values()[(this.ordinal() + 1) % values().length];
     }
@@ -2,10 +2,13 @@ package ca.tweetzy.auctionhouse.auction;
 
 import ca.tweetzy.auctionhouse.AuctionHouse;
 import ca.tweetzy.auctionhouse.api.AuctionAPI;
+import ca.tweetzy.auctionhouse.database.AuctionJournal;
+import ca.tweetzy.auctionhouse.managers.MetricsManager;
 import ca.tweetzy.auctionhouse.settings.Settings;
 import ca.tweetzy.core.compatibility.ServerVersion;
 import ca.tweetzy.core.utils.TextUtils;
 import ca.tweetzy.core.utils.nms.NBTEditor;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.Setter;
@@ -13,9 +16,7 @@ import org.bukkit.Bukkit;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.UUID;
+import java.util.*;
 import java.util.stream.Collectors;
 
 /**
@@ -37,7 +38,28 @@ public class AuctionedItem {
     private String highestBidderName;
     private AuctionItemCategory category;
 
-    private ItemStack item;
+    /*
+     * The encoded item is what gets stored, the decoded stack is only materialized when something
+     * needs it and the item manager drops it again once it falls out of its bounded cache
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private volatile ItemStack item;
+    @Setter(AccessLevel.NONE)
+    private String encodedItem;
+
+    // stored next to the encoded item so listings can be searched, filtered and sorted without decoding them
+    @Setter(AccessLevel.NONE)
+    private int itemAmount;
+    @Setter(AccessLevel.NONE)
+    private String itemMaterial;
+    @Setter(AccessLevel.NONE)
+    private String itemName;
+    @Setter(AccessLevel.NONE)
+    private String itemLore;
+    @Setter(AccessLevel.NONE)
+    private String itemEnchants;
+
     private double basePrice;
     private double bidStartingPrice;
     private double bidIncrementPrice;
@@ -49,6 +71,19 @@ public class AuctionedItem {
 
     private String listedWorld = null;
 
+    /*
+     * Bumped by every change to the listing, a rendered display stack is only reused while the
+     * version it was rendered at is still current. Only the time left lines are rendered again per call
+     */
+    @Setter(AccessLevel.NONE)
+    private volatile int version;
+
+    // bumped when the settings or locale are reloaded, display stacks rendered before that use the old templates
+    private static volatile int renderGeneration;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final Map<AuctionStackType, DisplayStack> displayStacks = new EnumMap<>(AuctionStackType.class);
+
     public AuctionedItem() {}
 
     public AuctionedItem(
@@ -73,7 +108,7 @@ public class AuctionedItem {
         this.ownerName = ownerName;
         this.highestBidderName = highestBidderName;
         this.category = category;
-        this.item = item;
+        storeItem(item);
         this.basePrice = basePrice;
         this.bidStartingPrice = bidStartingPrice;
         this.bidIncrementPrice = bidIncrementPrice;
@@ -83,9 +118,230 @@ public class AuctionedItem {
         this.expiresAt = expiresAt;
     }
 
+    public void setItem(ItemStack item) {
+        storeItem(item);
+        touchItem();
+        reindex();
+        markDirty(true);
+    }
+
+    /**
+     * Used when loading a listing from the database, the item is only decoded once it is first needed
+     *
+     * @param encodedItem is the item as it was stored
+     * @param amount      is the stored stack size, if this is unknown (0) the item is decoded right away
+     * @param material    is the stored material name
+     * @param name        is the stored display name
+     * @param lore        is the stored serialized lore
+     * @param enchants    is the stored serialized enchantments
+     */
+    public void setStoredItem(@NonNull String encodedItem, int amount, String material, String name, String lore, String enchants) {
+        this.item = null;
+        this.encodedItem = encodedItem;
+        this.itemAmount = amount;
+        this.itemMaterial = material;
+        this.itemName = name;
+        this.itemLore = lore;
+        this.itemEnchants = enchants;
+
+        // rows saved before these details were stored have to be decoded once to fill them in
+        if (amount <= 0 || material == null || name == null || lore == null || enchants == null) {
+            ItemStack decoded = AuctionAPI.decodeItem(encodedItem);
+            if (decoded != null) {
+                this.item = decoded;
+                updateItemDetails(decoded);
+                touchItem();
+            }
+        }
+        reindex();
+    }
+
+    /**
+     * Get the item being sold, decoding it if it isn't in memory
+     *
+     * @return the item, or null if it couldn't be decoded
+     */
+    public ItemStack getItem() {
+        ItemStack current = this.item;
+        if (current == null && this.encodedItem != null) {
+            current = AuctionAPI.decodeItem(this.encodedItem);
+            this.item = current;
+        }
+        if (current != null) touchItem();
+        return current;
+    }
+
+    /**
+     * Drops the decoded item, it will be decoded again from the stored item when it's needed
+     */
+    public void releaseItem() {
+        if (this.encodedItem == null) return;
+        this.item = null;
+        synchronized (this.displayStacks) {
+            this.displayStacks.clear();
+        }
+    }
+
+    private void storeItem(ItemStack item) {
+        this.item = item;
+        this.encodedItem = AuctionAPI.encodeItem(item);
+        updateItemDetails(item);
+    }
+
+    private void updateItemDetails(ItemStack item) {
+        this.itemAmount = item.getAmount();
+        this.itemMaterial = item.getType().name();
+        this.itemName = AuctionAPI.getInstance().getItemName(item);
+        this.itemLore = AuctionAPI.getInstance().serializeLines(AuctionAPI.getInstance().getItemLore(item));
+        this.itemEnchants = AuctionAPI.getInstance().serializeLines(AuctionAPI.getInstance().getItemEnchantments(item));
+    }
+
+    private void touchItem() {
+        if (this.id == null || AuctionHouse.getInstance() == null || AuctionHouse.getInstance().getAuctionItemManager() == null) return;
+        AuctionHouse.getInstance().getAuctionItemManager().touchDecodedItem(this);
+    }
+
+    /**
+     * Restores the state the journal recorded for the listing. Unlike the setters this indexes the listing and
+     * flags it for the next flush only once, and nothing is journaled since the journal already holds this state
+     *
+     * @param entry is the last journaled state of the listing
+     */
+    public void restore(@NonNull AuctionJournal.Entry entry) {
+        this.owner = entry.getOwner();
+        this.highestBidder = entry.getHighestBidder();
+        this.ownerName = entry.getOwnerName();
+        this.highestBidderName = entry.getHighestBidderName();
+        this.basePrice = entry.getBasePrice();
+        this.bidStartingPrice = entry.getBidStartingPrice();
+        this.bidIncrementPrice = entry.getBidIncrementPrice();
+        this.currentPrice = entry.getCurrentPrice();
+        this.expiresAt = entry.getExpiresAt();
+        this.expired = entry.isExpired();
+        this.isBidItem = entry.isBidItem();
+        this.category = entry.getCategory();
+        this.listedWorld = entry.getListedWorld();
+
+        final ItemStack decoded = entry.getEncodedItem() == null ? null : AuctionAPI.decodeItem(entry.getEncodedItem());
+        if (decoded != null) {
+            storeItem(decoded);
+            touchItem();
+        }
+
+        reindex();
+        this.version++;
+        if (this.id == null || AuctionHouse.getInstance() == null || AuctionHouse.getInstance().getAuctionItemManager() == null) return;
+        AuctionHouse.getInstance().getAuctionItemManager().markRestored(this, decoded != null);
+    }
+
+    public void setBasePrice(double basePrice) {
+        this.basePrice = basePrice;
+        reindex();
+        markDirty();
+    }
+
+    public void setCurrentPrice(double currentPrice) {
+        this.currentPrice = currentPrice;
+        reindex();
+        markDirty();
+    }
+
+    public void setExpiresAt(long expiresAt) {
+        this.expiresAt = expiresAt;
+        reindex();
+        markDirty();
+    }
+
+    public void setOwner(UUID owner) {
+        this.owner = owner;
+        reindex();
+        markDirty();
+    }
+
+    public void setCategory(AuctionItemCategory category) {
+        this.category = category;
+        reindex();
+        markDirty();
+    }
+
+    public void setExpired(boolean expired) {
+        this.expired = expired;
+        reindex();
+        markDirty();
+    }
+
+    public void setListedWorld(String listedWorld) {
+        this.listedWorld = listedWorld;
+        reindex();
+        markDirty();
+    }
+
+    public void setHighestBidder(UUID highestBidder) {
+        this.highestBidder = highestBidder;
+        markDirty();
+    }
+
+    public void setOwnerName(String ownerName) {
+        this.ownerName = ownerName;
+        reindex();
+        markDirty();
+    }
+
+    public void setHighestBidderName(String highestBidderName) {
+        this.highestBidderName = highestBidderName;
+        markDirty();
+    }
+
+    public void setBidItem(boolean isBidItem) {
+        this.isBidItem = isBidItem;
+        reindex();
+        markDirty();
+    }
+
+    public void setBidStartingPrice(double bidStartingPrice) {
+        this.bidStartingPrice = bidStartingPrice;
+        markDirty();
+    }
+
+    public void setBidIncrementPrice(double bidIncrementPrice) {
+        this.bidIncrementPrice = bidIncrementPrice;
+        markDirty();
+    }
+
+    /**
+     * @return the price of a single item in the stack, using the buy now price for non bid items
+     */
+    public double getUnitPrice() {
+        double price = this.isBidItem ? this.currentPrice : this.basePrice;
+        return price / Math.max(1, this.itemAmount);
+    }
+
+    /**
+     * Keeps the secondary indexes of the item manager in sync, does nothing if
+     * the item hasn't been added to the auction house yet
+     */
+    private void reindex() {
+        if (this.id == null || AuctionHouse.getInstance() == null || AuctionHouse.getInstance().getAuctionItemManager() == null) return;
+        AuctionHouse.getInstance().getAuctionItemManager().reindex(this);
+    }
+
+    /**
+     * Flags the item so the write behind task persists it, does nothing if
+     * the item hasn't been added to the auction house yet
+     */
+    private void markDirty() {
+        markDirty(false);
+    }
+
+    private void markDirty(boolean itemChanged) {
+        this.version++;
+        if (this.id == null || AuctionHouse.getInstance() == null || AuctionHouse.getInstance().getAuctionItemManager() == null) return;
+        AuctionHouse.getInstance().getAuctionItemManager().markDirty(this, itemChanged);
+    }
+
     public ItemStack getBidStack() {
-        ItemStack itemStack = this.item.clone();
-        itemStack.setAmount(Math.max(this.item.getAmount(), 1));
+        ItemStack itemStack = getItem().clone();
+        itemStack.setAmount(Math.max(itemStack.getAmount(), 1));
         ItemMeta meta = itemStack.hasItemMeta() ? itemStack.getItemMeta() : Bukkit.getItemFactory().getItemMeta(itemStack.getType());
         List<String> lore = (meta.hasLore()) ? meta.getLore() : new ArrayList<>();
         lore.addAll(TextUtils.formatText(Settings.AUCTION_STACK_DETAILS_HEADER.getStringList()));
@@ -108,9 +364,83 @@ public class AuctionedItem {
         return itemStack;
     }
 
+    /**
+     * Get the stack shown for this listing in the menus. The returned stack is shared
+     * between callers and must not be modified
+     *
+     * @param type is the menu the stack is shown in
+     * @return the rendered display stack
+     */
     public ItemStack getDisplayStack(AuctionStackType type) {
-        ItemStack itemStack = this.item.clone();
-        itemStack.setAmount(Math.max(this.item.getAmount(), 1));
+        final long started = System.nanoTime();
+        try {
+            return getOrRenderDisplayStack(type);
+        } finally {
+            MetricsManager.getInstance().getDisplayStackDuration().recordNanos(System.nanoTime() - started);
+        }
+    }
+
+    private ItemStack getOrRenderDisplayStack(AuctionStackType type) {
+        DisplayStack displayStack;
+        synchronized (this.displayStacks) {
+            displayStack = this.displayStacks.get(type);
+        }
+
+        /*
+         * Rendered without holding the lock. Rendering decodes the item under the lock of the decoded item cache,
+         * and that cache takes this lock when it evicts the listing, so holding both the other way round could deadlock
+         */
+        DisplayStack rendered = null;
+        if (!isCurrent(displayStack)) {
+            rendered = renderDisplayStack(type);
+        }
+
+        synchronized (this.displayStacks) {
+            if (rendered != null) {
+                // another thread may have published a current render in the meantime, the first one to finish is kept
+                displayStack = this.displayStacks.get(type);
+                if (!isCurrent(displayStack)) {
+                    displayStack = rendered;
+                    this.displayStacks.put(type, displayStack);
+                }
+            }
+
+            List<String> timeLeft = renderTimeLeft();
+            if (displayStack.rendered == null || !timeLeft.equals(displayStack.timeLeft)) {
+                ItemStack itemStack = displayStack.base.clone();
+                ItemMeta meta = itemStack.hasItemMeta() ? itemStack.getItemMeta() : Bukkit.getItemFactory().getItemMeta(itemStack.getType());
+                List<String> lore = new ArrayList<>(displayStack.loreBefore.size() + timeLeft.size() + displayStack.loreAfter.size());
+                lore.addAll(displayStack.loreBefore);
+                lore.addAll(timeLeft);
+                lore.addAll(displayStack.loreAfter);
+                meta.setLore(lore);
+                itemStack.setItemMeta(meta);
+
+                displayStack.timeLeft = timeLeft;
+                displayStack.rendered = itemStack;
+            }
+            return displayStack.rendered;
+        }
+    }
+
+    /**
+     * Makes every listing render its display stacks again when they are next shown, called once the settings or locale were reloaded
+     */
+    public static void invalidateDisplayStacks() {
+        renderGeneration++;
+    }
+
+    private boolean isCurrent(DisplayStack displayStack) {
+        return displayStack != null && displayStack.version == this.version && displayStack.generation == renderGeneration;
+    }
+
+    private DisplayStack renderDisplayStack(AuctionStackType type) {
+        // read before rendering so a change made while rendering invalidates the result
+        final int renderedVersion = this.version;
+        final int renderedGeneration = renderGeneration;
+
+        ItemStack itemStack = getItem().clone();
+        itemStack.setAmount(Math.max(itemStack.getAmount(), 1));
         ItemMeta meta = itemStack.hasItemMeta() ? itemStack.getItemMeta() : Bukkit.getItemFactory().getItemMeta(itemStack.getType());
         List<String> lore = (meta.hasLore()) ? meta.getLore() : new ArrayList<>();
 
@@ -129,44 +459,68 @@ public class AuctionedItem {
             lore.addAll(TextUtils.formatText(Settings.AUCTION_STACK_DETAILS_HIGHEST_BIDDER.getStringList().stream().map(s -> s.replace("%highestbidder%", this.highestBidder.equals(this.owner) ? AuctionHouse.getInstance().getLocale().getMessage("auction.nobids").getMessage() : this.highestBidderName)).collect(Collectors.toList())));
         }
 
-        long[] times = AuctionAPI.getInstance().getRemainingTimeValues((this.expiresAt - System.currentTimeMillis()) / 1000);
-        lore.addAll(TextUtils.formatText(Settings.AUCTION_STACK_DETAILS_TIME_LEFT.getStringList().stream().map(s -> s
-                .replace("%remaining_days%", String.valueOf(times[0]))
-                .replace("%remaining_hours%", String.valueOf(times[1]))
-                .replace("%remaining_minutes%", String.valueOf(times[2]))
-                .replace("%remaining_seconds%", String.valueOf(times[3]))
-        ).collect(Collectors.toList())));
-
-        lore.addAll(TextUtils.formatText(Settings.AUCTION_STACK_PURCHASE_CONTROL_HEADER.getStringList()));
+        List<String> loreAfter = new ArrayList<>(TextUtils.formatText(Settings.AUCTION_STACK_PURCHASE_CONTROL_HEADER.getStringList()));
 
         if (type == AuctionStackType.MAIN_AUCTION_HOUSE) {
             if (this.isBidItem) {
                 if (this.basePrice != -1) {
-                    lore.addAll(TextUtils.formatText(Settings.AUCTION_STACK_PURCHASE_CONTROLS_BID_ON.getStringList()));
+                    loreAfter.addAll(TextUtils.formatText(Settings.AUCTION_STACK_PURCHASE_CONTROLS_BID_ON.getStringList()));
                 } else {
-                    lore.addAll(TextUtils.formatText(Settings.AUCTION_STACK_PURCHASE_CONTROLS_BID_ON_NO_BUY_NOW.getStringList()));
+                    loreAfter.addAll(TextUtils.formatText(Settings.AUCTION_STACK_PURCHASE_CONTROLS_BID_ON_NO_BUY_NOW.getStringList()));
                 }
             } else {
-                lore.addAll(TextUtils.formatText(Settings.AUCTION_STACK_PURCHASE_CONTROLS_BID_OFF.getStringList()));
+                loreAfter.addAll(TextUtils.formatText(Settings.AUCTION_STACK_PURCHASE_CONTROLS_BID_OFF.getStringList()));
             }
 
             if (NBTEditor.contains(itemStack, "AuctionBundleItem") || (ServerVersion.isServerVersionAtLeast(ServerVersion.V1_11) && itemStack.getType().name().contains("SHULKER_BOX"))) {
-                lore.addAll(TextUtils.formatText(Settings.AUCTION_STACK_PURCHASE_CONTROLS_INSPECTION.getStringList()));
+                loreAfter.addAll(TextUtils.formatText(Settings.AUCTION_STACK_PURCHASE_CONTROLS_INSPECTION.getStringList()));
             }
         } else {
-            lore.addAll(TextUtils.formatText(Settings.AUCTION_STACK_PURCHASE_CONTROLS_CANCEL_ITEM.getStringList()));
+            loreAfter.addAll(TextUtils.formatText(Settings.AUCTION_STACK_PURCHASE_CONTROLS_CANCEL_ITEM.getStringList()));
             if (Settings.ALLOW_PLAYERS_TO_ACCEPT_BID.getBoolean() && this.bidStartingPrice >= 1 || this.bidIncrementPrice >= 1) {
                 if (!this.owner.equals(this.highestBidder)) {
-                    lore.addAll(TextUtils.formatText(Settings.AUCTION_STACK_PURCHASE_CONTROLS_ACCEPT_BID.getStringList()));
+                    loreAfter.addAll(TextUtils.formatText(Settings.AUCTION_STACK_PURCHASE_CONTROLS_ACCEPT_BID.getStringList()));
                 }
             }
         }
 
-        lore.addAll(TextUtils.formatText(Settings.AUCTION_STACK_PURCHASE_CONTROL_FOOTER.getStringList()));
+        loreAfter.addAll(TextUtils.formatText(Settings.AUCTION_STACK_PURCHASE_CONTROL_FOOTER.getStringList()));
 
-        meta.setLore(lore);
-        itemStack.setItemMeta(meta);
+        // the key is kept when the lore is swapped in later, unknown tags survive setItemMeta
         itemStack = NBTEditor.set(itemStack, this.id.toString(), "AuctionItemKey");
-        return itemStack;
+        return new DisplayStack(renderedVersion, renderedGeneration, itemStack, lore, loreAfter);
+    }
+
+    private List<String> renderTimeLeft() {
+        long[] times = AuctionAPI.getInstance().getRemainingTimeValues((this.expiresAt - System.currentTimeMillis()) / 1000);
+        return TextUtils.formatText(Settings.AUCTION_STACK_DETAILS_TIME_LEFT.getStringList().stream().map(s -> s
+                .replace("%remaining_days%", String.valueOf(times[0]))
+                .replace("%remaining_hours%", String.valueOf(times[1]))
+                .replace("%remaining_minutes%", String.valueOf(times[2]))
+                .replace("%remaining_seconds%", String.valueOf(times[3]))
+        ).collect(Collectors.toList()));
+    }
+
+    /**
+     * Everything but the time left lines of a rendered display stack, along with the last full render
+     */
+    private static final class DisplayStack {
+
+        private final int version;
+        private final int generation;
+        private final ItemStack base;
+        private final List<String> loreBefore;
+        private final List<String> loreAfter;
+
+        private List<String> timeLeft;
+        private ItemStack rendered;
+
+        private DisplayStack(int version, int generation, ItemStack base, List<String> loreBefore, List<String> loreAfter) {
+            this.version = version;
+            this.generation = generation;
+            this.base = base;
+            this.loreBefore = loreBefore;
+            this.loreAfter = loreAfter;
+        }
     }
 }
@@ -2,21 +2,26 @@ package ca.tweetzy.auctionhouse.commands;
 
 import ca.tweetzy.auctionhouse.AuctionHouse;
 import ca.tweetzy.auctionhouse.api.AuctionAPI;
+import ca.tweetzy.auctionhouse.auction.AuctionedItem;
 import ca.tweetzy.auctionhouse.guis.GUISellItem;
 import ca.tweetzy.auctionhouse.helpers.PlayerHelper;
+import ca.tweetzy.auctionhouse.managers.MarketLoop;
 import ca.tweetzy.auctionhouse.settings.Settings;
+import ca.tweetzy.auctionhouse.tasks.LoadTestTask;
 import ca.tweetzy.core.commands.AbstractCommand;
 import ca.tweetzy.core.compatibility.CompatibleHand;
 import ca.tweetzy.core.compatibility.XMaterial;
+import ca.tweetzy.core.utils.NumberUtils;
 import ca.tweetzy.core.utils.PlayerUtils;
+import ca.tweetzy.core.utils.TextUtils;
 import org.bukkit.Bukkit;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.UUID;
 
 /**
  * The current file has been created by Kiran Hart
@@ -37,28 +42,53 @@ public class CommandAdmin extends AbstractCommand {
 
         switch (args[0].toLowerCase()) {
             case "endall":
-                for (UUID id : AuctionHouse.getInstance().getAuctionItemManager().getItems().keySet()) {
-                    AuctionHouse.getInstance().getAuctionItemManager().getItems().get(id).setExpired(true);
-                }
+                MarketLoop.getInstance().execute(() -> {
+                    // only what is still listed when the command runs, copied since ending an item moves it to the expired index
+                    for (AuctionedItem item : new ArrayList<>(AuctionHouse.getInstance().getAuctionItemManager().getItemsByState(false))) {
+                        item.setExpired(true);
+                    }
+                });
                 AuctionHouse.getInstance().getLocale().getMessage("general.endedallauctions").sendPrefixedMessage(sender);
                 break;
             case "relistall":
-                for (UUID id : AuctionHouse.getInstance().getAuctionItemManager().getItems().keySet()) {
-                    if (AuctionHouse.getInstance().getAuctionItemManager().getItems().get(id).isExpired()) {
-                        int relistTime = args.length == 1 ? AuctionHouse.getInstance().getAuctionItemManager().getItems().get(id).isBidItem() ? Settings.DEFAULT_AUCTION_LISTING_TIME.getInt() : Settings.DEFAULT_BIN_LISTING_TIME.getInt() : Integer.parseInt(args[1]);
+                final int listingTime = args.length == 1 ? -1 : Integer.parseInt(args[1]);
+                MarketLoop.getInstance().execute(() -> {
+                    // the expired index leaves out whatever was claimed or removed in the meantime
+                    for (AuctionedItem item : new ArrayList<>(AuctionHouse.getInstance().getAuctionItemManager().getItemsByState(true))) {
+                        int relistTime = listingTime == -1 ? item.isBidItem() ? Settings.DEFAULT_AUCTION_LISTING_TIME.getInt() : Settings.DEFAULT_BIN_LISTING_TIME.getInt() : listingTime;
 
-                        AuctionHouse.getInstance().getAuctionItemManager().getItems().get(id).setExpiresAt(System.currentTimeMillis() + 1000L * relistTime);
-                        AuctionHouse.getInstance().getAuctionItemManager().getItems().get(id).setExpired(false);
+                        item.setExpiresAt(System.currentTimeMillis() + 1000L * relistTime);
+                        item.setExpired(false);
                     }
-                }
+                });
                 AuctionHouse.getInstance().getLocale().getMessage("general.relisteditems").sendPrefixedMessage(sender);
                 break;
             case "clearall":
                 // Don't tell ppl that this exists
-                AuctionHouse.getInstance().getAuctionItemManager().getItems().clear();
+                AuctionHouse.getInstance().getAuctionItemManager().clear();
             case "durabilitystatus":
                 Bukkit.broadcastMessage("damaged: " + AuctionAPI.getInstance().isDamaged(PlayerHelper.getHeldItem((Player) sender)));
                 break;
+            case "loadtest":
+                if (args.length == 2 && args[1].equalsIgnoreCase("stop")) {
+                    if (!LoadTestTask.stop()) return ReturnType.FAILURE;
+                    AuctionHouse.getInstance().getLocale().newMessage(TextUtils.formatText("&eStopping the load test, the results follow once it cleaned up")).sendPrefixedMessage(sender);
+                    break;
+                }
+
+                if (args.length < 5 || !NumberUtils.isInt(args[1]) || !NumberUtils.isDouble(args[2]) || !NumberUtils.isDouble(args[3]) || !NumberUtils.isInt(args[4])) return ReturnType.SYNTAX_ERROR;
+                final int listings = Integer.parseInt(args[1]);
+                final double bidsPerSecond = Double.parseDouble(args[2]);
+                final double buysPerSecond = Double.parseDouble(args[3]);
+                final int duration = Integer.parseInt(args[4]);
+                if (listings < 0 || bidsPerSecond < 0 || buysPerSecond < 0 || duration <= 0) return ReturnType.SYNTAX_ERROR;
+
+                if (!LoadTestTask.start(sender, listings, bidsPerSecond, buysPerSecond, duration)) {
+                    AuctionHouse.getInstance().getLocale().newMessage(TextUtils.formatText("&cA load test is already running, use &e/ah admin loadtest stop &cto end it")).sendPrefixedMessage(sender);
+                    return ReturnType.FAILURE;
+                }
+                AuctionHouse.getInstance().getLocale().newMessage(TextUtils.formatText(String.format("&eLoad test started&7: &f%d &7listing(s), then &f%s &7bid(s)/s and &f%s &7buy(s)/s for &f%ds", listings, args[2], args[3], duration))).sendPrefixedMessage(sender);
+                break;
             case "opensell":
                 if (args.length < 2) return ReturnType.FAILURE;
                 Player player = PlayerUtils.findPlayer(args[1]);
@@ -82,7 +112,8 @@ public class CommandAdmin extends AbstractCommand {
 
     @Override
     protected List<String> onTab(CommandSender sender, String... args) {
-        if (args.length == 1) return Arrays.asList("endall", "relistall");
+        if (args.length == 1) return Arrays.asList("endall", "relistall", "loadtest");
+        if (args.length == 2 && args[0].equalsIgnoreCase("loadtest")) return Arrays.asList("stop", "1000", "10000");
         if (args.length == 2 && args[0].equalsIgnoreCase("relistAll")) return Arrays.asList("1", "2", "3", "4", "5");
         return null;
     }
@@ -94,7 +125,7 @@ public class CommandAdmin extends AbstractCommand {
 
     @Override
     public String getSyntax() {
-        return "admin <endall|relistAll> [value]";
+        return "admin <endall|relistAll|loadtest> [value]";
     }
 
     @Override
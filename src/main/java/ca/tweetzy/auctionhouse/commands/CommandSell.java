@@ -8,6 +8,7 @@ import ca.tweetzy.auctionhouse.guis.GUIBundleCreation;
 import ca.tweetzy.auctionhouse.guis.GUISellItem;
 import ca.tweetzy.auctionhouse.guis.confirmation.GUIConfirmListing;
 import ca.tweetzy.auctionhouse.helpers.PlayerHelper;
+import ca.tweetzy.auctionhouse.managers.PriceSuggestionManager;
 import ca.tweetzy.auctionhouse.settings.Settings;
 import ca.tweetzy.core.commands.AbstractCommand;
 import ca.tweetzy.core.compatibility.CompatibleHand;
@@ -64,6 +65,7 @@ public final class CommandSell extends AbstractCommand {
 		// Open the sell menu enabled
 		if (args.length == 0) {
 			if (!Settings.ALLOW_USAGE_OF_SELL_GUI.getBoolean()) {
+				sendPriceSuggestion(player, itemToSell);
 				return ReturnType.SYNTAX_ERROR;
 			}
 
@@ -161,6 +163,7 @@ public final class CommandSell extends AbstractCommand {
 		// check buy now price null
 		if (buyNowPrice == null) {
 			AuctionHouse.getInstance().getLocale().getMessage("general.please_enter_at_least_one_number").sendPrefixedMessage(player);
+			sendPriceSuggestion(player, itemToSell);
 			return ReturnType.FAILURE;
 		}
 
@@ -288,6 +291,17 @@ public final class CommandSell extends AbstractCommand {
 		return true;
 	}
 
+	private void sendPriceSuggestion(final Player player, final ItemStack item) {
+		final PriceSuggestionManager.PriceSuggestion suggestion = AuctionHouse.getInstance().getPriceSuggestionManager().getSuggestion(item);
+		if (suggestion == null) return;
+
+		AuctionHouse.getInstance().getLocale().getMessage("pricing.suggestion")
+				.processPlaceholder("suggested_low", AuctionAPI.getInstance().formatNumber(suggestion.getLow()))
+				.processPlaceholder("suggested_median", AuctionAPI.getInstance().formatNumber(suggestion.getMedian()))
+				.processPlaceholder("suggested_high", AuctionAPI.getInstance().formatNumber(suggestion.getHigh()))
+				.sendPrefixedMessage(player);
+	}
+
 	@Override
 	protected List<String> onTab(CommandSender sender, String... args) {
 		if (args.length == 1)
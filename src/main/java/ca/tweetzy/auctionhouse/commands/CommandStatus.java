@@ -2,8 +2,11 @@ package ca.tweetzy.auctionhouse.commands;
 
 import ca.tweetzy.auctionhouse.AuctionHouse;
 import ca.tweetzy.auctionhouse.api.AuctionAPI;
+import ca.tweetzy.auctionhouse.database.DatabaseExecutor;
 import ca.tweetzy.auctionhouse.guis.GUIStats;
+import ca.tweetzy.auctionhouse.managers.MetricsManager;
 import ca.tweetzy.core.commands.AbstractCommand;
+import ca.tweetzy.core.utils.TextUtils;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 
@@ -18,17 +21,72 @@ import java.util.List;
 public class CommandStatus extends AbstractCommand {
 
     public CommandStatus() {
-        super(CommandType.PLAYER_ONLY, "status", "stats");
+        super(CommandType.CONSOLE_OK, "status", "stats");
     }
 
     @Override
     protected ReturnType runCommand(CommandSender sender, String... args) {
         if (AuctionAPI.tellMigrationStatus(sender)) return ReturnType.FAILURE;
-        Player player = (Player) sender;
-        AuctionHouse.getInstance().getGuiManager().showGUI(player, new GUIStats(player));
+
+        if (sender.hasPermission("auctionhouse.admin")) {
+            sendDatabaseStatus(sender);
+            sendMetrics(sender);
+        }
+
+        if (sender instanceof Player) {
+            Player player = (Player) sender;
+            AuctionHouse.getInstance().getGuiManager().showGUI(player, new GUIStats(player));
+        }
         return ReturnType.SUCCESS;
     }
 
+    private void sendDatabaseStatus(CommandSender sender) {
+        final DatabaseExecutor executor = AuctionHouse.getInstance().getDataManager().getExecutor();
+        for (DatabaseExecutor.Lane lane : DatabaseExecutor.Lane.values()) {
+            DatabaseExecutor.LaneExecutor laneExecutor = executor.getLane(lane);
+            AuctionHouse.getInstance().getLocale().newMessage(TextUtils.formatText(String.format("&e%s&7: &f%d &7queued, &f%d&7/&f%d &7busy, &f%d &7done, wait avg &f%.1fms &7max &f%.1fms",
+                    lane.name().toLowerCase(),
+                    laneExecutor.getQueueDepth(),
+                    laneExecutor.getActive(),
+                    laneExecutor.getConcurrency(),
+                    laneExecutor.getCompleted(),
+                    laneExecutor.getAverageWaitMillis(),
+                    laneExecutor.getMaxWaitMillis()
+            ))).sendPrefixedMessage(sender);
+        }
+    }
+
+    private void sendMetrics(CommandSender sender) {
+        final MetricsManager metrics = MetricsManager.getInstance();
+        sendTimings(sender, "tick", metrics.getTickDuration());
+        sendTimings(sender, "menu draw", metrics.getDrawItemsDuration());
+        sendTimings(sender, "display stack", metrics.getDisplayStackDuration());
+        metrics.getDatabaseDurations().forEach((method, histogram) -> sendTimings(sender, method + " (" + metrics.getDatabaseRows(method) + " rows)", histogram));
+
+        final MetricsManager.Histogram results = metrics.getDrawItemsResults();
+        if (results.getCount() != 0) AuctionHouse.getInstance().getLocale().newMessage(TextUtils.formatText(String.format("&emenu results&7: avg &f%.0f &7p99 &f%.0f &7max &f%.0f",
+                results.getAverage(),
+                results.getQuantile(0.99),
+                results.getMax()
+        ))).sendPrefixedMessage(sender);
+        AuctionHouse.getInstance().getLocale().newMessage(TextUtils.formatText(String.format("&elast minute&7: &f%d &7listed, &f%d &7bids, &f%d &7sold",
+                metrics.getListings().getPerMinute(),
+                metrics.getBids().getPerMinute(),
+                metrics.getPurchases().getPerMinute()
+        ))).sendPrefixedMessage(sender);
+    }
+
+    private void sendTimings(CommandSender sender, String name, MetricsManager.Histogram histogram) {
+        if (histogram.getCount() == 0) return;
+        AuctionHouse.getInstance().getLocale().newMessage(TextUtils.formatText(String.format("&e%s&7: &f%d &7runs, p50 &f%.2fms &7p99 &f%.2fms &7max &f%.2fms",
+                name,
+                histogram.getCount(),
+                histogram.getQuantile(0.5) * 1000,
+                histogram.getQuantile(0.99) * 1000,
+                histogram.getMax() * 1000
+        ))).sendPrefixedMessage(sender);
+    }
+
     @Override
     public String getPermissionNode() {
         return "auctionhouse.cmd.status";
@@ -0,0 +1,364 @@
+package ca.tweetzy.auctionhouse.database;
+
+import ca.tweetzy.auctionhouse.api.AuctionAPI;
+import ca.tweetzy.auctionhouse.auction.AuctionItemCategory;
+import ca.tweetzy.auctionhouse.auction.AuctionedItem;
+import lombok.Getter;
+import org.bukkit.plugin.Plugin;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.zip.CRC32;
+
+/**
+ * The current file has been created by Kiran Hart
+ * Date Created: October 18 2026
+ * Time Created: 3:02 p.m.
+ * Usage of any code found within this class is prohibited unless given explicit permission otherwise
+ *
+ * An append only write ahead journal for auction item changes that haven't reached the database yet.
+ * Records are queued by the thread making the change and written + synced by a single background thread in
+ * small groups, each record is framed by its length and a crc so a torn write at the end of the file is ignored on replay
+ */
+public class AuctionJournal {
+
+    private static final byte RECORD_UPDATE = 1;
+    private static final byte RECORD_DELETE = 2;
+
+    // how often queued records are written and synced to disk
+    private static final long SYNC_INTERVAL_MS = 50;
+    // anything bigger than this can only be a torn length prefix
+    private static final int MAX_RECORD_SIZE = 16 * 1024 * 1024;
+
+    private final Plugin plugin;
+    private final File file;
+    private final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor();
+
+    private final ConcurrentLinkedQueue<Record> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicLong truncateRequest = new AtomicLong(-1);
+    private long lastSequence = 0;
+    private volatile long checkpointedSequence = -1;
+    // only touched by the writer thread
+    private long writtenSequence = 0;
+
+    // set and cleared on open and close, read by the writer thread and every thread appending records
+    private volatile FileChannel channel;
+
+    public AuctionJournal(Plugin plugin) {
+        this.plugin = plugin;
+        this.file = new File(plugin.getDataFolder(), "auctions.journal");
+    }
+
+    /**
+     * Opens the journal for writing, this should only be called once the existing records were replayed
+     */
+    public void open() {
+        try {
+            this.channel = FileChannel.open(this.file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            this.plugin.getLogger().log(Level.SEVERE, "Could not open the auction journal, changes will only be saved by the auto save", e);
+            return;
+        }
+        this.writer.scheduleWithFixedDelay(this::sync, SYNC_INTERVAL_MS, SYNC_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    public void close() {
+        this.writer.shutdown();
+        try {
+            this.writer.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            AuctionAPI.getInstance().logException(this.plugin, ex);
+        }
+
+        if (this.channel == null) return;
+        sync();
+        try {
+            this.channel.close();
+        } catch (IOException e) {
+            AuctionAPI.getInstance().logException(this.plugin, e);
+        }
+    }
+
+    /**
+     * Queues the current state of an item, the encoded item stack is only
+     * included when it changed since it is by far the largest part of a record
+     *
+     * @param item        is the item that changed
+     * @param itemChanged whether the item stack itself changed
+     */
+    public void appendUpdate(AuctionedItem item, boolean itemChanged) {
+        if (this.channel == null) return;
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(RECORD_UPDATE);
+            writeUUID(out, item.getId());
+            writeUUID(out, item.getOwner());
+            writeUUID(out, item.getHighestBidder());
+            out.writeUTF(item.getOwnerName());
+            out.writeUTF(item.getHighestBidderName());
+            out.writeDouble(item.getBasePrice());
+            out.writeDouble(item.getBidStartingPrice());
+            out.writeDouble(item.getBidIncrementPrice());
+            out.writeDouble(item.getCurrentPrice());
+            out.writeLong(item.getExpiresAt());
+            out.writeBoolean(item.isExpired());
+            out.writeBoolean(item.isBidItem());
+            out.writeUTF(item.getCategory() == null ? "" : item.getCategory().name());
+            out.writeUTF(item.getListedWorld() == null ? "" : item.getListedWorld());
+            out.writeBoolean(itemChanged);
+            if (itemChanged) {
+                byte[] encoded = item.getEncodedItem().getBytes(StandardCharsets.UTF_8);
+                out.writeInt(encoded.length);
+                out.write(encoded);
+            }
+        } catch (IOException e) {
+            AuctionAPI.getInstance().logException(this.plugin, e);
+            return;
+        }
+
+        enqueue(bytes.toByteArray());
+    }
+
+    public void appendDelete(UUID id) {
+        if (this.channel == null) return;
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(17);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(RECORD_DELETE);
+            writeUUID(out, id);
+        } catch (IOException e) {
+            AuctionAPI.getInstance().logException(this.plugin, e);
+            return;
+        }
+
+        enqueue(bytes.toByteArray());
+    }
+
+    /**
+     * @return the sequence of the most recently queued record
+     */
+    public synchronized long getLastSequence() {
+        return this.lastSequence;
+    }
+
+    /**
+     * Drops every record up to and including the sequence, the caller must make sure
+     * that everything those records describe has already been written to the database
+     *
+     * @param sequence is the last sequence covered by the checkpoint
+     */
+    public void checkpoint(long sequence) {
+        if (sequence <= this.checkpointedSequence) return;
+        this.truncateRequest.accumulateAndGet(sequence, Math::max);
+    }
+
+    public long getSize() {
+        return this.file.length();
+    }
+
+    /**
+     * Reads every intact record from the journal, later records for the same item replace
+     * earlier ones while keeping the last known item stack if the later record didn't include one
+     *
+     * @return the last journaled state of each item, in the order they were first seen
+     */
+    public Map<UUID, Entry> replay() {
+        final Map<UUID, Entry> entries = new LinkedHashMap<>();
+        if (!this.file.exists()) return entries;
+
+        int read = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(this.file)))) {
+            while (true) {
+                int length;
+                try {
+                    length = in.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+
+                if (length <= 0 || length > MAX_RECORD_SIZE) {
+                    this.plugin.getLogger().warning("Ignoring a corrupt record at the end of the auction journal");
+                    break;
+                }
+
+                long checksum = in.readInt() & 0xFFFFFFFFL;
+                byte[] payload = new byte[length];
+                in.readFully(payload);
+
+                CRC32 crc = new CRC32();
+                crc.update(payload);
+                if (crc.getValue() != checksum) {
+                    this.plugin.getLogger().warning("Ignoring a corrupt record at the end of the auction journal");
+                    break;
+                }
+
+                Entry entry = readEntry(payload);
+                Entry previous = entries.get(entry.id);
+                if (previous != null && !entry.deleted && entry.encodedItem == null) {
+                    entry.encodedItem = previous.encodedItem;
+                }
+                entries.put(entry.id, entry);
+                read++;
+            }
+        } catch (EOFException e) {
+            this.plugin.getLogger().warning("Ignoring a partially written record at the end of the auction journal");
+        } catch (IOException e) {
+            this.plugin.getLogger().log(Level.SEVERE, "Could not read the auction journal", e);
+        }
+
+        if (read != 0) {
+            this.plugin.getLogger().info("Replaying " + entries.size() + " auction item change(s) from " + read + " journal record(s)");
+        }
+        return entries;
+    }
+
+    private synchronized void enqueue(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+
+        ByteBuffer frame = ByteBuffer.allocate(8 + payload.length);
+        frame.putInt(payload.length);
+        frame.putInt((int) crc.getValue());
+        frame.put(payload);
+
+        this.queue.add(new Record(++this.lastSequence, frame.array()));
+    }
+
+    private void sync() {
+        try {
+            final long truncateUpTo = this.truncateRequest.getAndSet(-1);
+            // records past the checkpoint that already reached the file would be lost by truncating, so wait for the next one
+            if (truncateUpTo >= 0 && truncateUpTo >= this.writtenSequence) {
+                Record head;
+                while ((head = this.queue.peek()) != null && head.sequence <= truncateUpTo) {
+                    this.queue.poll();
+                }
+                this.channel.truncate(0);
+                this.checkpointedSequence = truncateUpTo;
+            }
+
+            if (this.queue.isEmpty()) return;
+
+            final ByteArrayOutputStream group = new ByteArrayOutputStream();
+            long sequence = this.writtenSequence;
+            Record record;
+            while ((record = this.queue.poll()) != null) {
+                group.write(record.frame);
+                sequence = record.sequence;
+            }
+
+            ByteBuffer buffer = ByteBuffer.wrap(group.toByteArray());
+            while (buffer.hasRemaining()) {
+                this.channel.write(buffer);
+            }
+            this.channel.force(false);
+            this.writtenSequence = sequence;
+        } catch (IOException e) {
+            this.plugin.getLogger().log(Level.SEVERE, "Could not write to the auction journal", e);
+        }
+    }
+
+    private Entry readEntry(byte[] payload) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            final Entry entry = new Entry();
+            final byte type = in.readByte();
+            entry.id = readUUID(in);
+
+            if (type == RECORD_DELETE) {
+                entry.deleted = true;
+                return entry;
+            }
+
+            entry.owner = readUUID(in);
+            entry.highestBidder = readUUID(in);
+            entry.ownerName = in.readUTF();
+            entry.highestBidderName = in.readUTF();
+            entry.basePrice = in.readDouble();
+            entry.bidStartingPrice = in.readDouble();
+            entry.bidIncrementPrice = in.readDouble();
+            entry.currentPrice = in.readDouble();
+            entry.expiresAt = in.readLong();
+            entry.expired = in.readBoolean();
+            entry.bidItem = in.readBoolean();
+            // written empty when the item had none
+            final String category = in.readUTF();
+            entry.category = category.isEmpty() ? null : AuctionItemCategory.valueOf(category);
+            final String listedWorld = in.readUTF();
+            entry.listedWorld = listedWorld.isEmpty() ? null : listedWorld;
+            if (in.readBoolean()) {
+                byte[] encoded = new byte[in.readInt()];
+                in.readFully(encoded);
+                entry.encodedItem = new String(encoded, StandardCharsets.UTF_8);
+            }
+            return entry;
+        }
+    }
+
+    private static void writeUUID(DataOutputStream out, UUID id) throws IOException {
+        out.writeLong(id.getMostSignificantBits());
+        out.writeLong(id.getLeastSignificantBits());
+    }
+
+    private static UUID readUUID(DataInputStream in) throws IOException {
+        return new UUID(in.readLong(), in.readLong());
+    }
+
+    private static final class Record {
+
+        private final long sequence;
+        private final byte[] frame;
+
+        private Record(long sequence, byte[] frame) {
+            this.sequence = sequence;
+            this.frame = frame;
+        }
+    }
+
+    /**
+     * The last journaled state of an auction item
+     */
+    @Getter
+    public static final class Entry {
+
+        private UUID id;
+        private boolean deleted;
+
+        private UUID owner;
+        private UUID highestBidder;
+        private String ownerName;
+        private String highestBidderName;
+        private double basePrice;
+        private double bidStartingPrice;
+        private double bidIncrementPrice;
+        private double currentPrice;
+        private long expiresAt;
+        private boolean expired;
+        private boolean bidItem;
+        private AuctionItemCategory category;
+        private String listedWorld;
+        private String encodedItem;
+
+        /**
+         * Applies the journaled state onto the loaded item. The item is indexed and flagged for the next flush
+         * once, without journaling it again since the journal already holds this state
+         *
+         * @param item is the item loaded from the database
+         */
+        public void applyTo(AuctionedItem item) {
+            item.restore(this);
+        }
+    }
+}
@@ -3,13 +3,16 @@ package ca.tweetzy.auctionhouse.database;
 import ca.tweetzy.auctionhouse.AuctionHouse;
 import ca.tweetzy.auctionhouse.api.AuctionAPI;
 import ca.tweetzy.auctionhouse.auction.*;
+import ca.tweetzy.auctionhouse.managers.MetricsManager;
 import ca.tweetzy.auctionhouse.settings.Settings;
 import ca.tweetzy.auctionhouse.transaction.Transaction;
 import ca.tweetzy.core.database.DataManagerAbstract;
 import ca.tweetzy.core.database.DatabaseConnector;
 import ca.tweetzy.core.database.MySQLConnector;
+import lombok.Getter;
 import org.bukkit.Bukkit;
 import org.bukkit.OfflinePlayer;
+import org.bukkit.inventory.ItemStack;
 import org.bukkit.plugin.Plugin;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -19,10 +22,9 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -34,20 +36,24 @@ import java.util.stream.Collectors;
  */
 public class DataManager extends DataManagerAbstract {
 
-    private final ExecutorService thread = Executors.newSingleThreadExecutor();
+    private static final String AUCTION_COLUMNS = "(id, owner, highest_bidder, owner_name, highest_bidder_name, category, base_price, bid_start_price, bid_increment_price, current_price, expired, expires_at, item_material, item_name, item_lore, item_enchants, item, listed_world, item_amount) VALUES(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String TRANSACTION_COLUMNS = "(id, seller, seller_name, buyer, buyer_name, transaction_time, item, auction_sale_type, final_price) VALUES(?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Getter
+    private final DatabaseExecutor executor;
 
     public DataManager(DatabaseConnector databaseConnector, Plugin plugin) {
         super(databaseConnector, plugin);
+        // sqlite only ever has the one connection
+        this.executor = new DatabaseExecutor(databaseConnector instanceof MySQLConnector ? Settings.DATABASE_MAX_CONNECTIONS.getInt() : 1);
     }
 
     public void close() {
-        if (!this.thread.isShutdown()) {
-            this.thread.shutdown();
-
+        if (!this.executor.isShutdown()) {
             try {
-                if (!this.thread.awaitTermination(60, TimeUnit.SECONDS)) {
-                    // Try stopping the thread forcefully (there is basically no hope left for the data)
-                    this.thread.shutdownNow();
+                if (!this.executor.shutdown(60)) {
+                    // the lanes were stopped forcefully (there is basically no hope left for the data)
+                    this.plugin.getLogger().warning("Some database work did not finish before shutting down");
                 }
             } catch (InterruptedException ex) {
                 AuctionAPI.getInstance().logException(super.plugin, ex);
@@ -62,7 +68,7 @@ public class DataManager extends DataManagerAbstract {
         String truncate = AuctionHouse.getInstance().getDatabaseConnector() instanceof MySQLConnector ? "TRUNCATE TABLE " + this.getTablePrefix() + "bans" : "DELETE FROM " + this.getTablePrefix() + "bans";
 
         if (async) {
-            this.async(() -> this.databaseConnector.connect(connection -> {
+            this.executor.execute(DatabaseExecutor.Lane.BULK, () -> this.databaseConnector.connect(connection -> {
 
                 try (PreparedStatement statement = connection.prepareStatement(truncate)) {
                     statement.execute();
@@ -108,7 +114,7 @@ public class DataManager extends DataManagerAbstract {
         String truncate = AuctionHouse.getInstance().getDatabaseConnector() instanceof MySQLConnector ? "TRUNCATE TABLE " + this.getTablePrefix() + "filter_whitelist" : "DELETE FROM " + this.getTablePrefix() + "filter_whitelist" ;
 
         if (async) {
-            this.async(() -> this.databaseConnector.connect(connection -> {
+            this.executor.execute(DatabaseExecutor.Lane.BULK, () -> this.databaseConnector.connect(connection -> {
                 try (PreparedStatement statement = connection.prepareStatement(truncate)) {
                     statement.execute();
                 }
@@ -146,7 +152,7 @@ public class DataManager extends DataManagerAbstract {
 
     public void getBans(Consumer<ArrayList<AuctionBan>> callback) {
         ArrayList<AuctionBan> bans = new ArrayList<>();
-        this.async(() -> this.databaseConnector.connect(connection -> {
+        this.executor.execute(DatabaseExecutor.Lane.READ, () -> this.databaseConnector.connect(connection -> {
             String select = "SELECT * FROM " + this.getTablePrefix() + "bans";
 
             try (Statement statement = connection.createStatement()) {
@@ -165,7 +171,7 @@ public class DataManager extends DataManagerAbstract {
 
     public void getFilterWhitelist(Consumer<ArrayList<AuctionFilterItem>> callback) {
         ArrayList<AuctionFilterItem> filterItems = new ArrayList<>();
-        this.async(() -> this.databaseConnector.connect(connection -> {
+        this.executor.execute(DatabaseExecutor.Lane.READ, () -> this.databaseConnector.connect(connection -> {
             String select = "SELECT * FROM " + this.getTablePrefix() + "filter_whitelist";
 
             try (Statement statement = connection.createStatement()) {
@@ -178,114 +184,382 @@ public class DataManager extends DataManagerAbstract {
         }));
     }
 
-    public void getItems(Callback<ArrayList<AuctionedItem>> callback) {
-        ArrayList<AuctionedItem> items = new ArrayList<>();
-        this.async(() -> this.databaseConnector.connect(connection -> {
-            try (PreparedStatement statement = connection.prepareStatement("SELECT * FROM " + this.getTablePrefix() + "auctions")) {
-                ResultSet resultSet = statement.executeQuery();
-                while (resultSet.next()) {
-                    items.add(extractAuctionedItem(resultSet));
+    /**
+     * Streams the auctions table into the consumer as it is read. Rows are fetched in pages on a single connection and
+     * turned into auction items on a small bounded pool, so building them never waits on the database and the reader
+     * never runs ahead of the workers by more than a few pages. The consumer is called from the worker threads
+     *
+     * @param consumer is given every auction item that was loaded
+     * @param callback is called once every row has been handed to the consumer
+     */
+    public void loadItems(Consumer<AuctionedItem> consumer, UpdateCallback callback) {
+        this.executor.execute(DatabaseExecutor.Lane.READ, () -> this.databaseConnector.connect(connection -> {
+            final long start = System.currentTimeMillis();
+            final long started = System.nanoTime();
+            final int pageSize = 250;
+            final int workers = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+            final ThreadPoolExecutor pool = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(workers * 2), new ThreadPoolExecutor.CallerRunsPolicy());
+            final AtomicInteger loaded = new AtomicInteger();
+            Exception error = null;
+
+            try {
+                int total = 0;
+                try (Statement statement = connection.createStatement()) {
+                    ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM " + this.getTablePrefix() + "auctions");
+                    if (resultSet.next()) total = resultSet.getInt(1);
+                }
+
+                try (PreparedStatement statement = connection.prepareStatement("SELECT * FROM " + this.getTablePrefix() + "auctions", ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                    statement.setFetchSize(pageSize);
+                    ResultSet resultSet = statement.executeQuery();
+
+                    long lastReport = start;
+                    List<StoredAuction> page = new ArrayList<>(pageSize);
+                    while (resultSet.next()) {
+                        page.add(readAuction(resultSet));
+                        if (page.size() == pageSize) {
+                            pool.execute(publishPage(page, consumer, loaded));
+                            page = new ArrayList<>(pageSize);
+                        }
+
+                        if (System.currentTimeMillis() - lastReport >= 2000) {
+                            lastReport = System.currentTimeMillis();
+                            this.plugin.getLogger().info("Loading auction items, " + loaded.get() + "/" + total + " ready");
+                        }
+                    }
+
+                    if (!page.isEmpty()) pool.execute(publishPage(page, consumer, loaded));
                 }
+            } catch (SQLException e) {
+                error = e;
+            } finally {
+                pool.shutdown();
+                try {
+                    // the workers still building items would publish them after the load was reported as done
+                    if (!pool.awaitTermination(5, TimeUnit.MINUTES)) {
+                        pool.shutdownNow();
+                        if (error == null) error = new TimeoutException("Timed out building the loaded auction items, " + loaded.get() + " were ready");
+                    }
+                } catch (InterruptedException ex) {
+                    pool.shutdownNow();
+                    Thread.currentThread().interrupt();
+                    if (error == null) error = ex;
+                }
+            }
+
+            this.plugin.getLogger().info("Loaded " + loaded.get() + " auction item(s) in " + (System.currentTimeMillis() - start) + "ms");
+            if (error == null) MetricsManager.getInstance().recordDatabase("loadItems", started, loaded.get());
+            resolveUpdateCallback(callback, error);
+        }));
+    }
+
+    private Runnable publishPage(List<StoredAuction> page, Consumer<AuctionedItem> consumer, AtomicInteger loaded) {
+        return () -> {
+            for (StoredAuction stored : page) {
+                try {
+                    consumer.accept(stored.toAuctionedItem());
+                    loaded.incrementAndGet();
+                } catch (Exception e) {
+                    this.plugin.getLogger().warning("Skipping auction item " + stored.id + ", it could not be loaded: " + e.getMessage());
+                }
+            }
+        };
+    }
 
-                callback.accept(null, items);
+    /**
+     * Reads one page of transactions, newest first. Pages are keyed by the (transaction_time, id) of the
+     * last transaction on the previous page instead of an offset, so any page costs the same to read
+     *
+     * @param player   is whose transactions are read (as the seller or the buyer), null reads everyone's
+     * @param after    is the last transaction of the previous page, null reads the first page
+     * @param limit    is the most transactions that are read
+     * @param callback receives the page
+     */
+    public void getTransactionPage(@Nullable UUID player, @Nullable Transaction after, int limit, Callback<List<Transaction>> callback) {
+        final String table = this.getTablePrefix() + "transactions";
+        final String cursor = after == null ? "" : " AND (transaction_time < ? OR (transaction_time = ? AND id < ?))";
+        final String order = " ORDER BY transaction_time DESC, id DESC LIMIT ?";
+
+        // an OR over the seller and buyer can't walk either index in order, so each side is paged on its own and merged
+        final String query = player == null
+                ? "SELECT * FROM " + table + " WHERE 1 = 1" + cursor + order
+                : "SELECT * FROM (SELECT * FROM " + table + " WHERE seller = ?" + cursor + order + ") AS sold UNION " +
+                "SELECT * FROM (SELECT * FROM " + table + " WHERE buyer = ?" + cursor + order + ") AS bought" + order;
+
+        this.executor.execute(DatabaseExecutor.Lane.READ, () -> this.databaseConnector.connect(connection -> {
+            final long started = System.nanoTime();
+            try (PreparedStatement statement = connection.prepareStatement(query)) {
+                int index = 1;
+                for (int side = 0; side < (player == null ? 1 : 2); side++) {
+                    if (player != null) statement.setString(index++, player.toString());
+                    if (after != null) {
+                        statement.setLong(index++, after.getTransactionTime());
+                        statement.setLong(index++, after.getTransactionTime());
+                        statement.setString(index++, after.getId().toString());
+                    }
+                    statement.setInt(index++, limit);
+                }
+                if (player != null) statement.setInt(index, limit);
+
+                final List<Transaction> transactions = new ArrayList<>(limit);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        transactions.add(extractTransaction(resultSet));
+                    }
+                }
+
+                MetricsManager.getInstance().recordDatabase("getTransactionPage", started, transactions.size());
+                callback.accept(null, transactions);
             } catch (Exception e) {
                 resolveCallback(callback, e);
             }
         }));
     }
 
-    public void getTransactions(Callback<ArrayList<Transaction>> callback) {
-        ArrayList<Transaction> transactions = new ArrayList<>();
-        this.async(() -> this.databaseConnector.connect(connection -> {
-            try (PreparedStatement statement = connection.prepareStatement("SELECT * FROM " + this.getTablePrefix() + "transactions")) {
-                ResultSet resultSet = statement.executeQuery();
-                while (resultSet.next()) {
-                    transactions.add(extractTransaction(resultSet));
+    /**
+     * Reads a single transaction on the calling thread
+     *
+     * @param id       is the id of the transaction
+     * @param callback receives the transaction, or null if there is none with that id
+     */
+    public void getTransaction(UUID id, Callback<Transaction> callback) {
+        this.databaseConnector.connect(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("SELECT * FROM " + this.getTablePrefix() + "transactions WHERE id = ?")) {
+                statement.setString(1, id.toString());
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    callback.accept(null, resultSet.next() ? extractTransaction(resultSet) : null);
                 }
+            } catch (Exception e) {
+                resolveCallback(callback, e);
+            }
+        });
+    }
 
+    /**
+     * Reads every transaction on the calling thread, this reads the whole table
+     *
+     * @param callback receives the transactions
+     */
+    public void getTransactions(Callback<List<Transaction>> callback) {
+        this.databaseConnector.connect(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("SELECT * FROM " + this.getTablePrefix() + "transactions")) {
+                final List<Transaction> transactions = new ArrayList<>();
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        transactions.add(extractTransaction(resultSet));
+                    }
+                }
                 callback.accept(null, transactions);
             } catch (Exception e) {
                 resolveCallback(callback, e);
             }
+        });
+    }
+
+    /**
+     * Counts how many items every player sold and bought
+     *
+     * @param until    is the newest transaction time that is counted
+     * @param callback receives the counts by player, the first value is the amount sold and the second the amount bought
+     */
+    public void getTransactionCounts(long until, Callback<Map<UUID, int[]>> callback) {
+        this.executor.execute(DatabaseExecutor.Lane.READ, () -> this.databaseConnector.connect(connection -> {
+            final Map<UUID, int[]> counts = new HashMap<>();
+            final String[] columns = {"seller", "buyer"};
+
+            try {
+                for (int side = 0; side < columns.length; side++) {
+                    try (PreparedStatement statement = connection.prepareStatement("SELECT " + columns[side] + ", COUNT(*) FROM " + this.getTablePrefix() + "transactions WHERE transaction_time <= ? GROUP BY " + columns[side])) {
+                        statement.setLong(1, until);
+                        try (ResultSet resultSet = statement.executeQuery()) {
+                            while (resultSet.next()) {
+                                counts.computeIfAbsent(UUID.fromString(resultSet.getString(1)), key -> new int[2])[side] = resultSet.getInt(2);
+                            }
+                        }
+                    }
+                }
+
+                callback.accept(null, counts);
+            } catch (Exception e) {
+                resolveCallback(callback, e);
+            }
+        }));
+    }
+
+    /**
+     * Streams the item and final price of every recorded transaction, this reads the whole table
+     * and decodes every item so it should only be used for one off background work
+     *
+     * @param consumer receives each sold item with the price it went for, on a database thread
+     * @param callback is called once every transaction was read
+     */
+    public void forEachTransactionSale(BiConsumer<ItemStack, Double> consumer, UpdateCallback callback) {
+        this.executor.execute(DatabaseExecutor.Lane.READ, () -> this.databaseConnector.connect(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("SELECT item, final_price FROM " + this.getTablePrefix() + "transactions")) {
+                statement.setFetchSize(250);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        final ItemStack item = AuctionAPI.decodeItem(resultSet.getString("item"));
+                        if (item != null) consumer.accept(item, resultSet.getDouble("final_price"));
+                    }
+                }
+
+                resolveUpdateCallback(callback, null);
+            } catch (Exception e) {
+                resolveUpdateCallback(callback, e);
+            }
         }));
     }
 
     public void insertTransaction(Transaction transaction, Callback<Transaction> callback) {
+        final long started = System.nanoTime();
         this.databaseConnector.connect(connection -> {
-            try (PreparedStatement statement = connection.prepareStatement("INSERT INTO " + getTablePrefix() + "transactions (id, seller, seller_name, buyer, buyer_name, transaction_time, item, auction_sale_type, final_price) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
-                PreparedStatement fetch = connection.prepareStatement("SELECT * FROM " + this.getTablePrefix() + "transactions WHERE id = ?");
-
-                fetch.setString(1, transaction.getId().toString());
-                statement.setString(1, transaction.getId().toString());
-                statement.setString(2, transaction.getSeller().toString());
-                statement.setString(3, transaction.getSellerName());
-                statement.setString(4, transaction.getBuyer().toString());
-                statement.setString(5, transaction.getBuyerName());
-                statement.setLong(6, transaction.getTransactionTime());
-                statement.setString(7, AuctionAPI.encodeItem(transaction.getItem()));
-                statement.setString(8, transaction.getAuctionSaleType().name());
-                statement.setDouble(9, transaction.getFinalPrice());
+            try (PreparedStatement statement = connection.prepareStatement("INSERT INTO " + this.getTablePrefix() + "transactions" + TRANSACTION_COLUMNS)) {
+                bindTransaction(statement, transaction);
                 statement.executeUpdate();
+                MetricsManager.getInstance().recordDatabase("insertTransaction", started, 1);
+                // everything that was written came from the transaction, so there is nothing to read back
+                if (callback != null) callback.accept(null, transaction);
+            } catch (Exception e) {
+                resolveCallback(callback, e);
+            }
+        });
+    }
+
+    /**
+     * Inserts every transaction in a single batch, either all of them are written or none are
+     *
+     * @param transactions are the transactions being inserted
+     * @param callback     receives the inserted transactions
+     */
+    public void insertTransactions(Collection<Transaction> transactions, Callback<Collection<Transaction>> callback) {
+        if (transactions.isEmpty()) {
+            if (callback != null) callback.accept(null, transactions);
+            return;
+        }
+
+        final long started = System.nanoTime();
+        this.databaseConnector.connect(connection -> {
+            connection.setAutoCommit(false);
 
-                if (callback != null) {
-                    ResultSet res = fetch.executeQuery();
-                    res.next();
-                    callback.accept(null, extractTransaction(res));
+            try (PreparedStatement statement = connection.prepareStatement("INSERT INTO " + this.getTablePrefix() + "transactions" + TRANSACTION_COLUMNS)) {
+                for (Transaction transaction : transactions) {
+                    bindTransaction(statement, transaction);
+                    statement.addBatch();
                 }
 
+                statement.executeBatch();
+                connection.commit();
+                MetricsManager.getInstance().recordDatabase("insertTransactions", started, transactions.size());
+                if (callback != null) callback.accept(null, transactions);
             } catch (Exception e) {
-                e.printStackTrace();
+                connection.rollback();
                 resolveCallback(callback, e);
+            } finally {
+                connection.setAutoCommit(true);
             }
         });
     }
 
+    public void insertTransactionsAsync(Collection<Transaction> transactions, Callback<Collection<Transaction>> callback) {
+        this.executor.execute(DatabaseExecutor.Lane.INTERACTIVE, () -> insertTransactions(transactions, callback));
+    }
+
     public void insertTransactionAsync(Transaction transaction, Callback<Transaction> callback) {
-        this.thread.execute(() -> insertTransaction(transaction, callback));
+        this.executor.execute(DatabaseExecutor.Lane.INTERACTIVE, () -> insertTransaction(transaction, callback));
     }
 
     public void insertAuction(AuctionedItem item, Callback<AuctionedItem> callback) {
+        final long started = System.nanoTime();
         this.databaseConnector.connect(connection -> {
-            try (PreparedStatement statement = connection.prepareStatement("INSERT INTO " + this.getTablePrefix() + "auctions(id, owner, highest_bidder, owner_name, highest_bidder_name, category, base_price, bid_start_price, bid_increment_price, current_price, expired, expires_at, item_material, item_name, item_lore, item_enchants, item, listed_world) VALUES(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
-                PreparedStatement fetch = connection.prepareStatement("SELECT * FROM " + this.getTablePrefix() + "auctions WHERE id = ?");
-
-                fetch.setString(1, item.getId().toString());
-                statement.setString(1, item.getId().toString());
-                statement.setString(2, item.getOwner().toString());
-                statement.setString(3, item.getHighestBidder().toString());
-                statement.setString(4, item.getOwnerName());
-                statement.setString(5, item.getHighestBidderName());
-                statement.setString(6, item.getCategory().name());
-                statement.setDouble(7, item.getBasePrice());
-                statement.setDouble(8, item.getBidStartingPrice());
-                statement.setDouble(9, item.getBidIncrementPrice());
-                statement.setDouble(10, item.getCurrentPrice());
-                statement.setBoolean(11, item.isExpired());
-                statement.setLong(12, item.getExpiresAt());
-                statement.setString(13, item.getItem().getType().name());
-                statement.setString(14, AuctionAPI.getInstance().getItemName(item.getItem()));
-                statement.setString(15, AuctionAPI.getInstance().serializeLines(AuctionAPI.getInstance().getItemLore(item.getItem())));
-                statement.setString(16, AuctionAPI.getInstance().serializeLines(AuctionAPI.getInstance().getItemEnchantments(item.getItem())));
-                statement.setString(17, AuctionAPI.encodeItem(item.getItem()));
-                statement.setString(18, item.getListedWorld());
+            try (PreparedStatement statement = connection.prepareStatement("INSERT INTO " + this.getTablePrefix() + "auctions" + AUCTION_COLUMNS)) {
+                bindAuction(statement, item);
                 statement.executeUpdate();
+                MetricsManager.getInstance().recordDatabase("insertAuction", started, 1);
+                // everything that was written came from the item, so there is nothing to read back
+                if (callback != null) callback.accept(null, item);
+            } catch (Exception e) {
+                resolveCallback(callback, e);
+            }
+        });
+    }
+
+    /**
+     * Inserts every item in a single batch, either all of them are written or none are
+     *
+     * @param items    are the items being listed
+     * @param callback receives the inserted items
+     */
+    public void insertAuctions(Collection<AuctionedItem> items, Callback<Collection<AuctionedItem>> callback) {
+        if (items.isEmpty()) {
+            if (callback != null) callback.accept(null, items);
+            return;
+        }
+
+        final long started = System.nanoTime();
+        this.databaseConnector.connect(connection -> {
+            connection.setAutoCommit(false);
 
-                if (callback != null) {
-                    ResultSet res = fetch.executeQuery();
-                    res.next();
-                    callback.accept(null, extractAuctionedItem(res));
+            try (PreparedStatement statement = connection.prepareStatement("INSERT INTO " + this.getTablePrefix() + "auctions" + AUCTION_COLUMNS)) {
+                for (AuctionedItem item : items) {
+                    bindAuction(statement, item);
+                    statement.addBatch();
                 }
 
+                statement.executeBatch();
+                connection.commit();
+                MetricsManager.getInstance().recordDatabase("insertAuctions", started, items.size());
+                if (callback != null) callback.accept(null, items);
             } catch (Exception e) {
-                e.printStackTrace();
+                connection.rollback();
                 resolveCallback(callback, e);
+            } finally {
+                connection.setAutoCommit(true);
             }
         });
     }
 
+    public void insertAuctionsAsync(Collection<AuctionedItem> items, Callback<Collection<AuctionedItem>> callback) {
+        this.executor.execute(DatabaseExecutor.Lane.INTERACTIVE, () -> insertAuctions(items, callback));
+    }
+
+    private void bindAuction(PreparedStatement statement, AuctionedItem item) throws SQLException {
+        statement.setString(1, item.getId().toString());
+        statement.setString(2, item.getOwner().toString());
+        statement.setString(3, item.getHighestBidder().toString());
+        statement.setString(4, item.getOwnerName());
+        statement.setString(5, item.getHighestBidderName());
+        statement.setString(6, item.getCategory().name());
+        statement.setDouble(7, item.getBasePrice());
+        statement.setDouble(8, item.getBidStartingPrice());
+        statement.setDouble(9, item.getBidIncrementPrice());
+        statement.setDouble(10, item.getCurrentPrice());
+        statement.setBoolean(11, item.isExpired());
+        statement.setLong(12, item.getExpiresAt());
+        statement.setString(13, item.getItemMaterial());
+        statement.setString(14, item.getItemName());
+        statement.setString(15, item.getItemLore());
+        statement.setString(16, item.getItemEnchants());
+        statement.setString(17, item.getEncodedItem());
+        statement.setString(18, item.getListedWorld());
+        statement.setInt(19, item.getItemAmount());
+    }
+
+    private void bindTransaction(PreparedStatement statement, Transaction transaction) throws SQLException {
+        statement.setString(1, transaction.getId().toString());
+        statement.setString(2, transaction.getSeller().toString());
+        statement.setString(3, transaction.getSellerName());
+        statement.setString(4, transaction.getBuyer().toString());
+        statement.setString(5, transaction.getBuyerName());
+        statement.setLong(6, transaction.getTransactionTime());
+        statement.setString(7, AuctionAPI.encodeItem(transaction.getItem()));
+        statement.setString(8, transaction.getAuctionSaleType().name());
+        statement.setDouble(9, transaction.getFinalPrice());
+    }
+
     public void getStats(Callback<Map<UUID, AuctionStat<Integer, Integer, Integer, Double, Double>>> callback) {
         Map<UUID, AuctionStat<Integer, Integer, Integer, Double, Double>> stats = new HashMap<>();
-        this.async(() -> this.databaseConnector.connect(connection -> {
+        this.executor.execute(DatabaseExecutor.Lane.READ, () -> this.databaseConnector.connect(connection -> {
             try (PreparedStatement statement = connection.prepareStatement("SELECT * FROM " + this.getTablePrefix() + "stats")) {
                 ResultSet resultSet = statement.executeQuery();
                 while (resultSet.next()) {
@@ -306,13 +580,12 @@ public class DataManager extends DataManagerAbstract {
     }
 
     public void updateStats(Map<UUID, AuctionStat<Integer, Integer, Integer, Double, Double>> stats, UpdateCallback callback) {
+        final long started = System.nanoTime();
         this.databaseConnector.connect(connection -> {
             connection.setAutoCommit(false);
-            SQLException error = null;
 
-            PreparedStatement statement = connection.prepareStatement("REPLACE into " + this.getTablePrefix() + "stats (id, auctions_created, auctions_sold, auctions_expired, money_earned, money_spent) VALUES(?,?,?,?,?,?)");
-            for (Map.Entry<UUID, AuctionStat<Integer, Integer, Integer, Double, Double>> value: stats.entrySet()) {
-                try {
+            try (PreparedStatement statement = connection.prepareStatement("REPLACE into " + this.getTablePrefix() + "stats (id, auctions_created, auctions_sold, auctions_expired, money_earned, money_spent) VALUES(?,?,?,?,?,?)")) {
+                for (Map.Entry<UUID, AuctionStat<Integer, Integer, Integer, Double, Double>> value : stats.entrySet()) {
                     statement.setString(1, value.getKey().toString());
                     statement.setInt(2, value.getValue().getCreated());
                     statement.setInt(3, value.getValue().getSold());
@@ -320,38 +593,45 @@ public class DataManager extends DataManagerAbstract {
                     statement.setDouble(5, value.getValue().getEarned());
                     statement.setDouble(6, value.getValue().getSpent());
                     statement.addBatch();
-                } catch (SQLException e) {
-                    error = e;
-                    break;
                 }
-            }
 
-            statement.executeBatch();
-
-            if (error == null) {
+                statement.executeBatch();
                 connection.commit();
+                MetricsManager.getInstance().recordDatabase("updateStats", started, stats.size());
                 resolveUpdateCallback(callback, null);
-            } else {
+            } catch (SQLException e) {
                 connection.rollback();
-                resolveUpdateCallback(callback, error);
+                resolveUpdateCallback(callback, e);
+            } finally {
+                connection.setAutoCommit(true);
             }
-
-            connection.setAutoCommit(true);
         });
     }
 
     public void insertAuctionAsync(AuctionedItem item, Callback<AuctionedItem> callback) {
-        this.thread.execute(() -> insertAuction(item, callback));
+        this.executor.execute(DatabaseExecutor.Lane.INTERACTIVE, () -> insertAuction(item, callback));
     }
 
-    public void updateItems(Collection<AuctionedItem> items, UpdateCallback callback) {
+    /**
+     * Writes the changed items in a single transaction. The item itself is only written for the listings whose
+     * stack changed, a bid or a price change only rewrites the columns it can change
+     *
+     * @param items        are the items being written
+     * @param stackChanged is the ids of the items whose stack changed since they were last written
+     * @param callback     is called once the write has been committed or rolled back
+     */
+    public void updateItems(Collection<AuctionedItem> items, Set<UUID> stackChanged, UpdateCallback callback) {
+        final long started = System.nanoTime();
+        final String update = "UPDATE " + this.getTablePrefix() + "auctions SET owner = ?, owner_name = ?, highest_bidder = ?, highest_bidder_name = ?, base_price = ?, bid_start_price = ?, bid_increment_price = ?, current_price = ?, expires_at = ?, expired = ?, category = ?, listed_world = ?";
+
         this.databaseConnector.connect(connection -> {
             connection.setAutoCommit(false);
-            SQLException err = null;
 
-            PreparedStatement statement = connection.prepareStatement("UPDATE " + this.getTablePrefix() + "auctions SET owner = ?, owner_name = ?, highest_bidder = ?, highest_bidder_name = ?, base_price = ?, bid_start_price = ?, bid_increment_price = ?, current_price = ?, expires_at = ?, expired = ? WHERE id = ?");
-            for (AuctionedItem item : items) {
-                try {
+            try (PreparedStatement details = connection.prepareStatement(update + " WHERE id = ?");
+                 PreparedStatement withItem = connection.prepareStatement(update + ", item = ?, item_amount = ? WHERE id = ?")) {
+                for (AuctionedItem item : items) {
+                    final boolean writeItem = stackChanged.contains(item.getId());
+                    final PreparedStatement statement = writeItem ? withItem : details;
                     statement.setString(1, item.getOwner().toString());
                     statement.setString(2, item.getOwnerName());
                     statement.setString(3, item.getHighestBidder().toString());
@@ -362,58 +642,198 @@ public class DataManager extends DataManagerAbstract {
                     statement.setDouble(8, item.getCurrentPrice());
                     statement.setLong(9, item.getExpiresAt());
                     statement.setBoolean(10, item.isExpired());
-                    statement.setString(11, item.getId().toString());
+                    statement.setString(11, item.getCategory().name());
+                    statement.setString(12, item.getListedWorld());
+                    if (writeItem) {
+                        statement.setString(13, item.getEncodedItem());
+                        statement.setInt(14, item.getItemAmount());
+                        statement.setString(15, item.getId().toString());
+                    } else {
+                        statement.setString(13, item.getId().toString());
+                    }
                     statement.addBatch();
-                } catch (SQLException e) {
-                    err = e;
-                    break;
                 }
-            }
-            statement.executeBatch();
 
-            if (err == null) {
+                details.executeBatch();
+                withItem.executeBatch();
                 connection.commit();
+                MetricsManager.getInstance().recordDatabase("updateItems", started, items.size());
                 resolveUpdateCallback(callback, null);
-            } else {
+            } catch (SQLException e) {
                 connection.rollback();
-                resolveUpdateCallback(callback, err);
+                resolveUpdateCallback(callback, e);
+            } finally {
+                connection.setAutoCommit(true);
             }
+        });
+    }
 
-            connection.setAutoCommit(true);
+    public void deleteItems(Collection<UUID> items, boolean async, UpdateCallback callback) {
+        if (async) {
+            this.executor.execute(DatabaseExecutor.Lane.INTERACTIVE, () -> deleteItems(items, callback));
+        } else {
+            deleteItems(items, callback);
+        }
+    }
+
+    private void deleteItems(Collection<UUID> items, UpdateCallback callback) {
+        deleteByIds("auctions", "deleteItems", items, callback);
+    }
+
+    /**
+     * Deletes transactions by id in the background, these are never removed by the plugin itself
+     *
+     * @param transactions is the ids of the transactions being deleted
+     * @param callback     is called once the delete has been committed or rolled back
+     */
+    public void deleteTransactions(Collection<UUID> transactions, UpdateCallback callback) {
+        this.executor.execute(DatabaseExecutor.Lane.BULK, () -> deleteByIds("transactions", "deleteTransactions", transactions, callback));
+    }
+
+    /**
+     * Deletes rows in chunks of {@code WHERE id IN (...)} statements, all within a single transaction
+     *
+     * @param table    is the table being deleted from, without the prefix
+     * @param method   is the name the delete is recorded under in the metrics
+     * @param rows     is the ids of the rows being deleted
+     * @param callback is called once the delete has been committed or rolled back
+     */
+    private void deleteByIds(String table, String method, Collection<UUID> rows, UpdateCallback callback) {
+        final int chunkSize = 500;
+        final List<UUID> ids = new ArrayList<>(rows);
+        final long started = System.nanoTime();
+
+        this.databaseConnector.connect(connection -> {
+            connection.setAutoCommit(false);
+
+            try {
+                for (int start = 0; start < ids.size(); start += chunkSize) {
+                    List<UUID> chunk = ids.subList(start, Math.min(start + chunkSize, ids.size()));
+                    String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+
+                    try (PreparedStatement statement = connection.prepareStatement("DELETE FROM " + this.getTablePrefix() + table + " WHERE id IN (" + placeholders + ")")) {
+                        for (int i = 0; i < chunk.size(); i++) {
+                            statement.setString(i + 1, chunk.get(i).toString());
+                        }
+                        statement.executeUpdate();
+                    }
+                }
+
+                connection.commit();
+                MetricsManager.getInstance().recordDatabase(method, started, ids.size());
+                resolveUpdateCallback(callback, null);
+            } catch (SQLException e) {
+                // the callback has to hear about the failure even if the rollback fails too, or the ids are never retried
+                try {
+                    connection.rollback();
+                } finally {
+                    resolveUpdateCallback(callback, e);
+                }
+            } finally {
+                connection.setAutoCommit(true);
+            }
         });
     }
 
-    public void deleteItems(Collection<UUID> items) {
-        this.async(() -> this.databaseConnector.connect(connection -> {
-            PreparedStatement statement = connection.prepareStatement("DELETE FROM " + this.getTablePrefix() + "auctions WHERE id = ?");
-            for (UUID id : items) {
-                statement.setString(1, id.toString());
-                statement.addBatch();
+    /**
+     * Rewrites every item still stored in the legacy yaml format with the binary codec in the background, a row is
+     * only rewritten when that makes it smaller. Listings that don't have their stack size stored yet get it filled in along the way.
+     * Every page is its own task on the bulk lane so saves are never stuck behind the whole migration,
+     * and a row is only replaced if its item wasn't changed since it was read, so a concurrent save always wins
+     */
+    public void migrateItemEncoding() {
+        migrateItemEncoding("auctions", true, "", 0, converted -> migrateItemEncoding("transactions", false, "", converted, total -> {
+            if (total != 0) {
+                this.plugin.getLogger().info("Converted " + total + " stored item(s) to the binary item format");
+            }
+        }));
+    }
+
+    private void migrateItemEncoding(String table, boolean storesAmount, String afterId, int converted, Consumer<Integer> finished) {
+        final int pageSize = 500;
+
+        this.executor.execute(DatabaseExecutor.Lane.BULK, () -> this.databaseConnector.connect(connection -> {
+            final Map<String, String> page = new LinkedHashMap<>();
+            final Set<String> missingAmount = new HashSet<>();
+            final String pending = "item NOT LIKE '" + AuctionAPI.BINARY_ITEM_PREFIX + "%'" + (storesAmount ? " OR item_amount = 0" : "");
+            try (PreparedStatement statement = connection.prepareStatement("SELECT id, item" + (storesAmount ? ", item_amount" : "") + " FROM " + this.getTablePrefix() + table + " WHERE id > ? AND (" + pending + ") ORDER BY id LIMIT " + pageSize)) {
+                statement.setString(1, afterId);
+                ResultSet resultSet = statement.executeQuery();
+                while (resultSet.next()) {
+                    page.put(resultSet.getString("id"), resultSet.getString("item"));
+                    if (storesAmount && resultSet.getInt("item_amount") == 0) missingAmount.add(resultSet.getString("id"));
+                }
             }
 
-            statement.executeBatch();
+            if (page.isEmpty()) {
+                finished.accept(converted);
+                return;
+            }
+
+            String lastId = afterId;
+            int updatedRows = 0;
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement("UPDATE " + this.getTablePrefix() + table + " SET item = ?" + (storesAmount ? ", item_amount = ?" : "") + " WHERE id = ? AND item = ?")) {
+                for (Map.Entry<String, String> row : page.entrySet()) {
+                    lastId = row.getKey();
+                    ItemStack item = AuctionAPI.decodeItem(row.getValue());
+                    // leave rows that can't be read untouched, they are skipped on the next page
+                    if (item == null) continue;
+
+                    final String encoded = AuctionAPI.encodeItem(item);
+                    final boolean smaller = encoded.length() < row.getValue().length();
+                    if (!smaller && !missingAmount.contains(row.getKey())) continue;
+
+                    int index = 1;
+                    statement.setString(index++, smaller ? encoded : row.getValue());
+                    if (storesAmount) statement.setInt(index++, item.getAmount());
+                    statement.setString(index++, row.getKey());
+                    statement.setString(index, row.getValue());
+                    statement.addBatch();
+                }
+
+                for (int updated : statement.executeBatch()) {
+                    if (updated > 0) updatedRows += updated;
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                AuctionAPI.getInstance().logException(this.plugin, e, "SQLite");
+                finished.accept(converted);
+                return;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+
+            if (page.size() < pageSize) {
+                finished.accept(converted + updatedRows);
+            } else {
+                migrateItemEncoding(table, storesAmount, lastId, converted + updatedRows, finished);
+            }
         }));
     }
 
     public void migrateFromSerializationFormat(Consumer<List<AuctionedItem>> callback) {
         AuctionHouse.getInstance().setMigrating(true);
         ArrayList<AuctionItem> items = new ArrayList<>();
-        this.async(() -> this.databaseConnector.connect(connection -> {
-            if (Settings.DATABASE_USE.getBoolean()) {
-                String select = "SELECT * FROM " + this.getTablePrefix() + "items";
-                try (Statement statement = connection.createStatement()) {
-                    ResultSet result = statement.executeQuery(select);
-                    while (result.next()) {
-                        items.add((AuctionItem) AuctionAPI.getInstance().convertBase64ToObject(result.getString("data")));
+        this.executor.execute(DatabaseExecutor.Lane.BULK, () -> {
+            this.databaseConnector.connect(connection -> {
+                if (Settings.DATABASE_USE.getBoolean()) {
+                    String select = "SELECT * FROM " + this.getTablePrefix() + "items";
+                    try (Statement statement = connection.createStatement()) {
+                        ResultSet result = statement.executeQuery(select);
+                        while (result.next()) {
+                            items.add((AuctionItem) AuctionAPI.getInstance().convertBase64ToObject(result.getString("data")));
+                        }
+                    }
+                } else {
+                    if (AuctionHouse.getInstance().getData().contains("auction items") && AuctionHouse.getInstance().getData().isList("auction items")) {
+                        items.addAll(AuctionHouse.getInstance().getData().getStringList("auction items").stream().map(AuctionAPI.getInstance()::convertBase64ToObject).map(object -> (AuctionItem) object).collect(Collectors.toList()));
+                        AuctionHouse.getInstance().getData().set("auction items", null);
+                        AuctionHouse.getInstance().getData().save();
                     }
                 }
-            } else {
-                if (AuctionHouse.getInstance().getData().contains("auction items") && AuctionHouse.getInstance().getData().isList("auction items")) {
-                    items.addAll(AuctionHouse.getInstance().getData().getStringList("auction items").stream().map(AuctionAPI.getInstance()::convertBase64ToObject).map(object -> (AuctionItem) object).collect(Collectors.toList()));
-                    AuctionHouse.getInstance().getData().set("auction items", null);
-                    AuctionHouse.getInstance().getData().save();
-                }
-            }
+            });
 
             List<AuctionedItem> newItems = new ArrayList<>();
             items.forEach(item -> {
@@ -437,62 +857,39 @@ public class DataManager extends DataManagerAbstract {
                 ));
             });
 
-            String saveItems = "INSERT INTO " + this.getTablePrefix() + "auctions(id, owner, highest_bidder, owner_name, highest_bidder_name, category, base_price, bid_start_price, bid_increment_price, current_price, expired, expires_at, item_material, item_name, item_lore, item_enchants, item) VALUES(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
-            PreparedStatement statement = connection.prepareStatement(saveItems);
-            newItems.forEach(item -> {
-                try {
-                    statement.setString(1, item.getId().toString());
-                    statement.setString(2, item.getOwner().toString());
-                    statement.setString(3, item.getHighestBidder().toString());
-                    statement.setString(4, item.getOwnerName());
-                    statement.setString(5, item.getHighestBidderName());
-                    statement.setString(6, item.getCategory().name());
-                    statement.setDouble(7, item.getBasePrice());
-                    statement.setDouble(8, item.getBidStartingPrice());
-                    statement.setDouble(9, item.getBidIncrementPrice());
-                    statement.setDouble(10, item.getCurrentPrice());
-                    statement.setBoolean(11, item.isExpired());
-                    statement.setLong(12, item.getExpiresAt());
-                    statement.setString(13, item.getItem().getType().name());
-                    statement.setString(14, AuctionAPI.getInstance().getItemName(item.getItem()));
-                    statement.setString(15, AuctionAPI.getInstance().serializeLines(AuctionAPI.getInstance().getItemLore(item.getItem())));
-                    statement.setString(16, AuctionAPI.getInstance().serializeLines(AuctionAPI.getInstance().getItemEnchantments(item.getItem())));
-                    statement.setString(17, AuctionAPI.encodeItem(item.getItem()));
-                    statement.addBatch();
-                } catch (SQLException e) {
-                    e.printStackTrace();
-                }
-            });
-            statement.executeBatch();
-            this.sync(() -> {
-                AuctionHouse.getInstance().setMigrating(false);
-                newItems.forEach(item -> AuctionHouse.getInstance().getAuctionItemManager().addAuctionItem(item));
-                callback.accept(newItems);
+            insertAuctions(newItems, (error, inserted) -> {
+                if (error != null) this.plugin.getLogger().severe("Could not insert the migrated auction items: " + error.getMessage());
+                this.sync(() -> {
+                    AuctionHouse.getInstance().setMigrating(false);
+                    if (error == null) inserted.forEach(item -> AuctionHouse.getInstance().getAuctionItemManager().addAuctionItem(item));
+                    callback.accept(error == null ? newItems : new ArrayList<>());
+                });
             });
-        }));
+        });
     }
 
-    private AuctionedItem extractAuctionedItem(ResultSet resultSet) throws SQLException {
-        AuctionedItem auctionItem = new AuctionedItem(
-                UUID.fromString(resultSet.getString("id")),
-                UUID.fromString(resultSet.getString("owner")),
-                UUID.fromString(resultSet.getString("highest_bidder")),
-                resultSet.getString("owner_name"),
-                resultSet.getString("highest_bidder_name"),
-                AuctionItemCategory.valueOf(resultSet.getString("category")),
-                AuctionAPI.decodeItem(resultSet.getString("item")),
-                resultSet.getDouble("base_price"),
-                resultSet.getDouble("bid_start_price"),
-                resultSet.getDouble("bid_increment_price"),
-                resultSet.getDouble("current_price"),
-                resultSet.getDouble("bid_start_price") >= 1 || resultSet.getDouble("bid_increment_price") >= 1,
-                resultSet.getBoolean("expired"),
-                resultSet.getLong("expires_at")
-        );
-
-        auctionItem.setListedWorld(resultSet.getString("listed_world"));
-
-        return auctionItem;
+    private StoredAuction readAuction(ResultSet resultSet) throws SQLException {
+        StoredAuction stored = new StoredAuction();
+        stored.id = resultSet.getString("id");
+        stored.owner = resultSet.getString("owner");
+        stored.highestBidder = resultSet.getString("highest_bidder");
+        stored.ownerName = resultSet.getString("owner_name");
+        stored.highestBidderName = resultSet.getString("highest_bidder_name");
+        stored.category = resultSet.getString("category");
+        stored.item = resultSet.getString("item");
+        stored.itemAmount = resultSet.getInt("item_amount");
+        stored.itemMaterial = resultSet.getString("item_material");
+        stored.itemName = resultSet.getString("item_name");
+        stored.itemLore = resultSet.getString("item_lore");
+        stored.itemEnchants = resultSet.getString("item_enchants");
+        stored.basePrice = resultSet.getDouble("base_price");
+        stored.bidStartPrice = resultSet.getDouble("bid_start_price");
+        stored.bidIncrementPrice = resultSet.getDouble("bid_increment_price");
+        stored.currentPrice = resultSet.getDouble("current_price");
+        stored.expired = resultSet.getBoolean("expired");
+        stored.expiresAt = resultSet.getLong("expires_at");
+        stored.listedWorld = resultSet.getString("listed_world");
+        return stored;
     }
 
     private Transaction extractTransaction(ResultSet resultSet) throws SQLException {
@@ -524,4 +921,51 @@ public class DataManager extends DataManagerAbstract {
             AuctionAPI.getInstance().logException(this.plugin, ex, "SQLite");
         }
     }
+
+    /**
+     * The raw columns of an auctions row, reading these is all that happens on the connection's thread
+     */
+    private static final class StoredAuction {
+
+        private String id;
+        private String owner;
+        private String highestBidder;
+        private String ownerName;
+        private String highestBidderName;
+        private String category;
+        private String item;
+        private int itemAmount;
+        private String itemMaterial;
+        private String itemName;
+        private String itemLore;
+        private String itemEnchants;
+        private double basePrice;
+        private double bidStartPrice;
+        private double bidIncrementPrice;
+        private double currentPrice;
+        private boolean expired;
+        private long expiresAt;
+        private String listedWorld;
+
+        private AuctionedItem toAuctionedItem() {
+            // the item itself is decoded lazily, the stored details are enough to index and search it
+            AuctionedItem auctionItem = new AuctionedItem();
+            auctionItem.setId(UUID.fromString(this.id));
+            auctionItem.setOwner(UUID.fromString(this.owner));
+            auctionItem.setHighestBidder(UUID.fromString(this.highestBidder));
+            auctionItem.setOwnerName(this.ownerName);
+            auctionItem.setHighestBidderName(this.highestBidderName);
+            auctionItem.setCategory(AuctionItemCategory.valueOf(this.category));
+            auctionItem.setStoredItem(this.item, this.itemAmount, this.itemMaterial, this.itemName, this.itemLore, this.itemEnchants);
+            auctionItem.setBasePrice(this.basePrice);
+            auctionItem.setBidStartingPrice(this.bidStartPrice);
+            auctionItem.setBidIncrementPrice(this.bidIncrementPrice);
+            auctionItem.setCurrentPrice(this.currentPrice);
+            auctionItem.setBidItem(this.bidStartPrice >= 1 || this.bidIncrementPrice >= 1);
+            auctionItem.setExpired(this.expired);
+            auctionItem.setExpiresAt(this.expiresAt);
+            auctionItem.setListedWorld(this.listedWorld);
+            return auctionItem;
+        }
+    }
 }
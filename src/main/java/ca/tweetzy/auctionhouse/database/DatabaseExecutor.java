@@ -0,0 +1,190 @@
+package ca.tweetzy.auctionhouse.database;
+
+import ca.tweetzy.auctionhouse.AuctionHouse;
+import lombok.Getter;
+import org.bukkit.Bukkit;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The current file has been created by Kiran Hart
+ * Date Created: October 18 2026
+ * Time Created: 7:12 p.m.
+ * Usage of any code found within this class is prohibited unless given explicit permission otherwise
+ *
+ * Runs database work in separate lanes so a large background write can never hold up a player's listing or purchase.
+ * Every lane has its own threads and a bounded queue, once a queue is full the submitting thread runs the work itself.
+ * The server thread never does, work it submits to a full lane is handed to an async thread instead.
+ * With a single connection (sqlite) the lanes share one thread, since only one statement can run at a time anyway
+ */
+public class DatabaseExecutor {
+
+    public enum Lane {
+        /**
+         * Writes a player is waiting on: listings, purchases, transactions
+         */
+        INTERACTIVE(512),
+        /**
+         * Large background writes: auto saves, flushes and migrations, these never use more than one connection
+         */
+        BULK(64),
+        /**
+         * Loading data
+         */
+        READ(128);
+
+        private final int queueCapacity;
+
+        Lane(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+    }
+
+    private final Map<Lane, LaneExecutor> lanes = new EnumMap<>(Lane.class);
+
+    /**
+     * @param connections is how many connections the pool can hand out, the lanes split these between them
+     */
+    public DatabaseExecutor(int connections) {
+        if (connections <= 1) {
+            int capacity = 0;
+            for (Lane lane : Lane.values()) capacity += lane.queueCapacity;
+
+            final ThreadPoolExecutor shared = createPool("shared", 1, capacity);
+            for (Lane lane : Lane.values()) {
+                this.lanes.put(lane, new LaneExecutor(lane, 1, shared));
+            }
+            return;
+        }
+
+        final int interactive = Math.max(1, connections / 2);
+        this.lanes.put(Lane.INTERACTIVE, new LaneExecutor(Lane.INTERACTIVE, interactive, createPool(Lane.INTERACTIVE.name(), interactive, Lane.INTERACTIVE.queueCapacity)));
+        this.lanes.put(Lane.BULK, new LaneExecutor(Lane.BULK, 1, createPool(Lane.BULK.name(), 1, Lane.BULK.queueCapacity)));
+        final int read = Math.max(1, connections - interactive - 1);
+        this.lanes.put(Lane.READ, new LaneExecutor(Lane.READ, read, createPool(Lane.READ.name(), read, Lane.READ.queueCapacity)));
+    }
+
+    private static ThreadPoolExecutor createPool(String name, int threads, int queueCapacity) {
+        final AtomicInteger threadCount = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "AuctionHouse-DB-" + name.toLowerCase() + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new OverflowPolicy());
+    }
+
+    public void execute(Lane lane, Runnable runnable) {
+        this.lanes.get(lane).submit(runnable);
+    }
+
+    public LaneExecutor getLane(Lane lane) {
+        return this.lanes.get(lane);
+    }
+
+    public boolean isShutdown() {
+        return this.lanes.get(Lane.INTERACTIVE).pool.isShutdown();
+    }
+
+    /**
+     * Stops accepting work and waits for everything that was queued to finish
+     *
+     * @param timeout is how long to wait for each lane, in seconds
+     * @return true if every lane finished in time
+     */
+    public boolean shutdown(long timeout) throws InterruptedException {
+        this.lanes.values().forEach(lane -> lane.pool.shutdown());
+
+        boolean finished = true;
+        for (LaneExecutor lane : this.lanes.values()) {
+            if (!lane.pool.awaitTermination(timeout, TimeUnit.SECONDS)) {
+                lane.pool.shutdownNow();
+                finished = false;
+            }
+        }
+        return finished;
+    }
+
+    public static final class LaneExecutor {
+
+        @Getter
+        private final Lane lane;
+        @Getter
+        private final int concurrency;
+        private final ThreadPoolExecutor pool;
+
+        private final LongAdder completed = new LongAdder();
+        private final LongAdder totalWaitNanos = new LongAdder();
+        private final AtomicLong maxWaitNanos = new AtomicLong();
+
+        // counted per lane, the pool can be shared with the other lanes
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicInteger active = new AtomicInteger();
+
+        private LaneExecutor(Lane lane, int concurrency, ThreadPoolExecutor pool) {
+            this.lane = lane;
+            this.concurrency = concurrency;
+            this.pool = pool;
+        }
+
+        private void submit(Runnable runnable) {
+            final long queuedAt = System.nanoTime();
+            this.queued.incrementAndGet();
+            this.pool.execute(() -> {
+                this.queued.decrementAndGet();
+                this.active.incrementAndGet();
+                final long waited = System.nanoTime() - queuedAt;
+                this.totalWaitNanos.add(waited);
+                this.maxWaitNanos.accumulateAndGet(waited, Math::max);
+                try {
+                    runnable.run();
+                } finally {
+                    this.active.decrementAndGet();
+                    this.completed.increment();
+                }
+            });
+        }
+
+        public int getQueueDepth() {
+            return this.queued.get();
+        }
+
+        public int getActive() {
+            return this.active.get();
+        }
+
+        public long getCompleted() {
+            return this.completed.sum();
+        }
+
+        public double getAverageWaitMillis() {
+            final long completed = this.completed.sum();
+            return completed == 0 ? 0 : this.totalWaitNanos.sum() / (double) completed / 1_000_000D;
+        }
+
+        public double getMaxWaitMillis() {
+            return this.maxWaitNanos.get() / 1_000_000D;
+        }
+    }
+
+    /**
+     * Slows down whoever fills a lane by having them run the work themselves. The server thread can't be made to wait on
+     * the database, so its work is handed to an async thread that submits it again and runs it itself if the lane is still full.
+     * Once the lanes were shut down the plugin is stopping and the work is run right away so nothing is lost
+     */
+    private static final class OverflowPolicy implements RejectedExecutionHandler {
+
+        @Override
+        public void rejectedExecution(Runnable runnable, ThreadPoolExecutor executor) {
+            if (!executor.isShutdown() && Bukkit.getServer() != null && Bukkit.isPrimaryThread() && AuctionHouse.getInstance().isEnabled()) {
+                Bukkit.getScheduler().runTaskAsynchronously(AuctionHouse.getInstance(), () -> executor.execute(runnable));
+                return;
+            }
+            runnable.run();
+        }
+    }
+}
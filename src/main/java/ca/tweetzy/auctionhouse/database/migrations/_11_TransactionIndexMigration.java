@@ -0,0 +1,29 @@
+package ca.tweetzy.auctionhouse.database.migrations;
+
+import ca.tweetzy.core.database.DataMigration;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * The current file has been created by Kiran Hart
+ * Date Created: October 18 2026
+ * Time Created: 8:05 p.m.
+ * Usage of any code found within this class is prohibited unless given explicit permission otherwise
+ */
+public final class _11_TransactionIndexMigration extends DataMigration {
+
+	public _11_TransactionIndexMigration() {
+		super(11);
+	}
+
+	@Override
+	public void migrate(Connection connection, String tablePrefix) throws SQLException {
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("CREATE INDEX " + tablePrefix + "transactions_time ON " + tablePrefix + "transactions (transaction_time, id)");
+			statement.execute("CREATE INDEX " + tablePrefix + "transactions_seller ON " + tablePrefix + "transactions (seller, transaction_time, id)");
+			statement.execute("CREATE INDEX " + tablePrefix + "transactions_buyer ON " + tablePrefix + "transactions (buyer, transaction_time, id)");
+		}
+	}
+}
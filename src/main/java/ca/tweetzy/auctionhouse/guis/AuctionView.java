@@ -0,0 +1,240 @@
+package ca.tweetzy.auctionhouse.guis;
+
+import ca.tweetzy.auctionhouse.AuctionHouse;
+import ca.tweetzy.auctionhouse.auction.AuctionItemCategory;
+import ca.tweetzy.auctionhouse.auction.AuctionPlayer;
+import ca.tweetzy.auctionhouse.auction.AuctionSaleType;
+import ca.tweetzy.auctionhouse.auction.AuctionSortType;
+import ca.tweetzy.auctionhouse.auction.AuctionedItem;
+import ca.tweetzy.auctionhouse.managers.AuctionItemManager;
+import ca.tweetzy.auctionhouse.managers.MetricsManager;
+import ca.tweetzy.auctionhouse.settings.Settings;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * The current file has been created by Kiran Hart
+ * Date Created: October 18 2026
+ * Time Created: 12:14 a.m.
+ * Usage of any code found within this class is prohibited unless given explicit permission otherwise
+ *
+ * The listings the main auction house shows for one combination of filter, sale type, sort, world and search.
+ * A view never changes once selected, so a selected view is kept and handed to everyone looking at it until
+ * the part of the market it was selected from changes
+ */
+public final class AuctionView {
+
+    public static final int PAGE_SIZE = 45;
+
+    // the most recently used views, each with the epoch of the market it was selected at
+    private static final Map<Key, CachedView> cache = new LinkedHashMap<Key, CachedView>(16, 0.75F, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, CachedView> eldest) {
+            return size() > Settings.VIEW_CACHE_SIZE.getInt();
+        }
+    };
+
+    @Getter
+    private final Key key;
+    // the listings from offset onwards, every listing of the view if it was selected in full
+    private final List<AuctionedItem> items;
+    private final int offset;
+    @Getter
+    private final int total;
+
+    private AuctionView(Key key, List<AuctionedItem> items, int offset, int total) {
+        this.key = key;
+        this.items = Collections.unmodifiableList(items);
+        this.offset = offset;
+        this.total = total;
+    }
+
+    /**
+     * @param page starts at 1
+     * @return the listings shown on the page, empty if the page is past the end of the view
+     */
+    public List<AuctionedItem> getPage(int page) {
+        final int from = (page - 1) * PAGE_SIZE - this.offset;
+        if (from < 0 || from >= this.items.size()) return Collections.emptyList();
+        return this.items.subList(from, Math.min(from + PAGE_SIZE, this.items.size()));
+    }
+
+    public int getPages() {
+        return (int) Math.max(1, Math.ceil(this.total / (double) PAGE_SIZE));
+    }
+
+    /**
+     * Gets every listing of the view, selecting it again only if the market changed since it was last selected
+     */
+    public static AuctionView get(Key key) {
+        final long epoch = epoch(key);
+        final int filters = AuctionHouse.getInstance().getFilterManager().getVersion();
+        final AuctionView cached = lookup(key, epoch, filters);
+        return cached != null ? cached : store(key, epoch, filters, select(key, 0, Integer.MAX_VALUE));
+    }
+
+    /**
+     * Gets a view that holds at least the given page
+     *
+     * @param page starts at 1
+     */
+    public static AuctionView get(Key key, int page) {
+        final long epoch = epoch(key);
+        final int filters = AuctionHouse.getInstance().getFilterManager().getVersion();
+        final AuctionView cached = lookup(key, epoch, filters);
+        if (cached != null) return cached;
+
+        // nothing narrows the view so a page is found without walking the market, it's cheaper to select it than to keep it
+        if (isUnfiltered(key)) return select(key, (page - 1) * PAGE_SIZE, PAGE_SIZE);
+        return store(key, epoch, filters, select(key, 0, Integer.MAX_VALUE));
+    }
+
+    /**
+     * A view of a single category without whitelisted items can only change when a listing of that category changes,
+     * every other view can change with any listing
+     */
+    private static long epoch(Key key) {
+        final AuctionItemManager auctionItemManager = AuctionHouse.getInstance().getAuctionItemManager();
+        if (isCategory(key.filter) && key.owner == null && !AuctionHouse.getInstance().getFilterManager().hasFilterItems(key.filter)) {
+            return auctionItemManager.getEpoch(key.filter);
+        }
+        return auctionItemManager.getEpoch();
+    }
+
+    private static AuctionView lookup(Key key, long epoch, int filters) {
+        synchronized (cache) {
+            final CachedView cached = cache.get(key);
+            return cached != null && cached.epoch == epoch && cached.filters == filters ? cached.view : null;
+        }
+    }
+
+    private static AuctionView store(Key key, long epoch, int filters, AuctionView view) {
+        synchronized (cache) {
+            cache.put(key, new CachedView(view, epoch, filters));
+        }
+        return view;
+    }
+
+    private static boolean isCategory(AuctionItemCategory filter) {
+        return filter != AuctionItemCategory.ALL && filter != AuctionItemCategory.SEARCH && filter != AuctionItemCategory.SELF;
+    }
+
+    private static boolean isUnfiltered(Key key) {
+        return key.world == null && key.searchPhrase == null && key.filter == AuctionItemCategory.ALL && key.saleType == AuctionSaleType.BOTH;
+    }
+
+    private static AuctionView select(Key key, int skip, int limit) {
+        final long started = System.nanoTime();
+        final AuctionItemManager auctionItemManager = AuctionHouse.getInstance().getAuctionItemManager();
+        final AuctionItemCategory selectedFilter = key.filter;
+        final AuctionSaleType selectedSaleType = key.saleType;
+        final boolean filteringCategory = isCategory(selectedFilter);
+        final List<ItemStack> whitelist = filteringCategory ? AuctionHouse.getInstance().getFilterManager().getFilterWhitelist(selectedFilter) : Collections.emptyList();
+        final Set<AuctionedItem> searchMatches = key.searchPhrase != null ? auctionItemManager.search(key.searchPhrase) : null;
+        final Set<AuctionedItem> filterSearchMatches = key.filterSearchPhrase != null ? auctionItemManager.search(key.filterSearchPhrase) : null;
+
+        final Predicate<AuctionedItem> matches = auctionItem -> {
+            if (auctionItem.isExpired()) return false;
+            if (auctionItemManager.isSynthetic(auctionItem)) return false;
+            if (key.world != null && auctionItem.getListedWorld() != null && !key.world.equals(auctionItem.getListedWorld())) return false;
+            if (searchMatches != null && !searchMatches.contains(auctionItem)) return false;
+            if (filteringCategory && !checkFilterCriteria(auctionItem, selectedFilter, whitelist)) return false;
+            if (key.owner != null && !auctionItem.getOwner().equals(key.owner)) return false;
+            if (filterSearchMatches != null && !filterSearchMatches.contains(auctionItem)) return false;
+            if (selectedSaleType == AuctionSaleType.USED_BIDDING_SYSTEM && !auctionItem.isBidItem()) return false;
+            return selectedSaleType != AuctionSaleType.WITHOUT_BIDDING_SYSTEM || !auctionItem.isBidItem();
+        };
+
+        // when a narrow index can answer the view, sorting its few items is cheaper than walking the whole market
+        Collection<AuctionedItem> candidates = null;
+        if (key.owner != null) {
+            candidates = auctionItemManager.getItems(key.owner, false);
+        } else if (filteringCategory && whitelist.isEmpty()) {
+            candidates = auctionItemManager.getItemsByCategory(selectedFilter);
+        }
+        if (searchMatches != null && (candidates == null || searchMatches.size() < candidates.size())) {
+            candidates = searchMatches;
+        }
+        if (filterSearchMatches != null && (candidates == null || filterSearchMatches.size() < candidates.size())) {
+            candidates = filterSearchMatches;
+        }
+
+        final Iterable<AuctionedItem> ordered;
+        if (candidates != null && candidates.size() * 4 < auctionItemManager.getItemsByState(false).size()) {
+            ordered = auctionItemManager.sortItems(candidates, key.sortType);
+        } else {
+            ordered = auctionItemManager.getSortedItems(key.sortType);
+        }
+
+        final boolean unfiltered = isUnfiltered(key);
+        final List<AuctionedItem> selected = new ArrayList<>(Math.min(limit, PAGE_SIZE));
+        int total = 0;
+
+        for (AuctionedItem auctionItem : ordered) {
+            if (!matches.test(auctionItem)) continue;
+            if (total >= skip && selected.size() < limit) selected.add(auctionItem);
+            total++;
+
+            // nothing is filtered out, so the rest of the view doesn't need to be walked to count it
+            if (unfiltered && selected.size() == limit) {
+                total = Math.max(total, auctionItemManager.getItemsByState(false).size());
+                break;
+            }
+        }
+
+        MetricsManager.getInstance().getDrawItemsDuration().recordNanos(System.nanoTime() - started);
+        MetricsManager.getInstance().getDrawItemsResults().record(total);
+        return new AuctionView(key, selected, skip, total);
+    }
+
+    private static boolean checkFilterCriteria(AuctionedItem auctionItem, AuctionItemCategory category, List<ItemStack> whitelist) {
+        if (auctionItem.getCategory() == category) return true;
+        // only decode the listed item if a whitelisted item could actually be similar to it
+        return whitelist.stream().anyMatch(item -> item.getType().name().equals(auctionItem.getItemMaterial()) && item.isSimilar(auctionItem.getItem()));
+    }
+
+    @AllArgsConstructor
+    private static final class CachedView {
+
+        private final AuctionView view;
+        private final long epoch;
+        private final int filters;
+    }
+
+    /**
+     * Everything that decides which listings a view has and in which order, two viewers with equal keys see the same listings.
+     * Parts that don't narrow the view are null, so views that only differ in settings that don't apply are the same
+     */
+    @Getter
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    public static final class Key {
+
+        private final AuctionItemCategory filter;
+        private final AuctionSaleType saleType;
+        private final AuctionSortType sortType;
+        private final String world;
+        private final String searchPhrase;
+        private final String filterSearchPhrase;
+        private final UUID owner;
+
+        public static Key of(AuctionPlayer auctionPlayer, String searchPhrase) {
+            final AuctionItemCategory filter = auctionPlayer.getSelectedFilter();
+            final String filterSearch = auctionPlayer.getCurrentSearchPhrase();
+            return new Key(
+                    filter,
+                    auctionPlayer.getSelectedSaleType(),
+                    auctionPlayer.getAuctionSortType(),
+                    Settings.PER_WORLD_ITEMS.getBoolean() ? auctionPlayer.getPlayer().getWorld().getName() : null,
+                    searchPhrase == null || searchPhrase.length() == 0 ? null : searchPhrase,
+                    filter == AuctionItemCategory.SEARCH && filterSearch != null && filterSearch.length() != 0 ? filterSearch : null,
+                    filter == AuctionItemCategory.SELF ? auctionPlayer.getPlayer().getUniqueId() : null
+            );
+        }
+    }
+}
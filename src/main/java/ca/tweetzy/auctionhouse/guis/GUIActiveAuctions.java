@@ -6,6 +6,7 @@ import ca.tweetzy.auctionhouse.auction.AuctionStackType;
 import ca.tweetzy.auctionhouse.auction.AuctionedItem;
 import ca.tweetzy.auctionhouse.guis.confirmation.GUIConfirmCancel;
 import ca.tweetzy.auctionhouse.helpers.ConfigurationItemHelper;
+import ca.tweetzy.auctionhouse.managers.MarketLoop;
 import ca.tweetzy.auctionhouse.managers.SoundManager;
 import ca.tweetzy.auctionhouse.settings.Settings;
 import ca.tweetzy.core.gui.Gui;
@@ -72,9 +73,14 @@ public class GUIActiveAuctions extends Gui {
                         case LEFT:
                             if (((item.getBidStartingPrice() > 0 || item.getBidIncrementPrice() > 0) && Settings.ASK_FOR_CANCEL_CONFIRM_ON_BID_ITEMS.getBoolean()) || Settings.ASK_FOR_CANCEL_CONFIRM_ON_NON_BID_ITEMS.getBoolean()) {
                                 if (item.getHighestBidder().equals(e.player.getUniqueId())) {
-                                    item.setExpired(true);
-                                    item.setExpiresAt(System.currentTimeMillis());
-                                    draw();
+                                    MarketLoop.getInstance().execute(() -> {
+                                        // it could have been bought or expired since the page was drawn
+                                        if (AuctionHouse.getInstance().getAuctionItemManager().isListed(item)) {
+                                            item.setExpired(true);
+                                            item.setExpiresAt(System.currentTimeMillis());
+                                        }
+                                        draw();
+                                    });
                                     return;
                                 }
                                 cleanup();
@@ -82,13 +88,20 @@ public class GUIActiveAuctions extends Gui {
                                 return;
                             }
 
-                            item.setExpired(true);
-                            draw();
+                            MarketLoop.getInstance().execute(() -> {
+                                if (AuctionHouse.getInstance().getAuctionItemManager().isListed(item)) item.setExpired(true);
+                                draw();
+                            });
                             break;
                         case RIGHT:
-                            if (Settings.ALLOW_PLAYERS_TO_ACCEPT_BID.getBoolean() && item.getBidStartingPrice() != 0 && !item.getHighestBidder().equals(e.player.getUniqueId())) {
-                                item.setExpiresAt(System.currentTimeMillis());
-                                draw();
+                            if (Settings.ALLOW_PLAYERS_TO_ACCEPT_BID.getBoolean() && item.getBidStartingPrice() != 0) {
+                                MarketLoop.getInstance().execute(() -> {
+                                    // someone could have bid since the page was drawn, the bid accepted is whatever is highest now
+                                    if (AuctionHouse.getInstance().getAuctionItemManager().isListed(item) && !item.getHighestBidder().equals(e.player.getUniqueId())) {
+                                        item.setExpiresAt(System.currentTimeMillis());
+                                    }
+                                    draw();
+                                });
                             }
                             break;
                     }
@@ -106,8 +119,10 @@ public class GUIActiveAuctions extends Gui {
         setButton(5, 4, new TItemBuilder(Objects.requireNonNull(Settings.GUI_REFRESH_BTN_ITEM.getMaterial().parseMaterial())).setName(Settings.GUI_REFRESH_BTN_NAME.getString()).setLore(Settings.GUI_REFRESH_BTN_LORE.getStringList()).toItemStack(), e -> e.manager.showGUI(e.player, new GUIActiveAuctions(this.auctionPlayer)));
 
         setButton(5, 1, ConfigurationItemHelper.createConfigurationItem(Settings.GUI_ACTIVE_AUCTIONS_ITEM.getString(), Settings.GUI_ACTIVE_AUCTIONS_NAME.getString(), Settings.GUI_ACTIVE_AUCTIONS_LORE.getStringList(), null), e -> {
-            this.auctionPlayer.getItems(false).forEach(item -> item.setExpired(true));
-            draw();
+            MarketLoop.getInstance().execute(() -> {
+                this.auctionPlayer.getItems(false).stream().filter(AuctionHouse.getInstance().getAuctionItemManager()::isListed).forEach(item -> item.setExpired(true));
+                draw();
+            });
         });
     }
 
@@ -6,10 +6,12 @@ import ca.tweetzy.auctionhouse.auction.AuctionItem;
 import ca.tweetzy.auctionhouse.auction.AuctionPlayer;
 import ca.tweetzy.auctionhouse.auction.AuctionedItem;
 import ca.tweetzy.auctionhouse.helpers.ConfigurationItemHelper;
+import ca.tweetzy.auctionhouse.managers.MarketLoop;
 import ca.tweetzy.auctionhouse.settings.Settings;
 import ca.tweetzy.core.gui.Gui;
 import ca.tweetzy.core.utils.PlayerUtils;
 import ca.tweetzy.core.utils.TextUtils;
+import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 
 /**
@@ -38,20 +40,36 @@ public class GUIAdminItem extends Gui {
 
     private void draw() {
         setButton(1, 2, ConfigurationItemHelper.createConfigurationItem(Settings.GUI_ITEM_ADMIN_ITEMS_RETURN_ITEM.getString(), Settings.GUI_ITEM_ADMIN_ITEMS_RETURN_NAME.getString(), Settings.GUI_ITEM_ADMIN_ITEMS_RETURN_LORE.getStringList(), null), e -> {
-            this.auctionItem.setExpiresAt(System.currentTimeMillis());
-            this.auctionItem.setExpired(true);
+            MarketLoop.getInstance().execute(() -> {
+                if (!isAvailable(e.player)) return;
+                this.auctionItem.setExpiresAt(System.currentTimeMillis());
+                this.auctionItem.setExpired(true);
+            });
             e.gui.close();
         });
 
         setButton(1, 4, ConfigurationItemHelper.createConfigurationItem(Settings.GUI_ITEM_ADMIN_ITEMS_CLAIM_ITEM.getString(), Settings.GUI_ITEM_ADMIN_ITEMS_CLAIM_NAME.getString(), Settings.GUI_ITEM_ADMIN_ITEMS_CLAIM_LORE.getStringList(), null), e -> {
-            PlayerUtils.giveItem(e.player, this.auctionItem.getItem());
-            AuctionHouse.getInstance().getAuctionItemManager().sendToGarbage(this.auctionItem);
+            MarketLoop.getInstance().execute(() -> {
+                // claiming a listing that was bought in the meantime would hand out the item twice
+                if (!isAvailable(e.player)) return;
+                PlayerUtils.giveItem(e.player, this.auctionItem.getItem());
+                AuctionHouse.getInstance().getAuctionItemManager().sendToGarbage(this.auctionItem);
+            });
             e.gui.close();
         });
 
         setButton(1, 6, ConfigurationItemHelper.createConfigurationItem(Settings.GUI_ITEM_ADMIN_ITEMS_DELETE_ITEM.getString(), Settings.GUI_ITEM_ADMIN_ITEMS_DELETE_NAME.getString(), Settings.GUI_ITEM_ADMIN_ITEMS_DELETE_LORE.getStringList(), null), e -> {
-            AuctionHouse.getInstance().getAuctionItemManager().sendToGarbage(this.auctionItem);
+            MarketLoop.getInstance().execute(() -> {
+                if (!isAvailable(e.player)) return;
+                AuctionHouse.getInstance().getAuctionItemManager().sendToGarbage(this.auctionItem);
+            });
             e.gui.close();
         });
     }
+
+    private boolean isAvailable(Player player) {
+        if (AuctionHouse.getInstance().getAuctionItemManager().isListed(this.auctionItem)) return true;
+        AuctionHouse.getInstance().getLocale().getMessage("auction.itemnotavailable").sendPrefixedMessage(player);
+        return false;
+    }
 }
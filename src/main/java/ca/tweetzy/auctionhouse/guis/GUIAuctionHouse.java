@@ -2,7 +2,7 @@ package ca.tweetzy.auctionhouse.guis;
 
 import ca.tweetzy.auctionhouse.AuctionHouse;
 import ca.tweetzy.auctionhouse.api.AuctionAPI;
-import ca.tweetzy.auctionhouse.api.events.AuctionBidEvent;
+import ca.tweetzy.auctionhouse.api.MarketEconomy;
 import ca.tweetzy.auctionhouse.auction.*;
 import ca.tweetzy.auctionhouse.guis.confirmation.GUIConfirmBid;
 import ca.tweetzy.auctionhouse.guis.confirmation.GUIConfirmPurchase;
@@ -10,8 +10,12 @@ import ca.tweetzy.auctionhouse.guis.filter.GUIFilterSelection;
 import ca.tweetzy.auctionhouse.guis.transaction.GUITransactionList;
 import ca.tweetzy.auctionhouse.guis.transaction.GUITransactionType;
 import ca.tweetzy.auctionhouse.helpers.ConfigurationItemHelper;
+import ca.tweetzy.auctionhouse.managers.MarketActions;
+import ca.tweetzy.auctionhouse.managers.MarketLoop;
+import ca.tweetzy.auctionhouse.managers.PlayerTransactionIndex;
 import ca.tweetzy.auctionhouse.managers.SoundManager;
 import ca.tweetzy.auctionhouse.settings.Settings;
+import ca.tweetzy.auctionhouse.tasks.RefreshAuctionPagesTask;
 import ca.tweetzy.core.compatibility.ServerVersion;
 import ca.tweetzy.core.compatibility.XMaterial;
 import ca.tweetzy.core.gui.Gui;
@@ -22,16 +26,12 @@ import ca.tweetzy.core.utils.NumberUtils;
 import ca.tweetzy.core.utils.TextUtils;
 import ca.tweetzy.core.utils.items.TItemBuilder;
 import ca.tweetzy.core.utils.nms.NBTEditor;
-import org.bukkit.Bukkit;
-import org.bukkit.OfflinePlayer;
 import org.bukkit.block.ShulkerBox;
 import org.bukkit.event.inventory.ClickType;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.BlockStateMeta;
-import org.bukkit.scheduler.BukkitTask;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * The current file has been created by Kiran Hart
@@ -43,17 +43,31 @@ import java.util.stream.Collectors;
 public class GUIAuctionHouse extends Gui {
 
 	final AuctionPlayer auctionPlayer;
-	private List<AuctionedItem> items;
+	private List<AuctionedItem> items = new ArrayList<>();
 
-	private BukkitTask task;
-	private String searchPhrase = "";
+	private final String searchPhrase;
+	// only computed on the main thread, the refresh task reads it instead of the player's filters
+	private volatile AuctionView.Key viewKey;
+
+	// what every listing slot shows right now, a slot is only sent again once its listing or display stack changes
+	private final AuctionedItem[] shownItems = new AuctionedItem[AuctionView.PAGE_SIZE];
+	private final ItemStack[] shownStacks = new ItemStack[AuctionView.PAGE_SIZE];
+	private final Map<Integer, ItemStack> shownButtons = new HashMap<>();
+	private int shownPage;
+	private int shownPages;
 
 	public GUIAuctionHouse(AuctionPlayer auctionPlayer) {
+		this(auctionPlayer, "");
+	}
+
+	public GUIAuctionHouse(AuctionPlayer auctionPlayer, String phrase) {
 		this.auctionPlayer = auctionPlayer;
+		this.searchPhrase = phrase;
 		setTitle(TextUtils.formatText(Settings.GUI_AUCTION_HOUSE_TITLE.getString()));
 		setRows(6);
 		setAcceptsItems(false);
 		setAllowShiftClick(false);
+		drawFixedButtons();
 		draw();
 
 		setOnOpen(open -> {
@@ -68,23 +82,16 @@ public class GUIAuctionHouse extends Gui {
 		});
 
 		setOnClose(close -> {
-			this.items.clear();
-
-			if (Settings.AUTO_REFRESH_AUCTION_PAGES.getBoolean()) {
-				cleanup();
-			}
+			this.items = Collections.emptyList();
+			// always, the setting could have been turned off by a reload while the menu was open
+			cleanup();
 		});
 	}
 
-	public GUIAuctionHouse(AuctionPlayer auctionPlayer, String phrase) {
-		this(auctionPlayer);
-		this.searchPhrase = phrase;
-	}
-
 	public void draw() {
+		this.viewKey = AuctionView.Key.of(this.auctionPlayer, this.searchPhrase);
 		try {
-			reset();
-			drawFixedButtons();
+			drawFilterButton();
 			drawItems();
 		} catch (Exception e) {
 			AuctionHouse.getInstance().getLogger().warning("Something stupid is happening during the draw process (Main Menu)");
@@ -92,72 +99,40 @@ public class GUIAuctionHouse extends Gui {
 	}
 
 	private void drawItems() {
-		AuctionHouse.newChain().asyncFirst(() -> {
-			this.items = new ArrayList<>();
-
-			for (Map.Entry<UUID, AuctionedItem> entry : AuctionHouse.getInstance().getAuctionItemManager().getItems().entrySet()) {
-				AuctionedItem auctionItem = entry.getValue();
-				if (!auctionItem.isExpired() && !AuctionHouse.getInstance().getAuctionItemManager().getGarbageBin().containsKey(auctionItem.getId())) {
-					if (Settings.PER_WORLD_ITEMS.getBoolean()) {
-						if (auctionItem.getListedWorld() == null || this.auctionPlayer.getPlayer().getWorld().getName().equals(auctionItem.getListedWorld())) {
-							this.items.add(auctionItem);
-						}
-					} else {
-						this.items.add(auctionItem);
-					}
-				}
-			}
-
-			if (this.searchPhrase != null && this.searchPhrase.length() != 0) {
-				this.items = this.items.stream().filter(item -> checkSearchCriteria(this.searchPhrase, item)).collect(Collectors.toList());
-			}
-
-			if (this.auctionPlayer.getSelectedFilter() != AuctionItemCategory.ALL && this.auctionPlayer.getSelectedFilter() != AuctionItemCategory.SEARCH && this.auctionPlayer.getSelectedFilter() != AuctionItemCategory.SELF) {
-				this.items = this.items.stream().filter(item -> checkFilterCriteria(item, this.auctionPlayer.getSelectedFilter())).collect(Collectors.toList());
-			} else if (this.auctionPlayer.getSelectedFilter() == AuctionItemCategory.SELF) {
-				this.items = this.items.stream().filter(item -> item.getOwner().equals(this.auctionPlayer.getPlayer().getUniqueId())).collect(Collectors.toList());
-			} else if (this.auctionPlayer.getSelectedFilter() == AuctionItemCategory.SEARCH && this.auctionPlayer.getCurrentSearchPhrase().length() != 0) {
-				this.items = this.items.stream().filter(item -> checkSearchCriteria(this.auctionPlayer.getCurrentSearchPhrase(), item)).collect(Collectors.toList());
-			}
-
-			if (this.auctionPlayer.getSelectedSaleType() == AuctionSaleType.USED_BIDDING_SYSTEM) {
-				this.items = this.items.stream().filter(AuctionedItem::isBidItem).collect(Collectors.toList());
-			}
-
-			if (this.auctionPlayer.getSelectedSaleType() == AuctionSaleType.WITHOUT_BIDDING_SYSTEM) {
-				this.items = this.items.stream().filter(item -> !item.isBidItem()).collect(Collectors.toList());
-			}
-
-			if (this.auctionPlayer.getAuctionSortType() == AuctionSortType.PRICE) {
-				this.items = this.items.stream().sorted(Comparator.comparingDouble(AuctionedItem::getCurrentPrice).reversed()).collect(Collectors.toList());
-			}
-
-			if (this.auctionPlayer.getAuctionSortType() == AuctionSortType.RECENT) {
-				this.items = this.items.stream().sorted(Comparator.comparingLong(AuctionedItem::getExpiresAt).reversed()).collect(Collectors.toList());
-			}
+		final AuctionView.Key key = this.viewKey;
+		final int page = this.page;
+		AuctionHouse.newChain().asyncFirst(() -> AuctionView.get(key, page)).syncLast(this::show).execute();
+	}
 
-			return this.items.stream().skip((page - 1) * 45L).limit(45L).collect(Collectors.toList());
-		}).asyncLast((data) -> {
-			pages = (int) Math.max(1, Math.ceil(this.items.size() / (double) 45L));
-			drawVariableButtons();
-			drawPaginationButtons();
-			placeItems(data);
+	/**
+	 * Shows the current page of a view that was selected for everyone looking at it,
+	 * called by the refresh task from its own thread
+	 *
+	 * @param view is the view this menu showed when the refresh started
+	 */
+	public void refresh(AuctionView view) {
+		AuctionHouse.newChain().sync(() -> {
+			// the viewer changed what they look at since the refresh started, their own draw is on its way
+			if (!view.getKey().equals(this.viewKey)) return;
+			show(view);
 		}).execute();
 	}
 
-	private boolean checkFilterCriteria(AuctionedItem auctionItem, AuctionItemCategory category) {
-		return auctionItem.getCategory() == category ||
-				AuctionHouse.getInstance().getFilterManager().getFilterWhitelist(category).stream().anyMatch(item -> item.isSimilar(auctionItem.getItem()));
+	/**
+	 * @return what this menu showed when it was last drawn, safe to read from any thread
+	 */
+	public AuctionView.Key getViewKey() {
+		return this.viewKey;
 	}
 
-	private boolean checkSearchCriteria(String phrase, AuctionedItem item) {
-		ItemStack stack = item.getItem();
-		return AuctionAPI.getInstance().match(phrase, AuctionAPI.getInstance().getItemName(stack)) ||
-				AuctionAPI.getInstance().match(phrase, item.getCategory().getTranslatedType()) ||
-				AuctionAPI.getInstance().match(phrase, stack.getType().name()) ||
-				AuctionAPI.getInstance().match(phrase, Bukkit.getOfflinePlayer(item.getOwner()).getName()) ||
-				AuctionAPI.getInstance().match(phrase, AuctionAPI.getInstance().getItemLore(stack)) ||
-				AuctionAPI.getInstance().match(phrase, AuctionAPI.getInstance().getItemEnchantments(stack));
+	private void show(AuctionView view) {
+		final List<AuctionedItem> pageItems = view.getPage(this.page);
+		this.items = pageItems;
+
+		pages = view.getPages();
+		drawVariableButtons();
+		drawPaginationButtons();
+		placeItems(pageItems);
 	}
 
 	/*
@@ -223,21 +198,12 @@ public class GUIAuctionHouse extends Gui {
 					return;
 				}
 
-				double newBiddingAmount = 0;
-				if (Settings.USE_REALISTIC_BIDDING.getBoolean()) {
-					if (value > auctionItem.getCurrentPrice()) {
-						newBiddingAmount = value;
-					} else {
-						if (Settings.BID_MUST_BE_HIGHER_THAN_PREVIOUS.getBoolean()) {
-							e.manager.showGUI(e.player, new GUIAuctionHouse(this.auctionPlayer));
-							AuctionHouse.getInstance().getLocale().getMessage("pricing.bidmusthigherthanprevious").processPlaceholder("current_bid", AuctionAPI.getInstance().formatNumber(auctionItem.getCurrentPrice())).sendPrefixedMessage(e.player);
-							return;
-						}
-
-						newBiddingAmount = auctionItem.getCurrentPrice() + value;
-					}
-				} else {
-					newBiddingAmount = auctionItem.getCurrentPrice() + value;
+				// placing the bid checks this again, the price could change while the player confirms
+				final double newBiddingAmount = MarketActions.getInstance().getNewBid(auctionItem, value);
+				if (newBiddingAmount == -1) {
+					e.manager.showGUI(e.player, new GUIAuctionHouse(this.auctionPlayer));
+					AuctionHouse.getInstance().getLocale().getMessage("pricing.bidmusthigherthanprevious").processPlaceholder("current_bid", AuctionAPI.getInstance().formatNumber(auctionItem.getCurrentPrice())).sendPrefixedMessage(e.player);
+					return;
 				}
 
 				if (Settings.PLAYER_NEEDS_TOTAL_PRICE_TO_BID.getBoolean() && !EconomyManager.hasBalance(e.player, newBiddingAmount)) {
@@ -246,54 +212,29 @@ public class GUIAuctionHouse extends Gui {
 				}
 
 				if (Settings.ASK_FOR_BID_CONFIRMATION.getBoolean()) {
-					e.manager.showGUI(e.player, new GUIConfirmBid(this.auctionPlayer, auctionItem, newBiddingAmount));
+					e.manager.showGUI(e.player, new GUIConfirmBid(this.auctionPlayer, auctionItem, value));
 					return;
 				}
 
-				ItemStack itemStack = auctionItem.getItem();
-
-				OfflinePlayer oldBidder = Bukkit.getOfflinePlayer(auctionItem.getHighestBidder());
-				OfflinePlayer owner = Bukkit.getOfflinePlayer(auctionItem.getOwner());
-
-				AuctionBidEvent auctionBidEvent = new AuctionBidEvent(e.player, auctionItem, newBiddingAmount);
-				Bukkit.getServer().getPluginManager().callEvent(auctionBidEvent);
-				if (auctionBidEvent.isCancelled()) return;
-
-				auctionItem.setHighestBidder(e.player.getUniqueId());
-				auctionItem.setHighestBidderName(e.player.getName());
-				auctionItem.setCurrentPrice(newBiddingAmount);
-				if (auctionItem.getBasePrice() != -1 && Settings.SYNC_BASE_PRICE_TO_HIGHEST_PRICE.getBoolean() && auctionItem.getCurrentPrice() > auctionItem.getBasePrice()) {
-					auctionItem.setBasePrice(auctionItem.getCurrentPrice());
-				}
-
-				if (Settings.INCREASE_TIME_ON_BID.getBoolean()) {
-					auctionItem.setExpiresAt(auctionItem.getExpiresAt() + 1000L * Settings.TIME_TO_INCREASE_BY_ON_BID.getInt());
-				}
-
-				if (oldBidder.isOnline()) {
-					AuctionHouse.getInstance().getLocale().getMessage("auction.outbid")
-							.processPlaceholder("player", e.player.getName())
-							.processPlaceholder("item", AuctionAPI.getInstance().getItemName(itemStack))
-							.sendPrefixedMessage(oldBidder.getPlayer());
-				}
-
-				if (owner.isOnline()) {
-					AuctionHouse.getInstance().getLocale().getMessage("auction.placedbid")
-							.processPlaceholder("player", e.player.getName())
-							.processPlaceholder("amount", AuctionAPI.getInstance().formatNumber(auctionItem.getCurrentPrice()))
-							.processPlaceholder("item", AuctionAPI.getInstance().getItemName(itemStack))
-							.sendPrefixedMessage(owner.getPlayer());
-				}
-
-				if (Settings.BROADCAST_AUCTION_BID.getBoolean()) {
-					Bukkit.getOnlinePlayers().forEach(player -> AuctionHouse.getInstance().getLocale().getMessage("auction.broadcast.bid")
-							.processPlaceholder("player", e.player.getName())
-							.processPlaceholder("amount", AuctionAPI.getInstance().formatNumber(auctionItem.getCurrentPrice()))
-							.processPlaceholder("item", AuctionAPI.getInstance().getItemName(itemStack))
-							.sendPrefixedMessage(player));
-				}
-
-				e.manager.showGUI(e.player, new GUIAuctionHouse(this.auctionPlayer));
+				MarketLoop.getInstance().execute(() -> {
+					// the bid re-checks the item, it could have been bought, expired or bid on while the player was typing
+					switch (MarketActions.getInstance().placeBid(e.player, e.player.getName(), auctionItem, value, MarketEconomy.SERVER)) {
+						case NOT_LISTED:
+							AuctionHouse.getInstance().getLocale().getMessage("auction.itemnotavailable").sendPrefixedMessage(e.player);
+							break;
+						case BID_TOO_LOW:
+							AuctionHouse.getInstance().getLocale().getMessage("pricing.bidmusthigherthanprevious").processPlaceholder("current_bid", AuctionAPI.getInstance().formatNumber(auctionItem.getCurrentPrice())).sendPrefixedMessage(e.player);
+							break;
+						case NOT_ENOUGH_MONEY:
+							AuctionHouse.getInstance().getLocale().getMessage("general.notenoughmoney").sendPrefixedMessage(e.player);
+							break;
+						case DONE:
+							e.manager.showGUI(e.player, new GUIAuctionHouse(this.auctionPlayer));
+							break;
+						default:
+							break;
+					}
+				});
 			});
 
 			PlayerChatInput<Double> input = builder.build();
@@ -332,92 +273,136 @@ public class GUIAuctionHouse extends Gui {
 	}
 
 	private void placeItems(List<AuctionedItem> data) {
-		int slot = 0;
-		for (AuctionedItem auctionItem : data) {
-			setButton(slot++, auctionItem.getDisplayStack(AuctionStackType.MAIN_AUCTION_HOUSE), e -> {
-				// Non Type specific actions
-				if (e.clickType == ClickType.valueOf(Settings.CLICKS_INSPECT_CONTAINER.getString().toUpperCase())) {
-					handleContainerInspect(e);
-					return;
+		for (int slot = 0; slot < AuctionView.PAGE_SIZE; slot++) {
+			final AuctionedItem auctionItem = slot < data.size() ? data.get(slot) : null;
+			if (auctionItem == null) {
+				if (this.shownItems[slot] != null) {
+					setButton(slot, XMaterial.AIR.parseItem(), null);
+					this.shownItems[slot] = null;
+					this.shownStacks[slot] = null;
 				}
+				continue;
+			}
 
-				if (e.clickType == ClickType.valueOf(Settings.CLICKS_REMOVE_ITEM.getString().toUpperCase())) {
-					handleItemRemove(auctionItem, e);
-					return;
-				}
+			// the display stack is only rendered again when the listing or the text of its time left changed
+			final ItemStack displayStack = auctionItem.getDisplayStack(AuctionStackType.MAIN_AUCTION_HOUSE);
+			if (this.shownItems[slot] == auctionItem && this.shownStacks[slot] == displayStack) continue;
 
-				// Non Biddable Items
-				if (!auctionItem.isBidItem()) {
-					if (e.clickType == ClickType.valueOf(Settings.CLICKS_NON_BID_ITEM_PURCHASE.getString().toUpperCase())) {
-						handleNonBidItem(auctionItem, e, false);
-						return;
-					}
+			this.shownItems[slot] = auctionItem;
+			this.shownStacks[slot] = displayStack;
+			setButton(slot, displayStack, e -> handleItemClick(auctionItem, e));
+		}
+	}
 
-					if (e.clickType == ClickType.valueOf(Settings.CLICKS_NON_BID_ITEM_QTY_PURCHASE.getString().toUpperCase())) {
-						handleNonBidItem(auctionItem, e, true);
-						return;
-					}
-					return;
-				}
+	private void handleItemClick(AuctionedItem auctionItem, GuiClickEvent e) {
+		// Non Type specific actions
+		if (e.clickType == ClickType.valueOf(Settings.CLICKS_INSPECT_CONTAINER.getString().toUpperCase())) {
+			handleContainerInspect(e);
+			return;
+		}
 
-				// Biddable Items
-				if (e.clickType == ClickType.valueOf(Settings.CLICKS_BID_ITEM_PLACE_BID.getString().toUpperCase())) {
-					handleBidItem(auctionItem, e, false);
-					return;
-				}
+		if (e.clickType == ClickType.valueOf(Settings.CLICKS_REMOVE_ITEM.getString().toUpperCase())) {
+			handleItemRemove(auctionItem, e);
+			return;
+		}
 
-				if (e.clickType == ClickType.valueOf(Settings.CLICKS_BID_ITEM_BUY_NOW.getString().toUpperCase())) {
-					handleBidItem(auctionItem, e, true);
-				}
-			});
+		// Non Biddable Items
+		if (!auctionItem.isBidItem()) {
+			if (e.clickType == ClickType.valueOf(Settings.CLICKS_NON_BID_ITEM_PURCHASE.getString().toUpperCase())) {
+				handleNonBidItem(auctionItem, e, false);
+				return;
+			}
+
+			if (e.clickType == ClickType.valueOf(Settings.CLICKS_NON_BID_ITEM_QTY_PURCHASE.getString().toUpperCase())) {
+				handleNonBidItem(auctionItem, e, true);
+				return;
+			}
+			return;
+		}
+
+		// Biddable Items
+		if (e.clickType == ClickType.valueOf(Settings.CLICKS_BID_ITEM_PLACE_BID.getString().toUpperCase())) {
+			handleBidItem(auctionItem, e, false);
+			return;
+		}
+
+		if (e.clickType == ClickType.valueOf(Settings.CLICKS_BID_ITEM_BUY_NOW.getString().toUpperCase())) {
+			handleBidItem(auctionItem, e, true);
 		}
 	}
 
+	/**
+	 * Remembers the item a button is about to show, an unchanged button doesn't need to be sent to the player again
+	 *
+	 * @return true if the slot doesn't show an equal item yet
+	 */
+	private boolean buttonChanged(int slot, ItemStack item) {
+		if (item.equals(this.shownButtons.get(slot))) return false;
+		this.shownButtons.put(slot, item);
+		return true;
+	}
+
 	/*
 	====================== FIXED BUTTONS ======================
 	 */
 	private void drawVariableButtons() {
 		if (Settings.GUI_AUCTION_HOUSE_ITEMS_YOUR_AUCTIONS_ENABLED.getBoolean()) {
-			setButton(Settings.GUI_AUCTION_HOUSE_ITEMS_YOUR_AUCTIONS_SLOT.getInt(), ConfigurationItemHelper.createConfigurationItem(Settings.GUI_AUCTION_HOUSE_ITEMS_YOUR_AUCTIONS_ITEM.getString(), Settings.GUI_AUCTION_HOUSE_ITEMS_YOUR_AUCTIONS_NAME.getString(), Settings.GUI_AUCTION_HOUSE_ITEMS_YOUR_AUCTIONS_LORE.getStringList(), new HashMap<String, Object>() {{
+			final int slot = Settings.GUI_AUCTION_HOUSE_ITEMS_YOUR_AUCTIONS_SLOT.getInt();
+			final ItemStack item = ConfigurationItemHelper.createConfigurationItem(Settings.GUI_AUCTION_HOUSE_ITEMS_YOUR_AUCTIONS_ITEM.getString(), Settings.GUI_AUCTION_HOUSE_ITEMS_YOUR_AUCTIONS_NAME.getString(), Settings.GUI_AUCTION_HOUSE_ITEMS_YOUR_AUCTIONS_LORE.getStringList(), new HashMap<String, Object>() {{
 				put("%active_player_auctions%", auctionPlayer.getItems(false).size());
 				put("%player_balance%", Settings.USE_SHORT_NUMBERS_ON_PLAYER_BALANCE.getBoolean() ? AuctionAPI.getInstance().getFriendlyNumber(EconomyManager.getBalance(auctionPlayer.getPlayer())) : AuctionAPI.getInstance().formatNumber(EconomyManager.getBalance(auctionPlayer.getPlayer())));
-			}}), e -> {
+			}});
+
+			if (buttonChanged(slot, item)) setButton(slot, item, e -> {
 				cleanup();
 				e.manager.showGUI(e.player, new GUIActiveAuctions(this.auctionPlayer));
 			});
 		}
 
 		if (Settings.GUI_AUCTION_HOUSE_ITEMS_COLLECTION_BIN_ENABLED.getBoolean()) {
-			setButton(Settings.GUI_AUCTION_HOUSE_ITEMS_COLLECTION_BIN_SLOT.getInt(), ConfigurationItemHelper.createConfigurationItem(Settings.GUI_AUCTION_HOUSE_ITEMS_COLLECTION_BIN_ITEM.getString(), Settings.GUI_AUCTION_HOUSE_ITEMS_COLLECTION_BIN_NAME.getString(), Settings.GUI_AUCTION_HOUSE_ITEMS_COLLECTION_BIN_LORE.getStringList(), new HashMap<String, Object>() {{
+			final int slot = Settings.GUI_AUCTION_HOUSE_ITEMS_COLLECTION_BIN_SLOT.getInt();
+			final ItemStack item = ConfigurationItemHelper.createConfigurationItem(Settings.GUI_AUCTION_HOUSE_ITEMS_COLLECTION_BIN_ITEM.getString(), Settings.GUI_AUCTION_HOUSE_ITEMS_COLLECTION_BIN_NAME.getString(), Settings.GUI_AUCTION_HOUSE_ITEMS_COLLECTION_BIN_LORE.getStringList(), new HashMap<String, Object>() {{
 				put("%expired_player_auctions%", auctionPlayer.getItems(true).size());
-			}}), e -> {
+			}});
+
+			if (buttonChanged(slot, item)) setButton(slot, item, e -> {
 				cleanup();
 				e.manager.showGUI(e.player, new GUIExpiredItems(this.auctionPlayer));
 			});
 		}
 
 		if (Settings.GUI_AUCTION_HOUSE_ITEMS_TRANSACTIONS_ENABLED.getBoolean()) {
-			setButton(Settings.GUI_AUCTION_HOUSE_ITEMS_TRANSACTIONS_SLOT.getInt(), ConfigurationItemHelper.createConfigurationItem(Settings.GUI_AUCTION_HOUSE_ITEMS_TRANSACTIONS_ITEM.getString(), Settings.GUI_AUCTION_HOUSE_ITEMS_TRANSACTIONS_NAME.getString(), Settings.GUI_AUCTION_HOUSE_ITEMS_TRANSACTIONS_LORE.getStringList(), new HashMap<String, Object>() {{
-				put("%total_items_bought%", AuctionHouse.getInstance().getTransactionManager().getTotalItemsBought(auctionPlayer.getPlayer().getUniqueId()));
-				put("%total_items_sold%", AuctionHouse.getInstance().getTransactionManager().getTotalItemsSold(auctionPlayer.getPlayer().getUniqueId()));
-			}}), e -> e.manager.showGUI(e.player, new GUITransactionType()));
+			final PlayerTransactionIndex transactionIndex = AuctionHouse.getInstance().getTransactionManager().getIndex();
+			final int slot = Settings.GUI_AUCTION_HOUSE_ITEMS_TRANSACTIONS_SLOT.getInt();
+			final ItemStack item = ConfigurationItemHelper.createConfigurationItem(Settings.GUI_AUCTION_HOUSE_ITEMS_TRANSACTIONS_ITEM.getString(), Settings.GUI_AUCTION_HOUSE_ITEMS_TRANSACTIONS_NAME.getString(), Settings.GUI_AUCTION_HOUSE_ITEMS_TRANSACTIONS_LORE.getStringList(), new HashMap<String, Object>() {{
+				put("%total_items_bought%", transactionIndex.getBought(auctionPlayer.getPlayer().getUniqueId()));
+				put("%total_items_sold%", transactionIndex.getSold(auctionPlayer.getPlayer().getUniqueId()));
+			}});
+
+			if (buttonChanged(slot, item)) setButton(slot, item, e -> e.manager.showGUI(e.player, new GUITransactionType()));
 		}
 	}
 
 	private void drawPaginationButtons() {
+		// the buttons themselves only come from the settings, they only need to be placed again when the page count changes
+		if (this.shownPage == this.page && this.shownPages == this.pages) return;
+		this.shownPage = this.page;
+		this.shownPages = this.pages;
+
 		setItem(Settings.GUI_NEXT_BTN_SLOT.getInt(), XMaterial.AIR.parseItem());
 		setItem(Settings.GUI_BACK_BTN_SLOT.getInt(), XMaterial.AIR.parseItem());
 		setPrevPage(Settings.GUI_BACK_BTN_SLOT.getInt(), new TItemBuilder(Objects.requireNonNull(Settings.GUI_BACK_BTN_ITEM.getMaterial().parseMaterial())).setName(Settings.GUI_BACK_BTN_NAME.getString()).setLore(Settings.GUI_BACK_BTN_LORE.getStringList()).toItemStack());
 		setNextPage(Settings.GUI_NEXT_BTN_SLOT.getInt(), new TItemBuilder(Objects.requireNonNull(Settings.GUI_NEXT_BTN_ITEM.getMaterial().parseMaterial())).setName(Settings.GUI_NEXT_BTN_NAME.getString()).setLore(Settings.GUI_NEXT_BTN_LORE.getStringList()).toItemStack());
+	}
 
+	/**
+	 * Draws the buttons that only depend on the settings, these never change while the menu is open
+	 */
+	private void drawFixedButtons() {
 		setOnPage(e -> {
 			draw();
 			SoundManager.getInstance().playSound(this.auctionPlayer.getPlayer(), Settings.SOUNDS_NAVIGATE_GUI_PAGES.getString(), 1.0F, 1.0F);
 		});
-	}
-
-	private void drawFixedButtons() {
-		drawFilterButton();
 
 		if (Settings.REPLACE_HOW_TO_SELL_WITH_LIST_BUTTON.getBoolean()) {
 			if (Settings.GUI_AUCTION_HOUSE_ITEMS_LIST_ITEM_ENABLED.getBoolean()) {
@@ -553,13 +538,11 @@ public class GUIAuctionHouse extends Gui {
 	====================== AUTO REFRESH ======================
 	 */
 	private void makeMess() {
-		task = Bukkit.getServer().getScheduler().runTaskTimerAsynchronously(AuctionHouse.getInstance(), this::drawItems, 0L, (long) 20 * Settings.TICK_UPDATE_GUI_TIME.getInt());
+		RefreshAuctionPagesTask.register(this);
 	}
 
 	private void cleanup() {
-		if (task != null) {
-			task.cancel();
-		}
+		RefreshAuctionPagesTask.unregister(this);
 	}
 
 }
@@ -2,11 +2,13 @@ package ca.tweetzy.auctionhouse.guis;
 
 import ca.tweetzy.auctionhouse.AuctionHouse;
 import ca.tweetzy.auctionhouse.api.AuctionAPI;
-import ca.tweetzy.auctionhouse.api.events.AuctionBidEvent;
+import ca.tweetzy.auctionhouse.api.MarketEconomy;
 import ca.tweetzy.auctionhouse.auction.AuctionPlayer;
 import ca.tweetzy.auctionhouse.auction.AuctionedItem;
 import ca.tweetzy.auctionhouse.guis.confirmation.GUIConfirmBid;
 import ca.tweetzy.auctionhouse.helpers.ConfigurationItemHelper;
+import ca.tweetzy.auctionhouse.managers.MarketActions;
+import ca.tweetzy.auctionhouse.managers.MarketLoop;
 import ca.tweetzy.auctionhouse.settings.Settings;
 import ca.tweetzy.core.commands.AbstractCommand;
 import ca.tweetzy.core.gui.Gui;
@@ -14,9 +16,6 @@ import ca.tweetzy.core.hooks.EconomyManager;
 import ca.tweetzy.core.input.PlayerChatInput;
 import ca.tweetzy.core.utils.NumberUtils;
 import ca.tweetzy.core.utils.TextUtils;
-import org.bukkit.Bukkit;
-import org.bukkit.OfflinePlayer;
-import org.bukkit.inventory.ItemStack;
 
 /**
  * The current file has been created by Kiran Hart
@@ -69,24 +68,14 @@ public class GUIBid extends Gui {
                     return;
                 }
 
-                double newBiddingAmount = 0;
-                if (Settings.USE_REALISTIC_BIDDING.getBoolean()) {
-                    if (value > this.auctionItem.getCurrentPrice()) {
-                        newBiddingAmount = value;
-                    } else {
-                        if (Settings.BID_MUST_BE_HIGHER_THAN_PREVIOUS.getBoolean()) {
-                            e.manager.showGUI(e.player, new GUIAuctionHouse(this.auctionPlayer));
-                            AuctionHouse.getInstance().getLocale().getMessage("pricing.bidmusthigherthanprevious").processPlaceholder("current_bid", AuctionAPI.getInstance().formatNumber(auctionItem.getCurrentPrice())).sendPrefixedMessage(e.player);
-                            return;
-                        }
-
-                        newBiddingAmount = this.auctionItem.getCurrentPrice() + value;
-                    }
-                } else {
-                    newBiddingAmount = this.auctionItem.getCurrentPrice() + value;
+                // placing the bid checks this again, the price could change while the player confirms
+                final double newBiddingAmount = MarketActions.getInstance().getNewBid(auctionItem, value);
+                if (newBiddingAmount == -1) {
+                    e.manager.showGUI(e.player, new GUIAuctionHouse(this.auctionPlayer));
+                    AuctionHouse.getInstance().getLocale().getMessage("pricing.bidmusthigherthanprevious").processPlaceholder("current_bid", AuctionAPI.getInstance().formatNumber(auctionItem.getCurrentPrice())).sendPrefixedMessage(e.player);
+                    return;
                 }
 
-
                 if (Settings.PLAYER_NEEDS_TOTAL_PRICE_TO_BID.getBoolean() && !EconomyManager.hasBalance(e.player, newBiddingAmount)) {
                     AuctionHouse.getInstance().getLocale().getMessage("general.notenoughmoney").sendPrefixedMessage(e.player);
                     return;
@@ -97,50 +86,25 @@ public class GUIBid extends Gui {
                     return;
                 }
 
-                ItemStack itemStack = auctionItem.getItem();
-
-                OfflinePlayer oldBidder = Bukkit.getOfflinePlayer(auctionItem.getHighestBidder());
-                OfflinePlayer owner = Bukkit.getOfflinePlayer(auctionItem.getOwner());
-
-                AuctionBidEvent auctionBidEvent = new AuctionBidEvent(e.player, auctionItem, newBiddingAmount);
-                Bukkit.getServer().getPluginManager().callEvent(auctionBidEvent);
-                if (auctionBidEvent.isCancelled()) return;
-
-                auctionItem.setHighestBidder(e.player.getUniqueId());
-                auctionItem.setHighestBidderName(e.player.getName());
-                auctionItem.setCurrentPrice(newBiddingAmount);
-                if (auctionItem.getBasePrice() != -1 && Settings.SYNC_BASE_PRICE_TO_HIGHEST_PRICE.getBoolean() && auctionItem.getCurrentPrice() > auctionItem.getBasePrice()) {
-                    auctionItem.setBasePrice(auctionItem.getCurrentPrice());
-                }
-
-                if (Settings.INCREASE_TIME_ON_BID.getBoolean()) {
-                    auctionItem.setExpiresAt(auctionItem.getExpiresAt() + 1000L * Settings.TIME_TO_INCREASE_BY_ON_BID.getInt());
-                }
-
-                if (oldBidder.isOnline()) {
-                    AuctionHouse.getInstance().getLocale().getMessage("auction.outbid")
-                            .processPlaceholder("player", e.player.getName())
-                            .processPlaceholder("item", AuctionAPI.getInstance().getItemName(itemStack))
-                            .sendPrefixedMessage(oldBidder.getPlayer());
-                }
-
-                if (owner.isOnline()) {
-                    AuctionHouse.getInstance().getLocale().getMessage("auction.placedbid")
-                            .processPlaceholder("player", e.player.getName())
-                            .processPlaceholder("amount", AuctionAPI.getInstance().formatNumber(auctionItem.getCurrentPrice()))
-                            .processPlaceholder("item", AuctionAPI.getInstance().getItemName(itemStack))
-                            .sendPrefixedMessage(owner.getPlayer());
-                }
-
-                if (Settings.BROADCAST_AUCTION_BID.getBoolean()) {
-                    Bukkit.getOnlinePlayers().forEach(player -> AuctionHouse.getInstance().getLocale().getMessage("auction.broadcast.bid")
-                            .processPlaceholder("player", e.player.getName())
-                            .processPlaceholder("amount", AuctionAPI.getInstance().formatNumber(auctionItem.getCurrentPrice()))
-                            .processPlaceholder("item", AuctionAPI.getInstance().getItemName(itemStack))
-                            .sendPrefixedMessage(player));
-                }
-
-                e.manager.showGUI(e.player, new GUIAuctionHouse(this.auctionPlayer));
+                MarketLoop.getInstance().execute(() -> {
+                    // the bid re-checks the item, it could have been bought, expired or bid on while the player was typing
+                    switch (MarketActions.getInstance().placeBid(e.player, e.player.getName(), auctionItem, value, MarketEconomy.SERVER)) {
+                        case NOT_LISTED:
+                            AuctionHouse.getInstance().getLocale().getMessage("auction.itemnotavailable").sendPrefixedMessage(e.player);
+                            break;
+                        case BID_TOO_LOW:
+                            AuctionHouse.getInstance().getLocale().getMessage("pricing.bidmusthigherthanprevious").processPlaceholder("current_bid", AuctionAPI.getInstance().formatNumber(auctionItem.getCurrentPrice())).sendPrefixedMessage(e.player);
+                            break;
+                        case NOT_ENOUGH_MONEY:
+                            AuctionHouse.getInstance().getLocale().getMessage("general.notenoughmoney").sendPrefixedMessage(e.player);
+                            break;
+                        case DONE:
+                            e.manager.showGUI(e.player, new GUIAuctionHouse(this.auctionPlayer));
+                            break;
+                        default:
+                            break;
+                    }
+                });
             });
 
             PlayerChatInput<Double> input = builder.build();
@@ -6,6 +6,7 @@ import ca.tweetzy.auctionhouse.auction.AuctionPlayer;
 import ca.tweetzy.auctionhouse.auction.AuctionSaleType;
 import ca.tweetzy.auctionhouse.guis.confirmation.GUIConfirmListing;
 import ca.tweetzy.auctionhouse.helpers.ConfigurationItemHelper;
+import ca.tweetzy.auctionhouse.managers.PriceSuggestionManager;
 import ca.tweetzy.auctionhouse.settings.Settings;
 import ca.tweetzy.core.compatibility.XMaterial;
 import ca.tweetzy.core.gui.Gui;
@@ -137,6 +138,8 @@ public class GUISellItem extends Gui {
 			this.itemToBeListed = e.clickedItem;
 		});
 
+		drawPriceSuggestion();
+
 		if (Settings.ALLOW_PLAYERS_TO_DEFINE_AUCTION_TIME.getBoolean()) {
 			long[] times = AuctionAPI.getInstance().getRemainingTimeValues(this.auctionTime);
 
@@ -376,6 +379,29 @@ public class GUISellItem extends Gui {
 		e.manager.showGUI(e.player, new GUISellItem(this.auctionPlayer, this.itemToBeListed, this.buyNowPrice, this.bidStartPrice, this.bidIncrementPrice, this.isBiddingItem, this.isAllowingBuyNow, this.auctionTime));
 	}
 
+	private void drawPriceSuggestion() {
+		final PriceSuggestionManager.PriceSuggestion suggestion = AuctionHouse.getInstance().getPriceSuggestionManager().getSuggestion(this.itemToBeListed);
+		if (suggestion == null) {
+			setItem(1, 6, ConfigurationItemHelper.createConfigurationItem(Settings.GUI_SELL_ITEMS_PRICE_SUGGESTION_ITEM.getString(), Settings.GUI_SELL_ITEMS_PRICE_SUGGESTION_NAME.getString(), Settings.GUI_SELL_ITEMS_PRICE_SUGGESTION_NO_DATA_LORE.getStringList(), null));
+			return;
+		}
+
+		setButton(1, 6, ConfigurationItemHelper.createConfigurationItem(Settings.GUI_SELL_ITEMS_PRICE_SUGGESTION_ITEM.getString(), Settings.GUI_SELL_ITEMS_PRICE_SUGGESTION_NAME.getString(), Settings.GUI_SELL_ITEMS_PRICE_SUGGESTION_LORE.getStringList(), new HashMap<String, Object>() {{
+			put("%suggested_low%", AuctionAPI.getInstance().formatNumber(suggestion.getLow()));
+			put("%suggested_median%", AuctionAPI.getInstance().formatNumber(suggestion.getMedian()));
+			put("%suggested_high%", AuctionAPI.getInstance().formatNumber(suggestion.getHigh()));
+			put("%suggested_sales%", suggestion.getSales());
+		}}), ClickType.LEFT, e -> {
+			setTheItemToBeListed();
+			// never suggest below what the server allows
+			this.buyNowPrice = Math.max(Settings.MIN_AUCTION_PRICE.getDouble(), Math.min(Settings.MAX_AUCTION_PRICE.getDouble(), suggestion.getMedian()));
+			if (this.isBiddingItem) {
+				this.bidStartPrice = Math.max(Settings.MIN_AUCTION_START_PRICE.getDouble(), Math.min(Settings.MAX_AUCTION_START_PRICE.getDouble(), suggestion.getLow()));
+			}
+			draw();
+		});
+	}
+
 	private void setTheItemToBeListed() {
 		this.itemToBeListed = getItem(1, 4);
 	}
@@ -4,10 +4,14 @@ import ca.tweetzy.auctionhouse.AuctionHouse;
 import ca.tweetzy.auctionhouse.api.AuctionAPI;
 import ca.tweetzy.auctionhouse.auction.AuctionStat;
 import ca.tweetzy.auctionhouse.helpers.ConfigurationItemHelper;
+import ca.tweetzy.auctionhouse.helpers.PlayerHelper;
 import ca.tweetzy.auctionhouse.managers.AuctionStatManager;
+import ca.tweetzy.auctionhouse.managers.MarketAnalyticsManager;
 import ca.tweetzy.auctionhouse.settings.Settings;
 import ca.tweetzy.core.gui.Gui;
+import org.bukkit.Material;
 import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
 
 import java.util.HashMap;
 import java.util.UUID;
@@ -52,5 +56,21 @@ public final class GUIStats extends Gui {
 			put("%auctions_expired%", (int) AuctionHouse.getInstance().getAuctionStatManager().getGlobalStat(AuctionStatManager.GlobalAuctionStatType.EXPIRED));
 			put("%auctions_money_spent%", AuctionAPI.getInstance().formatNumber(AuctionHouse.getInstance().getAuctionStatManager().getGlobalStat(AuctionStatManager.GlobalAuctionStatType.SPENT)));
 		}}));
+
+		final ItemStack held = PlayerHelper.getHeldItem(this.player);
+		final String material = held == null || held.getType() == Material.AIR ? null : held.getType().name();
+		final MarketAnalyticsManager markets = AuctionHouse.getInstance().getMarketAnalyticsManager();
+		final MarketAnalyticsManager.MarketSnapshot day = material == null ? MarketAnalyticsManager.MarketSnapshot.EMPTY : markets.getSnapshot(material, MarketAnalyticsManager.Window.DAY);
+
+		setItem(1, 4, ConfigurationItemHelper.createConfigurationItem(Settings.GUI_STATS_ITEMS_MARKET_ITEM.getString(), Settings.GUI_STATS_ITEMS_MARKET_NAME.getString(), Settings.GUI_STATS_ITEMS_MARKET_LORE.getStringList(), new HashMap<String, Object>() {{
+			put("%material%", material == null ? "-" : material);
+			put("%volume_1h%", material == null ? 0 : markets.getSnapshot(material, MarketAnalyticsManager.Window.HOUR).getVolume());
+			put("%volume_24h%", day.getVolume());
+			put("%volume_7d%", material == null ? 0 : markets.getSnapshot(material, MarketAnalyticsManager.Window.WEEK).getVolume());
+			put("%median_24h%", AuctionAPI.getInstance().formatNumber(day.getMedian()));
+			put("%p25_24h%", AuctionAPI.getInstance().formatNumber(day.getP25()));
+			put("%p75_24h%", AuctionAPI.getInstance().formatNumber(day.getP75()));
+			put("%sell_through_24h%", Math.round(day.getSellThrough() * 100));
+		}}));
 	}
 }
@@ -2,19 +2,18 @@ package ca.tweetzy.auctionhouse.guis.confirmation;
 
 import ca.tweetzy.auctionhouse.AuctionHouse;
 import ca.tweetzy.auctionhouse.api.AuctionAPI;
-import ca.tweetzy.auctionhouse.api.events.AuctionBidEvent;
+import ca.tweetzy.auctionhouse.api.MarketEconomy;
 import ca.tweetzy.auctionhouse.auction.AuctionPlayer;
 import ca.tweetzy.auctionhouse.auction.AuctionedItem;
 import ca.tweetzy.auctionhouse.guis.GUIAuctionHouse;
+import ca.tweetzy.auctionhouse.managers.MarketActions;
+import ca.tweetzy.auctionhouse.managers.MarketLoop;
 import ca.tweetzy.auctionhouse.settings.Settings;
 import ca.tweetzy.core.gui.Gui;
-import ca.tweetzy.core.hooks.EconomyManager;
 import ca.tweetzy.core.utils.TextUtils;
 import ca.tweetzy.core.utils.items.TItemBuilder;
 import org.bukkit.Bukkit;
-import org.bukkit.OfflinePlayer;
 import org.bukkit.event.inventory.ClickType;
-import org.bukkit.inventory.ItemStack;
 import org.bukkit.scheduler.BukkitTask;
 
 import java.util.Objects;
@@ -74,83 +73,26 @@ public class GUIConfirmBid extends Gui {
             e.manager.showGUI(e.player, new GUIAuctionHouse(this.auctionPlayer));
         });
         setActionForRange(0, 3, ClickType.LEFT, e -> {
-            // Re-select the item to ensure that it's available
-            AuctionedItem located = AuctionHouse.getInstance().getAuctionItemManager().getItem(this.auctionItem.getId());
-            if (located == null) {
-                cleanup();
-                e.manager.showGUI(e.player, new GUIAuctionHouse(this.auctionPlayer));
-                return;
-            }
-
-            double toIncrementBy = this.bidAmount == -1 ? auctionItem.getBidIncrementPrice() : this.bidAmount;
-
-            double newBiddingAmount = 0;
-            if (Settings.USE_REALISTIC_BIDDING.getBoolean()) {
-                if (toIncrementBy > this.auctionItem.getCurrentPrice()) {
-                    newBiddingAmount = toIncrementBy;
-                } else {
-                    if (Settings.BID_MUST_BE_HIGHER_THAN_PREVIOUS.getBoolean()) {
+            MarketLoop.getInstance().execute(() -> {
+                // the bid re-checks the item, it could have been bought or expired since the menu opened
+                final MarketActions.Result result = MarketActions.getInstance().placeBid(e.player, e.player.getName(), this.auctionItem, this.bidAmount, MarketEconomy.SERVER);
+                switch (result) {
+                    case BID_TOO_LOW:
                         e.manager.showGUI(e.player, new GUIAuctionHouse(this.auctionPlayer));
                         AuctionHouse.getInstance().getLocale().getMessage("pricing.bidmusthigherthanprevious").processPlaceholder("current_bid", AuctionAPI.getInstance().formatNumber(auctionItem.getCurrentPrice())).sendPrefixedMessage(e.player);
-                        return;
-                    }
-
-                    newBiddingAmount = this.auctionItem.getCurrentPrice() + toIncrementBy;
+                        break;
+                    case NOT_ENOUGH_MONEY:
+                        AuctionHouse.getInstance().getLocale().getMessage("general.notenoughmoney").sendPrefixedMessage(e.player);
+                        break;
+                    case NOT_LISTED:
+                    case DONE:
+                        cleanup();
+                        e.manager.showGUI(e.player, new GUIAuctionHouse(this.auctionPlayer));
+                        break;
+                    default:
+                        break;
                 }
-            } else {
-                newBiddingAmount = this.auctionItem.getCurrentPrice() + toIncrementBy;
-            }
-
-            if (Settings.PLAYER_NEEDS_TOTAL_PRICE_TO_BID.getBoolean() && !EconomyManager.hasBalance(e.player, newBiddingAmount)) {
-                AuctionHouse.getInstance().getLocale().getMessage("general.notenoughmoney").sendPrefixedMessage(e.player);
-                return;
-            }
-
-            ItemStack itemStack = auctionItem.getItem();
-
-            OfflinePlayer oldBidder = Bukkit.getOfflinePlayer(auctionItem.getHighestBidder());
-            OfflinePlayer owner = Bukkit.getOfflinePlayer(auctionItem.getOwner());
-
-            AuctionBidEvent auctionBidEvent = new AuctionBidEvent(e.player, auctionItem, newBiddingAmount);
-            Bukkit.getServer().getPluginManager().callEvent(auctionBidEvent);
-            if (auctionBidEvent.isCancelled()) return;
-
-            auctionItem.setHighestBidder(e.player.getUniqueId());
-            auctionItem.setHighestBidderName(e.player.getName());
-            auctionItem.setCurrentPrice(newBiddingAmount);
-            if (auctionItem.getBasePrice() != -1 && Settings.SYNC_BASE_PRICE_TO_HIGHEST_PRICE.getBoolean() && Settings.ALLOW_USAGE_OF_BUY_NOW_SYSTEM.getBoolean() && auctionItem.getCurrentPrice() > auctionItem.getBasePrice()) {
-                auctionItem.setBasePrice(auctionItem.getCurrentPrice());
-            }
-
-            if (Settings.INCREASE_TIME_ON_BID.getBoolean()) {
-                auctionItem.setExpiresAt(auctionItem.getExpiresAt() + 1000L * Settings.TIME_TO_INCREASE_BY_ON_BID.getInt());
-            }
-
-            if (Settings.BROADCAST_AUCTION_BID.getBoolean()) {
-                Bukkit.getOnlinePlayers().forEach(player -> AuctionHouse.getInstance().getLocale().getMessage("auction.broadcast.bid")
-                        .processPlaceholder("player", e.player.getName())
-                        .processPlaceholder("amount", AuctionAPI.getInstance().formatNumber(auctionItem.getCurrentPrice()))
-                        .processPlaceholder("item", AuctionAPI.getInstance().getItemName(itemStack))
-                        .sendPrefixedMessage(player));
-            }
-
-            if (oldBidder.isOnline()) {
-                AuctionHouse.getInstance().getLocale().getMessage("auction.outbid")
-                        .processPlaceholder("player", e.player.getName())
-                        .processPlaceholder("item", AuctionAPI.getInstance().getItemName(itemStack))
-                        .sendPrefixedMessage(oldBidder.getPlayer());
-            }
-
-            if (owner.isOnline()) {
-                AuctionHouse.getInstance().getLocale().getMessage("auction.placedbid")
-                        .processPlaceholder("player", e.player.getName())
-                        .processPlaceholder("amount", AuctionAPI.getInstance().formatNumber(auctionItem.getCurrentPrice()))
-                        .processPlaceholder("item", AuctionAPI.getInstance().getItemName(itemStack))
-                        .sendPrefixedMessage(owner.getPlayer());
-            }
-
-            cleanup();
-            e.manager.showGUI(e.player, new GUIAuctionHouse(this.auctionPlayer));
+            });
         });
     }
 }
@@ -5,6 +5,7 @@ import ca.tweetzy.auctionhouse.auction.AuctionPlayer;
 import ca.tweetzy.auctionhouse.auction.AuctionStackType;
 import ca.tweetzy.auctionhouse.auction.AuctionedItem;
 import ca.tweetzy.auctionhouse.guis.GUIActiveAuctions;
+import ca.tweetzy.auctionhouse.managers.MarketLoop;
 import ca.tweetzy.auctionhouse.settings.Settings;
 import ca.tweetzy.core.gui.Gui;
 import ca.tweetzy.core.utils.TextUtils;
@@ -39,16 +40,14 @@ public class GUIConfirmCancel extends Gui {
         setItems(5, 8, new TItemBuilder(Objects.requireNonNull(Settings.GUI_CONFIRM_CANCEL_NO_ITEM.getMaterial().parseMaterial())).setName(Settings.GUI_CONFIRM_CANCEL_NO_NAME.getString()).setLore(Settings.GUI_CONFIRM_CANCEL_NO_LORE.getStringList()).toItemStack());
 
         setActionForRange(5, 8, ClickType.LEFT, e -> e.manager.showGUI(e.player, new GUIActiveAuctions(this.auctionPlayer)));
-        setActionForRange(0, 3, ClickType.LEFT, e -> {
-            // Re-select the item to ensure that it's available
+        setActionForRange(0, 3, ClickType.LEFT, e -> MarketLoop.getInstance().execute(() -> {
+            // Re-select the item on the market loop, it could have been bought or expired since the menu opened
             AuctionedItem located = AuctionHouse.getInstance().getAuctionItemManager().getItem(this.auctionItem.getId());
-            if (located == null) {
-                e.manager.showGUI(e.player, new GUIActiveAuctions(this.auctionPlayer));
-                return;
+            if (located != null && AuctionHouse.getInstance().getAuctionItemManager().isListed(located)) {
+                located.setExpired(true);
             }
 
-            located.setExpired(true);
             e.manager.showGUI(e.player, new GUIActiveAuctions(this.auctionPlayer));
-        });
+        }));
     }
 }
@@ -2,25 +2,21 @@ package ca.tweetzy.auctionhouse.guis.confirmation;
 
 import ca.tweetzy.auctionhouse.AuctionHouse;
 import ca.tweetzy.auctionhouse.api.AuctionAPI;
-import ca.tweetzy.auctionhouse.api.events.AuctionEndEvent;
+import ca.tweetzy.auctionhouse.api.MarketEconomy;
 import ca.tweetzy.auctionhouse.auction.AuctionPlayer;
-import ca.tweetzy.auctionhouse.auction.AuctionSaleType;
 import ca.tweetzy.auctionhouse.auction.AuctionedItem;
 import ca.tweetzy.auctionhouse.exception.ItemNotFoundException;
 import ca.tweetzy.auctionhouse.guis.GUIAuctionHouse;
 import ca.tweetzy.auctionhouse.guis.GUIContainerInspect;
 import ca.tweetzy.auctionhouse.helpers.ConfigurationItemHelper;
+import ca.tweetzy.auctionhouse.managers.MarketActions;
+import ca.tweetzy.auctionhouse.managers.MarketLoop;
 import ca.tweetzy.auctionhouse.managers.SoundManager;
 import ca.tweetzy.auctionhouse.settings.Settings;
 import ca.tweetzy.core.gui.Gui;
-import ca.tweetzy.core.gui.events.GuiClickEvent;
-import ca.tweetzy.core.hooks.EconomyManager;
-import ca.tweetzy.core.utils.PlayerUtils;
 import ca.tweetzy.core.utils.TextUtils;
 import ca.tweetzy.core.utils.items.TItemBuilder;
-import org.bukkit.Bukkit;
 import org.bukkit.block.ShulkerBox;
-import org.bukkit.entity.Player;
 import org.bukkit.event.inventory.ClickType;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.BlockStateMeta;
@@ -99,71 +95,33 @@ public class GUIConfirmPurchase extends Gui {
             e.gui.close();
         });
         setActionForRange(this.buyingSpecificQuantity ? 9 : 0, this.buyingSpecificQuantity ? 12 : 3, ClickType.LEFT, e -> {
-            // Re-select the item to ensure that it's available
-            try {
-                // if the item is in the garbage then just don't continue
-                if (AuctionHouse.getInstance().getAuctionItemManager().getGarbageBin().containsKey(this.auctionItem.getId()))
-                    return;
-                AuctionedItem located = AuctionHouse.getInstance().getAuctionItemManager().getItem(this.auctionItem.getId());
-
-                if (located == null || located.isExpired()) {
-                    AuctionHouse.getInstance().getLocale().getMessage("auction.itemnotavailable").sendPrefixedMessage(e.player);
-                    e.manager.showGUI(e.player, new GUIAuctionHouse(this.auctionPlayer));
-                    return;
-                }
-
-                double buyNowPrice = this.buyingSpecificQuantity ? this.purchaseQuantity * this.pricePerItem : located.getBasePrice();
-                double tax = Settings.TAX_ENABLED.getBoolean() ? (Settings.TAX_SALES_TAX_BUY_NOW_PERCENTAGE.getDouble() / 100) * buyNowPrice : 0D;
-
-                // Check economy
-                if (!EconomyManager.hasBalance(e.player, buyNowPrice + (Settings.TAX_CHARGE_SALES_TAX_TO_BUYER.getBoolean() ? tax : 0D))) {
-                    AuctionHouse.getInstance().getLocale().getMessage("general.notenoughmoney").sendPrefixedMessage(e.player);
-                    SoundManager.getInstance().playSound(e.player, Settings.SOUNDS_NOT_ENOUGH_MONEY.getString(), 1.0F, 1.0F);
-                    e.gui.close();
-                    return;
-                }
-
-                AuctionEndEvent auctionEndEvent = new AuctionEndEvent(Bukkit.getOfflinePlayer(this.auctionItem.getOwner()), e.player, this.auctionItem, AuctionSaleType.WITHOUT_BIDDING_SYSTEM, false);
-                Bukkit.getServer().getPluginManager().callEvent(auctionEndEvent);
-                if (auctionEndEvent.isCancelled()) return;
-
-                if (!Settings.ALLOW_PURCHASE_IF_INVENTORY_FULL.getBoolean() && e.player.getInventory().firstEmpty() == -1) {
-                    AuctionHouse.getInstance().getLocale().getMessage("general.noroom").sendPrefixedMessage(e.player);
-                    return;
-                }
-
-                if (this.buyingSpecificQuantity) {
-                    ItemStack item = auctionItem.getItem();
-
-                    if (item.getAmount() - this.purchaseQuantity >= 1) {
-                        item.setAmount(item.getAmount() - this.purchaseQuantity);
-                        located.setItem(item);
-                        located.setBasePrice(located.getBasePrice() - buyNowPrice);
-                        item.setAmount(this.purchaseQuantity);
-                        transferFunds(e.player, buyNowPrice);
-                    } else {
-                        transferFunds(e.player, buyNowPrice);
-                        AuctionHouse.getInstance().getAuctionItemManager().sendToGarbage(located);
+            MarketLoop.getInstance().execute(() -> {
+                // the purchase re-selects the item, it could have been bought, expired or had its price changed since the menu opened
+                try {
+                    final MarketActions.Result result = MarketActions.getInstance().buyNow(e.player, this.auctionItem, this.buyingSpecificQuantity ? this.purchaseQuantity : -1, this.pricePerItem, MarketEconomy.SERVER);
+                    switch (result) {
+                        case NOT_LISTED:
+                            AuctionHouse.getInstance().getLocale().getMessage("auction.itemnotavailable").sendPrefixedMessage(e.player);
+                            e.manager.showGUI(e.player, new GUIAuctionHouse(this.auctionPlayer));
+                            break;
+                        case NOT_ENOUGH_MONEY:
+                            AuctionHouse.getInstance().getLocale().getMessage("general.notenoughmoney").sendPrefixedMessage(e.player);
+                            SoundManager.getInstance().playSound(e.player, Settings.SOUNDS_NOT_ENOUGH_MONEY.getString(), 1.0F, 1.0F);
+                            e.gui.close();
+                            break;
+                        case NO_ROOM:
+                            AuctionHouse.getInstance().getLocale().getMessage("general.noroom").sendPrefixedMessage(e.player);
+                            break;
+                        case DONE:
+                            e.gui.close();
+                            break;
+                        default:
+                            break;
                     }
-
-                    PlayerUtils.giveItem(e.player, item);
-                    sendMessages(e, located, true, buyNowPrice);
-
-                } else {
-                    transferFunds(e.player, buyNowPrice);
-                    AuctionHouse.getInstance().getAuctionItemManager().sendToGarbage(located);
-                    PlayerUtils.giveItem(e.player, located.getItem());
-                    sendMessages(e, located, false, 0);
+                } catch (ItemNotFoundException exception) {
+                    AuctionHouse.getInstance().getLogger().info("Tried to purchase item that was bought, or does not exist");
                 }
-
-                AuctionHouse.getInstance().getTransactionManager().getPrePurchasePlayers(auctionItem.getId()).forEach(player -> {
-                    AuctionHouse.getInstance().getTransactionManager().removeAllRelatedPlayers(auctionItem.getId());
-                    player.closeInventory();
-                });
-                e.gui.close();
-            } catch (ItemNotFoundException exception) {
-                AuctionHouse.getInstance().getLogger().info("Tried to purchase item that was bought, or does not exist");
-            }
+            });
         });
 
         if (this.buyingSpecificQuantity) {
@@ -185,31 +143,6 @@ public class GUIConfirmPurchase extends Gui {
         }
     }
 
-    private void transferFunds(Player from, double amount) {
-        double tax = Settings.TAX_ENABLED.getBoolean() ? (Settings.TAX_SALES_TAX_BUY_NOW_PERCENTAGE.getDouble() / 100) * amount : 0D;
-
-        AuctionAPI.getInstance().withdrawBalance(from, Settings.TAX_CHARGE_SALES_TAX_TO_BUYER.getBoolean() ? amount + tax : amount);
-        AuctionAPI.getInstance().depositBalance(Bukkit.getOfflinePlayer(this.auctionItem.getOwner()), Settings.TAX_CHARGE_SALES_TAX_TO_BUYER.getBoolean() ? amount : amount - tax);
-    }
-
-    private void sendMessages(GuiClickEvent e, AuctionedItem located, boolean overwritePrice, double price) {
-        double totalPrice = overwritePrice ? price : located.getBasePrice();
-        double tax = Settings.TAX_ENABLED.getBoolean() ? (Settings.TAX_SALES_TAX_BUY_NOW_PERCENTAGE.getDouble() / 100) * totalPrice : 0D;
-
-        AuctionHouse.getInstance().getLocale().getMessage("pricing.moneyremove").processPlaceholder("player_balance", AuctionAPI.getInstance().formatNumber(EconomyManager.getBalance(e.player))).processPlaceholder("price", AuctionAPI.getInstance().formatNumber(Settings.TAX_CHARGE_SALES_TAX_TO_BUYER.getBoolean() ? totalPrice - tax : totalPrice)).sendPrefixedMessage(e.player);
-        AuctionHouse.getInstance().getLocale().getMessage("general.bought_item").processPlaceholder("amount", located.getItem().getAmount()).processPlaceholder("item", AuctionAPI.getInstance().getItemName(located.getItem())).processPlaceholder("price", AuctionAPI.getInstance().formatNumber(Settings.TAX_CHARGE_SALES_TAX_TO_BUYER.getBoolean() ? totalPrice - tax : totalPrice)).sendPrefixedMessage(e.player);
-
-        if (Bukkit.getOfflinePlayer(located.getOwner()).isOnline()) {
-            AuctionHouse.getInstance().getLocale().getMessage("auction.itemsold")
-                    .processPlaceholder("item", AuctionAPI.getInstance().getItemName(located.getItem()))
-                    .processPlaceholder("amount", located.getItem().getAmount())
-                    .processPlaceholder("price", AuctionAPI.getInstance().formatNumber(Settings.TAX_CHARGE_SALES_TAX_TO_BUYER.getBoolean() ? totalPrice : totalPrice - tax))
-                    .processPlaceholder("buyer_name", e.player.getName())
-                    .sendPrefixedMessage(Bukkit.getOfflinePlayer(located.getOwner()).getPlayer());
-            AuctionHouse.getInstance().getLocale().getMessage("pricing.moneyadd").processPlaceholder("player_balance", AuctionAPI.getInstance().formatNumber(EconomyManager.getBalance(Bukkit.getOfflinePlayer(located.getOwner())))).processPlaceholder("price", AuctionAPI.getInstance().formatNumber(Settings.TAX_CHARGE_SALES_TAX_TO_BUYER.getBoolean() ? totalPrice : totalPrice - tax)).sendPrefixedMessage(Bukkit.getOfflinePlayer(located.getOwner()).getPlayer());
-        }
-    }
-
     private void drawPurchaseInfo(int amt) {
         setItem(3, 4, getPurchaseInfoItem(amt));
     }
@@ -8,6 +8,7 @@ import ca.tweetzy.auctionhouse.helpers.ConfigurationItemHelper;
 import ca.tweetzy.auctionhouse.managers.SoundManager;
 import ca.tweetzy.auctionhouse.settings.Settings;
 import ca.tweetzy.auctionhouse.transaction.Transaction;
+import ca.tweetzy.auctionhouse.transaction.TransactionPager;
 import ca.tweetzy.core.gui.Gui;
 import ca.tweetzy.core.utils.TextUtils;
 import ca.tweetzy.core.utils.items.TItemBuilder;
@@ -15,7 +16,6 @@ import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * The current file has been created by Kiran Hart
@@ -25,20 +25,19 @@ import java.util.stream.Collectors;
  */
 public class GUITransactionList extends Gui {
 
-    final List<Transaction> transactions;
+    private static final int PAGE_SIZE = 45;
+
     final AuctionPlayer auctionPlayer;
     final Player player;
     final boolean showAll;
 
+    final TransactionPager pager = new TransactionPager(PAGE_SIZE);
+
 
     public GUITransactionList(Player player, boolean showAll) {
         this.player = player;
         this.auctionPlayer = AuctionHouse.getInstance().getAuctionPlayerManager().getPlayer(this.player.getUniqueId());
         this.showAll = showAll;
-        if (showAll)
-            this.transactions = new ArrayList<>(AuctionHouse.getInstance().getTransactionManager().getTransactions().values());
-        else
-            this.transactions = AuctionHouse.getInstance().getTransactionManager().getTransactions().values().stream().filter(transaction -> transaction.getSeller().equals(player.getUniqueId()) || transaction.getBuyer().equals(player.getUniqueId())).collect(Collectors.toList());
 
         setTitle(TextUtils.formatText(showAll ? Settings.GUI_TRANSACTIONS_TITLE_ALL.getString() : Settings.GUI_TRANSACTIONS_TITLE.getString()));
         setRows(6);
@@ -49,26 +48,29 @@ public class GUITransactionList extends Gui {
     private void draw() {
         reset();
 
-        pages = (int) Math.max(1, Math.ceil(this.transactions.size() / (double) 45));
-        setPrevPage(5, 3, new TItemBuilder(Objects.requireNonNull(Settings.GUI_BACK_BTN_ITEM.getMaterial().parseMaterial())).setName(Settings.GUI_BACK_BTN_NAME.getString()).setLore(Settings.GUI_BACK_BTN_LORE.getStringList()).toItemStack());
-        setButton(5, 4, new TItemBuilder(Objects.requireNonNull(Settings.GUI_REFRESH_BTN_ITEM.getMaterial().parseMaterial())).setName(Settings.GUI_REFRESH_BTN_NAME.getString()).setLore(Settings.GUI_REFRESH_BTN_LORE.getStringList()).toItemStack(), e -> e.manager.showGUI(e.player, new GUITransactionList(this.player, this.showAll)));
-        setNextPage(5, 5, new TItemBuilder(Objects.requireNonNull(Settings.GUI_NEXT_BTN_ITEM.getMaterial().parseMaterial())).setName(Settings.GUI_NEXT_BTN_NAME.getString()).setLore(Settings.GUI_NEXT_BTN_LORE.getStringList()).toItemStack());
-        setOnPage(e -> draw());
-
-        // Other Buttons
         setButton(5, 0, ConfigurationItemHelper.createConfigurationItem(Settings.GUI_BACK_BTN_ITEM.getString(), Settings.GUI_BACK_BTN_NAME.getString(), Settings.GUI_BACK_BTN_LORE.getStringList(), null), e -> e.manager.showGUI(e.player, new GUITransactionType()));
 
-        int slot = 0;
-        List<Transaction> data = this.transactions.stream().sorted(Comparator.comparingLong(Transaction::getTransactionTime).reversed()).skip((page - 1) * 45L).limit(45).collect(Collectors.toList());
+        final int shownPage = page;
+        AuctionHouse.getInstance().getTransactionManager().getPage(this.showAll ? null : this.player.getUniqueId(), this.pager.getAfter(shownPage), this.pager.getReadLimit(), (error, transactions) -> {
+            if (error != null || shownPage != this.page) return;
+
+            final List<Transaction> data = this.pager.accept(shownPage, transactions);
+            pages = this.pager.getPages();
+            setPrevPage(5, 3, new TItemBuilder(Objects.requireNonNull(Settings.GUI_BACK_BTN_ITEM.getMaterial().parseMaterial())).setName(Settings.GUI_BACK_BTN_NAME.getString()).setLore(Settings.GUI_BACK_BTN_LORE.getStringList()).toItemStack());
+            setButton(5, 4, new TItemBuilder(Objects.requireNonNull(Settings.GUI_REFRESH_BTN_ITEM.getMaterial().parseMaterial())).setName(Settings.GUI_REFRESH_BTN_NAME.getString()).setLore(Settings.GUI_REFRESH_BTN_LORE.getStringList()).toItemStack(), e -> e.manager.showGUI(e.player, new GUITransactionList(this.player, this.showAll)));
+            setNextPage(5, 5, new TItemBuilder(Objects.requireNonNull(Settings.GUI_NEXT_BTN_ITEM.getMaterial().parseMaterial())).setName(Settings.GUI_NEXT_BTN_NAME.getString()).setLore(Settings.GUI_NEXT_BTN_LORE.getStringList()).toItemStack());
+            setOnPage(e -> draw());
 
-        for (Transaction transaction : data) {
-            setButton(slot++, ConfigurationItemHelper.createConfigurationItem(Settings.GUI_TRANSACTIONS_ITEM_TRANSACTION_ITEM.getString(), Settings.GUI_TRANSACTIONS_ITEM_TRANSACTION_NAME.getString(), Settings.GUI_TRANSACTIONS_ITEM_TRANSACTION_LORE.getStringList(), new HashMap<String, Object>() {{
-                put("%transaction_id%", transaction.getId().toString());
-                put("%seller%", Bukkit.getOfflinePlayer(transaction.getSeller()).getName());
-                put("%buyer%", Bukkit.getOfflinePlayer(transaction.getBuyer()).getName());
-                put("%date%", AuctionAPI.getInstance().convertMillisToDate(transaction.getTransactionTime()));
-                put("%item_name%", AuctionAPI.getInstance().getItemName(transaction.getItem()));
-            }}), e -> e.manager.showGUI(e.player, new GUITransactionView(this.auctionPlayer, transaction, this.showAll)));
-        }
+            int slot = 0;
+            for (Transaction transaction : data) {
+                setButton(slot++, ConfigurationItemHelper.createConfigurationItem(Settings.GUI_TRANSACTIONS_ITEM_TRANSACTION_ITEM.getString(), Settings.GUI_TRANSACTIONS_ITEM_TRANSACTION_NAME.getString(), Settings.GUI_TRANSACTIONS_ITEM_TRANSACTION_LORE.getStringList(), new HashMap<String, Object>() {{
+                    put("%transaction_id%", transaction.getId().toString());
+                    put("%seller%", Bukkit.getOfflinePlayer(transaction.getSeller()).getName());
+                    put("%buyer%", Bukkit.getOfflinePlayer(transaction.getBuyer()).getName());
+                    put("%date%", AuctionAPI.getInstance().convertMillisToDate(transaction.getTransactionTime()));
+                    put("%item_name%", AuctionAPI.getInstance().getItemName(transaction.getItem()));
+                }}), e -> e.manager.showGUI(e.player, new GUITransactionView(this.auctionPlayer, transaction, this.showAll)));
+            }
+        });
     }
 }
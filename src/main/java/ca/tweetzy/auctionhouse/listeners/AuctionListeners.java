@@ -6,7 +6,8 @@ import ca.tweetzy.auctionhouse.api.events.AuctionBidEvent;
 import ca.tweetzy.auctionhouse.api.events.AuctionEndEvent;
 import ca.tweetzy.auctionhouse.api.events.AuctionStartEvent;
 import ca.tweetzy.auctionhouse.auction.AuctionSaleType;
-import ca.tweetzy.auctionhouse.auction.AuctionStat;
+import ca.tweetzy.auctionhouse.managers.AuctionItemManager;
+import ca.tweetzy.auctionhouse.managers.MetricsManager;
 import ca.tweetzy.auctionhouse.settings.Settings;
 import ca.tweetzy.auctionhouse.transaction.Transaction;
 import org.bukkit.Bukkit;
@@ -25,9 +26,11 @@ public class AuctionListeners implements Listener {
 
     @EventHandler
     public void onAuctionStart(AuctionStartEvent e) {
-        AuctionHouse.getInstance().getAuctionStatManager().insertOrUpdate(e.getSeller(), new AuctionStat<>(
-                1, 0, 0, 0D, 0D
-        ));
+        MetricsManager.getInstance().getListings().mark();
+        AuctionHouse.getInstance().getAuctionStatManager().insertOrUpdate(e.getSeller(), 1, 0, 0, 0D, 0D);
+        if (e.getAuctionItem().getItemMaterial() != null) {
+            AuctionHouse.getInstance().getMarketAnalyticsManager().recordListing(e.getAuctionItem().getItemMaterial());
+        }
 
         if (Settings.DISCORD_ENABLED.getBoolean() && Settings.DISCORD_ALERT_ON_AUCTION_START.getBoolean()) {
             Bukkit.getServer().getScheduler().runTaskLaterAsynchronously(AuctionHouse.getInstance(), () -> {
@@ -48,44 +51,39 @@ public class AuctionListeners implements Listener {
 
     @EventHandler
     public void onAuctionEnd(AuctionEndEvent e) {
-        AuctionHouse.getInstance().getAuctionStatManager().insertOrUpdate(e.getOriginalOwner(), new AuctionStat<>(
-                0,
-                1,
-                0,
-                e.getSaleType() == AuctionSaleType.USED_BIDDING_SYSTEM ? e.getAuctionItem().getCurrentPrice() : e.getAuctionItem().getBasePrice(),
-                0D
-        ));
+        MetricsManager.getInstance().getPurchases().mark();
+        // a load test's trades only exercise the database, the transactions it records are removed again afterwards
+        final AuctionItemManager auctionItemManager = AuctionHouse.getInstance().getAuctionItemManager();
+        final boolean synthetic = auctionItemManager.isSyntheticPlayer(e.getOriginalOwner().getUniqueId()) || auctionItemManager.isSyntheticPlayer(e.getBuyer().getUniqueId());
 
-        AuctionHouse.getInstance().getAuctionStatManager().insertOrUpdate(e.getBuyer(), new AuctionStat<>(
-                0,
-                0,
-                0,
-               0D,
-                e.getSaleType() == AuctionSaleType.USED_BIDDING_SYSTEM ? e.getAuctionItem().getCurrentPrice() : e.getAuctionItem().getBasePrice()
-        ));
+        final double price = e.getSaleType() == AuctionSaleType.USED_BIDDING_SYSTEM ? e.getAuctionItem().getCurrentPrice() : e.getAuctionItem().getBasePrice();
+        if (!synthetic) {
+            AuctionHouse.getInstance().getAuctionStatManager().insertOrUpdate(e.getOriginalOwner(), 0, 1, 0, price, 0D);
+            AuctionHouse.getInstance().getAuctionStatManager().insertOrUpdate(e.getBuyer(), 0, 0, 0, 0D, price);
+        }
+        if (!synthetic && e.getAuctionItem().getItemMaterial() != null) {
+            AuctionHouse.getInstance().getMarketAnalyticsManager().recordSale(e.getAuctionItem().getItemMaterial(), e.getAuctionItem().getItemAmount(), price);
+            AuctionHouse.getInstance().getPriceSuggestionManager().recordSale(e.getAuctionItem().getItemMaterial(), e.getAuctionItem().getItemAmount(), price);
+        }
 
         Bukkit.getServer().getScheduler().runTaskLaterAsynchronously(AuctionHouse.getInstance(), () -> {
             if (Settings.RECORD_TRANSACTIONS.getBoolean()) {
 
-                AuctionHouse.getInstance().getDataManager().insertTransactionAsync(new Transaction(
+                AuctionHouse.getInstance().getTransactionManager().recordTransaction(new Transaction(
                         UUID.randomUUID(),
                         e.getOriginalOwner().getUniqueId(),
                         e.getBuyer().getUniqueId(),
                         e.getAuctionItem().getOwnerName(),
-                        e.getBuyer().getName(),
+                        e.getBuyer().getName() != null ? e.getBuyer().getName() : "Unknown",
                         System.currentTimeMillis(),
                         e.getAuctionItem().getItem(),
                         e.getSaleType(),
                         e.getAuctionItem().getCurrentPrice()
-                ), (error, transaction) -> {
-                    if (error == null) {
-                        AuctionHouse.getInstance().getTransactionManager().addTransaction(transaction);
-                    }
-                });
+                ));
 
             }
 
-            if (Settings.DISCORD_ENABLED.getBoolean() && Settings.DISCORD_ALERT_ON_AUCTION_FINISH.getBoolean()) {
+            if (!synthetic && Settings.DISCORD_ENABLED.getBoolean() && Settings.DISCORD_ALERT_ON_AUCTION_FINISH.getBoolean()) {
                 Settings.DISCORD_WEBHOOKS.getStringList().forEach(hook -> AuctionAPI.getInstance().sendDiscordMessage(hook, e.getOriginalOwner(), e.getBuyer(), e.getAuctionItem(), e.getSaleType(), false, e.getSaleType() == AuctionSaleType.USED_BIDDING_SYSTEM));
             }
         }, 1L);
@@ -93,7 +91,9 @@ public class AuctionListeners implements Listener {
 
     @EventHandler
     public void onAuctionBid(AuctionBidEvent e) {
+        MetricsManager.getInstance().getBids().mark();
         if (!Settings.DISCORD_ENABLED.getBoolean() && Settings.DISCORD_ALERT_ON_AUCTION_BID.getBoolean()) return;
+        if (AuctionHouse.getInstance().getAuctionItemManager().isSynthetic(e.getAuctionedItem())) return;
         Bukkit.getServer().getScheduler().runTaskLaterAsynchronously(AuctionHouse.getInstance(), () -> Settings.DISCORD_WEBHOOKS.getStringList().forEach(hook -> {
             AuctionAPI.getInstance().sendDiscordBidMessage(hook, e.getAuctionedItem(), e.getNewBidAmount());
         }), 1L);
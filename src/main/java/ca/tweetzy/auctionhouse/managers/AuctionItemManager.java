@@ -1,17 +1,20 @@
 package ca.tweetzy.auctionhouse.managers;
 
 import ca.tweetzy.auctionhouse.AuctionHouse;
+import ca.tweetzy.auctionhouse.api.AuctionAPI;
+import ca.tweetzy.auctionhouse.api.MarketEconomy;
+import ca.tweetzy.auctionhouse.auction.AuctionItemCategory;
+import ca.tweetzy.auctionhouse.auction.AuctionSortType;
 import ca.tweetzy.auctionhouse.auction.AuctionedItem;
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
+import ca.tweetzy.auctionhouse.database.AuctionJournal;
+import ca.tweetzy.auctionhouse.settings.Settings;
 import lombok.Getter;
 import lombok.NonNull;
-import org.bukkit.Bukkit;
 
-import java.util.UUID;
+import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * The current file has been created by Kiran Hart
@@ -24,6 +27,8 @@ public class AuctionItemManager {
 
     /*
      * If not using usingDynamicLoad, items will be loaded into this map during initialization or when a new item is added
+     *
+     * Do not add / remove entries from this map directly, use the manager methods so the indexes stay in sync
      */
     @Getter
     private final ConcurrentHashMap<UUID, AuctionedItem> items = new ConcurrentHashMap<>();
@@ -37,30 +42,671 @@ public class AuctionItemManager {
     @Getter
     private final ConcurrentHashMap<UUID, AuctionedItem> garbageBin = new ConcurrentHashMap<>();
 
+    // garbage ids that have been handed to the database but not confirmed deleted yet
+    private final Set<UUID> pendingDeletion = ConcurrentHashMap.newKeySet();
+
+    // ids of items that changed since they were last written mapped to whether their stack changed too, repeated changes coalesce into one write
+    private final ConcurrentHashMap<UUID, Boolean> dirtyItems = new ConcurrentHashMap<>();
+    // held while a batch is written so a checkpoint can't truncate the journal under it
+    private final Object flushLock = new Object();
+
+    /*
+     * Every change is journaled before it is flushed, so a crash only loses what the journal
+     * hadn't synced yet. The journal can only be checkpointed once the items were loaded and the replay applied
+     */
+    @Getter
+    private final AuctionJournal journal = new AuctionJournal(AuctionHouse.getInstance());
+    private volatile boolean loaded = false;
+    // the sequence the journal was last truncated up to, only touched while holding the flush lock
+    private long checkpointedSequence = 0;
+
+    /*
+     * The items that currently hold a decoded item stack, least recently used first. Once this grows
+     * past the configured size the eldest item drops its stack and decodes it again when it's next needed
+     */
+    private final Map<UUID, AuctionedItem> decodedItems = new LinkedHashMap<UUID, AuctionedItem>(16, 0.75F, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, AuctionedItem> eldest) {
+            if (size() <= Settings.DECODED_ITEM_CACHE_SIZE.getInt()) return false;
+            eldest.getValue().releaseItem();
+            return true;
+        }
+    };
+
+    /*
+     * Secondary indexes, these only ever contain items that are in the items map and not in the garbage bin
+     */
+    private final ConcurrentHashMap<UUID, IndexKey> indexKeys = new ConcurrentHashMap<>();
+    private final Set<AuctionedItem> activeItems = ConcurrentHashMap.newKeySet();
+    private final Set<AuctionedItem> expiredListings = ConcurrentHashMap.newKeySet();
+    private final ConcurrentHashMap<UUID, Set<AuctionedItem>> itemsByOwner = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<AuctionItemCategory, Set<AuctionedItem>> itemsByCategory = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Set<AuctionedItem>> itemsByWorld = new ConcurrentHashMap<>();
+    // only holds the active items, expired ones can't be searched for
+    private final SearchIndex searchIndex = new SearchIndex();
+
+    /*
+     * Active items pre-sorted for every sort type, the entries hold the sort key the item had when
+     * it was indexed so that mutating a listing can never corrupt the ordering of the set
+     */
+    private final EnumMap<AuctionSortType, ConcurrentSkipListSet<SortEntry>> sortedViews = new EnumMap<>(AuctionSortType.class);
+
+    /*
+     * Moved after every change to the indexes, anything selected from them is current for as long as the epoch it was
+     * selected at hasn't moved. A listing also moves the epochs of the categories it left and joined, so views of one
+     * category survive changes to every other category
+     */
+    private final AtomicLong epoch = new AtomicLong();
+    private final EnumMap<AuctionItemCategory, AtomicLong> categoryEpochs = new EnumMap<>(AuctionItemCategory.class);
+
+    /*
+     * Players made up by a load test mapped to the economy that pays for them. They are kept until the plugin stops
+     * since listings and trades of a test can still arrive after it finished
+     */
+    private final ConcurrentHashMap<UUID, MarketEconomy> syntheticPlayers = new ConcurrentHashMap<>();
+
+    public AuctionItemManager() {
+        for (AuctionSortType sortType : AuctionSortType.values()) {
+            this.sortedViews.put(sortType, new ConcurrentSkipListSet<>(SortEntry.comparator(sortType)));
+        }
+        for (AuctionItemCategory category : AuctionItemCategory.values()) {
+            this.categoryEpochs.put(category, new AtomicLong());
+        }
+    }
+
+    // items without a listed world are visible in every world
+    private static final String NO_WORLD = "";
+
     public void start() {
-        // Attempt to convert from old serialization method
-        AuctionHouse.getInstance().getDataManager().getItems((error, results) -> {
+        // changes that never made it to the database before the last shutdown
+        final Map<UUID, AuctionJournal.Entry> journaled = this.journal.replay();
+        this.journal.open();
+
+        // listings are usable as soon as they are published, but commands stay disabled until everything is in.
+        // loaded items join the market on the market loop, and since commands run in order the journal is only
+        // replayed once every item submitted before it was added
+        AuctionHouse.getInstance().setLoading(true);
+        AuctionHouse.getInstance().getDataManager().loadItems(item -> MarketLoop.getInstance().submit(() -> addAuctionItem(item)), error -> MarketLoop.getInstance().submit(() -> {
             if (error == null) {
-                for (AuctionedItem item : results) {
-                    addAuctionItem(item);
-                }
+                journaled.values().forEach(entry -> {
+                    AuctionedItem item = this.items.get(entry.getId());
+                    // it could have been bought or removed since it was loaded
+                    if (item == null || this.garbageBin.containsKey(item.getId())) return;
+                    if (entry.isDeleted()) {
+                        sendToGarbage(item);
+                    } else {
+                        entry.applyTo(item);
+                    }
+                });
+                this.loaded = true;
+            } else {
+                AuctionHouse.getInstance().getLogger().severe("Could not load the auction items, the journal will be kept until they are");
+                AuctionAPI.getInstance().logException(AuctionHouse.getInstance(), error);
             }
-        });
+            AuctionHouse.getInstance().setLoading(false);
+        }));
     }
 
     public void end() {
-        AuctionHouse.getInstance().getDataManager().updateItems(this.items.values(), null);
+        deleteGarbage(false);
+        flushDirtyItems(Integer.MAX_VALUE);
+        checkpoint();
+        this.journal.close();
     }
 
     public void addAuctionItem(@NonNull AuctionedItem auctionedItem) {
         this.items.put(auctionedItem.getId(), auctionedItem);
+        reindex(auctionedItem);
     }
 
     public void sendToGarbage(@NonNull AuctionedItem auctionedItem) {
         this.garbageBin.put(auctionedItem.getId(), auctionedItem);
+        this.dirtyItems.remove(auctionedItem.getId());
+        this.journal.appendDelete(auctionedItem.getId());
+        synchronized (auctionedItem) {
+            deindex(auctionedItem);
+        }
+    }
+
+    /**
+     * Drains the garbage bin into a single batched delete, the items are only
+     * removed from memory once the database has confirmed the delete. Ids that
+     * are already being deleted are skipped, and failed deletes are retried on the next call
+     *
+     * @param async whether the delete should be run asynchronously
+     */
+    public void deleteGarbage(boolean async) {
+        final List<UUID> drained = new ArrayList<>();
+        for (UUID id : this.garbageBin.keySet()) {
+            if (this.pendingDeletion.add(id)) drained.add(id);
+        }
+
+        if (drained.isEmpty()) return;
+
+        AuctionHouse.getInstance().getDataManager().deleteItems(drained, async, error -> {
+            if (error == null) {
+                drained.forEach(this::removeItem);
+            } else {
+                AuctionHouse.getInstance().getLogger().warning("Could not delete " + drained.size() + " auction item(s), retrying next tick");
+            }
+            this.pendingDeletion.removeAll(drained);
+        });
+    }
+
+    /**
+     * Completely removes an item from memory, this does not touch the database
+     *
+     * @param id is the id of the auction item being removed
+     */
+    public void removeItem(@NonNull UUID id) {
+        AuctionedItem removed = this.items.remove(id);
+        this.garbageBin.remove(id);
+        synchronized (this.decodedItems) {
+            this.decodedItems.remove(id);
+        }
+        if (removed == null) return;
+        synchronized (removed) {
+            deindex(removed);
+        }
+    }
+
+    /**
+     * Flags an item as changed so the next flush writes it, items that
+     * aren't tracked or are waiting to be deleted are ignored
+     *
+     * @param auctionedItem is the item that was changed
+     * @param itemChanged   whether the item stack itself changed
+     */
+    public void markDirty(@NonNull AuctionedItem auctionedItem, boolean itemChanged) {
+        if (this.items.get(auctionedItem.getId()) != auctionedItem || this.garbageBin.containsKey(auctionedItem.getId())) return;
+        // flagged before journaling, a checkpoint that can't see the flag can't see the record either
+        this.dirtyItems.merge(auctionedItem.getId(), itemChanged, Boolean::logicalOr);
+        this.journal.appendUpdate(auctionedItem, itemChanged);
+    }
+
+    /**
+     * Flags an item restored from the journal so the next flush writes it, without journaling it again
+     *
+     * @param auctionedItem is the item that was restored
+     * @param itemChanged   whether the item stack was restored too
+     */
+    public void markRestored(@NonNull AuctionedItem auctionedItem, boolean itemChanged) {
+        if (this.items.get(auctionedItem.getId()) != auctionedItem || this.garbageBin.containsKey(auctionedItem.getId())) return;
+        this.dirtyItems.merge(auctionedItem.getId(), itemChanged, Boolean::logicalOr);
+    }
+
+    public int getDirtyCount() {
+        return this.dirtyItems.size();
+    }
+
+    /**
+     * Writes up to the provided amount of changed items in a single batch, this runs on the calling thread.
+     * Ids are drained before writing so changes made during the write are picked up by the next flush,
+     * and a failed batch is flagged again to be retried. A successful batch checkpoints the journal up to the
+     * last record queued before the ids were drained
+     *
+     * @param max is the most items that will be written
+     */
+    public void flushDirtyItems(int max) {
+        synchronized (this.flushLock) {
+            // read before draining, every record up to here describes a change that is in this batch or still flagged
+            final long sequence = this.journal.getLastSequence();
+            final Map<UUID, Boolean> drained = new HashMap<>();
+            final List<AuctionedItem> batch = new ArrayList<>();
+            final Set<UUID> stackChanged = new HashSet<>();
+
+            Iterator<UUID> iterator = this.dirtyItems.keySet().iterator();
+            while (iterator.hasNext() && drained.size() < max) {
+                UUID id = iterator.next();
+                // removed by key so a change flagged while draining is either in this batch or stays flagged
+                Boolean itemChanged = this.dirtyItems.remove(id);
+                if (itemChanged == null) continue;
+                drained.put(id, itemChanged);
+
+                AuctionedItem item = this.items.get(id);
+                if (item == null || this.garbageBin.containsKey(id)) continue;
+                batch.add(item);
+                if (itemChanged) stackChanged.add(id);
+            }
+
+            if (batch.isEmpty()) return;
+
+            AuctionHouse.getInstance().getDataManager().updateItems(batch, stackChanged, error -> {
+                if (error != null) {
+                    AuctionHouse.getInstance().getLogger().warning("Could not save " + batch.size() + " auction item(s), retrying on the next flush");
+                    drained.forEach((id, itemChanged) -> this.dirtyItems.merge(id, itemChanged, Boolean::logicalOr));
+                } else {
+                    checkpoint(sequence);
+                }
+            });
+        }
+    }
+
+    /**
+     * Truncates the journal if everything it holds has reached the database,
+     * this shares the flush lock so no batch can be in flight while checking
+     */
+    public void checkpoint() {
+        if (!this.loaded) return;
+        synchronized (this.flushLock) {
+            final long sequence = this.journal.getLastSequence();
+            if (this.dirtyItems.isEmpty() && this.garbageBin.isEmpty()) {
+                this.journal.checkpoint(sequence);
+                this.checkpointedSequence = sequence;
+            }
+        }
+    }
+
+    /**
+     * Truncates the journal up to the provided sequence while items are still waiting to be written. Whatever hasn't
+     * reached the database yet is journaled again past the checkpoint, which is only worth it if that drops more records than it adds.
+     * The flush lock must be held
+     *
+     * @param sequence is the last sequence whose changes were written or are still flagged
+     */
+    private void checkpoint(long sequence) {
+        if (!this.loaded) return;
+        if (this.dirtyItems.size() + this.garbageBin.size() >= sequence - this.checkpointedSequence) return;
+
+        this.journal.checkpoint(sequence);
+        this.checkpointedSequence = sequence;
+        this.dirtyItems.forEach((id, itemChanged) -> {
+            AuctionedItem item = this.items.get(id);
+            if (item != null) this.journal.appendUpdate(item, itemChanged);
+        });
+        this.garbageBin.keySet().forEach(this.journal::appendDelete);
+    }
+
+    /**
+     * Marks the decoded stack of an item as recently used, evicting the least recently used stack if the cache is full
+     *
+     * @param auctionedItem is the item whose stack was used
+     */
+    public void touchDecodedItem(@NonNull AuctionedItem auctionedItem) {
+        synchronized (this.decodedItems) {
+            this.decodedItems.put(auctionedItem.getId(), auctionedItem);
+        }
+    }
+
+    public void clear() {
+        synchronized (this.decodedItems) {
+            this.decodedItems.clear();
+        }
+        this.items.clear();
+        this.garbageBin.clear();
+        this.dirtyItems.clear();
+        this.indexKeys.clear();
+        this.activeItems.clear();
+        this.expiredListings.clear();
+        this.itemsByOwner.clear();
+        this.itemsByCategory.clear();
+        this.itemsByWorld.clear();
+        this.sortedViews.values().forEach(Set::clear);
+        this.searchIndex.clear();
+        this.categoryEpochs.values().forEach(AtomicLong::incrementAndGet);
+        this.epoch.incrementAndGet();
+    }
+
+    /**
+     * @return the epoch of the whole market, it moves whenever any listing is added, removed or changes an indexed property
+     */
+    public long getEpoch() {
+        return this.epoch.get();
+    }
+
+    /**
+     * @param category is the category being looked at
+     * @return the epoch of a category, it moves whenever a listing of that category is added, removed or changes an indexed property
+     */
+    public long getEpoch(@NonNull AuctionItemCategory category) {
+        return this.categoryEpochs.get(category).get();
+    }
+
+    // called once the indexes were changed, so a reader that saw the old epoch never keeps what it selected
+    private void moveEpoch(AuctionItemCategory category) {
+        if (category != null) this.categoryEpochs.get(category).incrementAndGet();
+        this.epoch.incrementAndGet();
     }
 
     public AuctionedItem getItem(@NonNull UUID id) {
         return this.items.getOrDefault(id, null);
     }
+
+    /**
+     * Marks a player as made up, their listings are hidden and their trades are kept out of the
+     * statistics, market analytics and discord alerts
+     *
+     * @param player  is the made up player
+     * @param economy is where their money comes from and goes to
+     */
+    public void addSyntheticPlayer(@NonNull UUID player, @NonNull MarketEconomy economy) {
+        this.syntheticPlayers.put(player, economy);
+    }
+
+    public boolean isSyntheticPlayer(@NonNull UUID player) {
+        return this.syntheticPlayers.containsKey(player);
+    }
+
+    public boolean isSynthetic(@NonNull AuctionedItem auctionedItem) {
+        return auctionedItem.getOwner() != null && isSyntheticPlayer(auctionedItem.getOwner());
+    }
+
+    /**
+     * @param player is who is paying or being paid
+     * @return the economy their money is held in, the server's unless they are a synthetic player
+     */
+    public MarketEconomy getEconomy(@NonNull UUID player) {
+        return this.syntheticPlayers.getOrDefault(player, MarketEconomy.SERVER);
+    }
+
+    /**
+     * Whether the item can still be bought or bid on, checked by every market change before it touches the item
+     * since the item could have been sold, removed or expired after the player saw it
+     *
+     * @param auctionedItem is the item the player saw
+     */
+    public boolean isListed(@NonNull AuctionedItem auctionedItem) {
+        return this.items.get(auctionedItem.getId()) == auctionedItem && !this.garbageBin.containsKey(auctionedItem.getId()) && !auctionedItem.isExpired();
+    }
+
+    /**
+     * Called whenever an indexed property of an auction item changes (owner, expired, category, world, searchable text or any sort key).
+     * Only the indexes whose part of the key changed are touched, so a bid only moves the item in the sort views of its price
+     *
+     * @param auctionedItem is the item that was changed
+     */
+    public void reindex(@NonNull AuctionedItem auctionedItem) {
+        synchronized (auctionedItem) {
+            if (this.items.get(auctionedItem.getId()) != auctionedItem || this.garbageBin.containsKey(auctionedItem.getId())) {
+                return;
+            }
+
+            IndexKey oldKey = this.indexKeys.get(auctionedItem.getId());
+            IndexKey newKey = new IndexKey(auctionedItem, oldKey);
+            if (newKey.equals(oldKey)) return;
+
+            if (oldKey == null) {
+                index(auctionedItem, newKey);
+                return;
+            }
+
+            this.indexKeys.put(auctionedItem.getId(), newKey);
+
+            if (oldKey.expired != newKey.expired) {
+                (oldKey.expired ? this.expiredListings : this.activeItems).remove(auctionedItem);
+                (newKey.expired ? this.expiredListings : this.activeItems).add(auctionedItem);
+            }
+            if (!Objects.equals(oldKey.owner, newKey.owner)) {
+                removeFromBucket(this.itemsByOwner, oldKey.owner, auctionedItem);
+                addToBucket(this.itemsByOwner, newKey.owner, auctionedItem);
+            }
+            if (oldKey.category != newKey.category) {
+                if (oldKey.category != null) removeFromBucket(this.itemsByCategory, oldKey.category, auctionedItem);
+                if (newKey.category != null) addToBucket(this.itemsByCategory, newKey.category, auctionedItem);
+            }
+            if (!oldKey.world.equals(newKey.world)) {
+                removeFromBucket(this.itemsByWorld, oldKey.world, auctionedItem);
+                addToBucket(this.itemsByWorld, newKey.world, auctionedItem);
+            }
+
+            // expired items are neither sorted nor searchable, so expiring or relisting moves every entry
+            for (AuctionSortType sortType : AuctionSortType.values()) {
+                final int ordinal = sortType.ordinal();
+                if (oldKey.expired == newKey.expired && Double.compare(oldKey.sortKeys[ordinal], newKey.sortKeys[ordinal]) == 0) continue;
+                if (!oldKey.expired) this.sortedViews.get(sortType).remove(new SortEntry(oldKey.sortKeys[ordinal], auctionedItem));
+                if (!newKey.expired) this.sortedViews.get(sortType).add(new SortEntry(newKey.sortKeys[ordinal], auctionedItem));
+            }
+            if (oldKey.expired != newKey.expired || !oldKey.document.equals(newKey.document)) {
+                if (!oldKey.expired) this.searchIndex.remove(auctionedItem, oldKey.document);
+                if (!newKey.expired) this.searchIndex.add(auctionedItem, newKey.document);
+            }
+
+            if (oldKey.category != newKey.category) moveEpoch(oldKey.category);
+            moveEpoch(newKey.category);
+        }
+    }
+
+    /**
+     * Get all the items owned by a player, excluding anything in the garbage bin
+     *
+     * @param owner   is the owner of the items
+     * @param expired whether to get the expired or active items
+     * @return a list of the matching auction items
+     */
+    public List<AuctionedItem> getItems(@NonNull UUID owner, boolean expired) {
+        Set<AuctionedItem> owned = this.itemsByOwner.get(owner);
+        if (owned == null) return new ArrayList<>();
+
+        List<AuctionedItem> found = new ArrayList<>();
+        for (AuctionedItem item : owned) {
+            if (item.isExpired() == expired) found.add(item);
+        }
+        return found;
+    }
+
+    public Collection<AuctionedItem> getItemsByState(boolean expired) {
+        return Collections.unmodifiableSet(expired ? this.expiredListings : this.activeItems);
+    }
+
+    public Collection<AuctionedItem> getItemsByCategory(@NonNull AuctionItemCategory category) {
+        return Collections.unmodifiableSet(this.itemsByCategory.getOrDefault(category, Collections.emptySet()));
+    }
+
+    /**
+     * Get every item that is visible in the world, this includes items that
+     * were listed without a world attached to them
+     *
+     * @param world is the name of the world
+     * @return all the items visible in the world
+     */
+    public List<AuctionedItem> getItemsByWorld(@NonNull String world) {
+        List<AuctionedItem> found = new ArrayList<>(this.itemsByWorld.getOrDefault(world, Collections.emptySet()));
+        if (!world.equals(NO_WORLD)) {
+            found.addAll(this.itemsByWorld.getOrDefault(NO_WORLD, Collections.emptySet()));
+        }
+        return found;
+    }
+
+    /**
+     * Search the active items by name, material, category, owner name, lore and enchantments.
+     * The phrase is matched literally as a case insensitive substring
+     *
+     * @param phrase is what is being searched for
+     * @return the matching active items
+     */
+    public Set<AuctionedItem> search(@NonNull String phrase) {
+        return this.searchIndex.search(phrase);
+    }
+
+    /**
+     * Sorts a few items in the same order {@link #getSortedItems(AuctionSortType)} walks the market in: by the sort key each
+     * item had when it was last indexed, then by id. The keys can't change while sorting, unlike the prices of the items
+     *
+     * @param selection is the items to sort, the ones that aren't indexed anymore are left out
+     * @param sortType  is the order the items should be returned in
+     * @return a new list of the items
+     */
+    public List<AuctionedItem> sortItems(@NonNull Collection<AuctionedItem> selection, @NonNull AuctionSortType sortType) {
+        final List<SortEntry> entries = new ArrayList<>(selection.size());
+        for (AuctionedItem auctionedItem : selection) {
+            final IndexKey indexKey = this.indexKeys.get(auctionedItem.getId());
+            if (indexKey == null) continue;
+            entries.add(new SortEntry(indexKey.sortKeys[sortType.ordinal()], auctionedItem));
+        }
+        entries.sort(SortEntry.comparator(sortType));
+
+        final List<AuctionedItem> sorted = new ArrayList<>(entries.size());
+        for (SortEntry entry : entries) sorted.add(entry.auctionedItem);
+        return sorted;
+    }
+
+    /**
+     * Get every active item in the order of the sort type, walking this is
+     * cheap so pages can be read without sorting the entire market
+     *
+     * @param sortType is the order the items should be returned in
+     * @return a live, weakly consistent view of the sorted active items
+     */
+    public Iterable<AuctionedItem> getSortedItems(@NonNull AuctionSortType sortType) {
+        final ConcurrentSkipListSet<SortEntry> view = this.sortedViews.get(sortType);
+        return () -> new Iterator<AuctionedItem>() {
+            private final Iterator<SortEntry> entries = view.iterator();
+
+            @Override
+            public boolean hasNext() {
+                return this.entries.hasNext();
+            }
+
+            @Override
+            public AuctionedItem next() {
+                return this.entries.next().auctionedItem;
+            }
+        };
+    }
+
+    /**
+     * Get the active items whose deadline falls before the provided time, earliest first.
+     * Since the deadlines live in the sorted views, extending an auction (bids, relisting)
+     * automatically reschedules it.
+     *
+     * @param deadline is the time in milliseconds
+     * @return the active items that expire before the deadline
+     */
+    public List<AuctionedItem> getItemsExpiringBefore(long deadline) {
+        List<AuctionedItem> due = new ArrayList<>();
+        // the recent view is ordered by expiresAt, newest first, so walk it backwards
+        for (SortEntry entry : this.sortedViews.get(AuctionSortType.RECENT).descendingSet()) {
+            if (entry.key >= deadline) break;
+            due.add(entry.auctionedItem);
+        }
+        return due;
+    }
+
+    private void index(AuctionedItem auctionedItem, IndexKey key) {
+        this.indexKeys.put(auctionedItem.getId(), key);
+
+        (key.expired ? this.expiredListings : this.activeItems).add(auctionedItem);
+        addToBucket(this.itemsByOwner, key.owner, auctionedItem);
+        if (key.category != null) {
+            addToBucket(this.itemsByCategory, key.category, auctionedItem);
+        }
+        addToBucket(this.itemsByWorld, key.world, auctionedItem);
+
+        if (!key.expired) {
+            for (AuctionSortType sortType : AuctionSortType.values()) {
+                this.sortedViews.get(sortType).add(new SortEntry(key.sortKeys[sortType.ordinal()], auctionedItem));
+            }
+            this.searchIndex.add(auctionedItem, key.document);
+        }
+        moveEpoch(key.category);
+    }
+
+    private void deindex(AuctionedItem auctionedItem) {
+        IndexKey oldKey = this.indexKeys.remove(auctionedItem.getId());
+        if (oldKey == null) return;
+
+        (oldKey.expired ? this.expiredListings : this.activeItems).remove(auctionedItem);
+        removeFromBucket(this.itemsByOwner, oldKey.owner, auctionedItem);
+        if (oldKey.category != null) {
+            removeFromBucket(this.itemsByCategory, oldKey.category, auctionedItem);
+        }
+        removeFromBucket(this.itemsByWorld, oldKey.world, auctionedItem);
+
+        if (!oldKey.expired) {
+            for (AuctionSortType sortType : AuctionSortType.values()) {
+                this.sortedViews.get(sortType).remove(new SortEntry(oldKey.sortKeys[sortType.ordinal()], auctionedItem));
+            }
+            this.searchIndex.remove(auctionedItem, oldKey.document);
+        }
+        moveEpoch(oldKey.category);
+    }
+
+    private <K> void addToBucket(ConcurrentHashMap<K, Set<AuctionedItem>> index, K key, AuctionedItem auctionedItem) {
+        index.compute(key, (k, bucket) -> {
+            if (bucket == null) bucket = ConcurrentHashMap.newKeySet();
+            bucket.add(auctionedItem);
+            return bucket;
+        });
+    }
+
+    private <K> void removeFromBucket(ConcurrentHashMap<K, Set<AuctionedItem>> index, K key, AuctionedItem auctionedItem) {
+        index.computeIfPresent(key, (k, bucket) -> {
+            bucket.remove(auctionedItem);
+            return bucket.isEmpty() ? null : bucket;
+        });
+    }
+
+    /**
+     * A snapshot of the indexed properties of an item at the time it was indexed,
+     * used to locate the old buckets when those properties change
+     */
+    private static final class IndexKey {
+
+        private final UUID owner;
+        private final boolean expired;
+        private final boolean bidItem;
+        private final AuctionItemCategory category;
+        private final String world;
+        private final double[] sortKeys;
+
+        // the fields the search document is built from, the document is only rebuilt when one of them changed
+        private final String ownerName;
+        private final String itemName;
+        private final String itemMaterial;
+        private final String itemLore;
+        private final String itemEnchants;
+        private final String document;
+
+        private IndexKey(AuctionedItem auctionedItem, IndexKey previous) {
+            this.owner = auctionedItem.getOwner();
+            this.expired = auctionedItem.isExpired();
+            this.bidItem = auctionedItem.isBidItem();
+            this.category = auctionedItem.getCategory();
+            this.world = auctionedItem.getListedWorld() == null ? NO_WORLD : auctionedItem.getListedWorld();
+            this.sortKeys = new double[AuctionSortType.values().length];
+            for (AuctionSortType sortType : AuctionSortType.values()) {
+                this.sortKeys[sortType.ordinal()] = sortType.getSortKey(auctionedItem);
+            }
+            this.ownerName = auctionedItem.getOwnerName();
+            this.itemName = auctionedItem.getItemName();
+            this.itemMaterial = auctionedItem.getItemMaterial();
+            this.itemLore = auctionedItem.getItemLore();
+            this.itemEnchants = auctionedItem.getItemEnchants();
+            this.document = previous != null && sameText(previous) ? previous.document : SearchIndex.document(auctionedItem);
+        }
+
+        private boolean sameText(IndexKey other) {
+            return this.category == other.category && Objects.equals(this.ownerName, other.ownerName) && Objects.equals(this.itemName, other.itemName)
+                    && Objects.equals(this.itemMaterial, other.itemMaterial) && Objects.equals(this.itemLore, other.itemLore) && Objects.equals(this.itemEnchants, other.itemEnchants);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof IndexKey)) return false;
+            IndexKey other = (IndexKey) o;
+            return this.expired == other.expired && this.bidItem == other.bidItem && Objects.equals(this.owner, other.owner) && this.category == other.category && this.world.equals(other.world) && Arrays.equals(this.sortKeys, other.sortKeys) && this.document.equals(other.document);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.owner, this.expired, this.bidItem, this.category, this.world, Arrays.hashCode(this.sortKeys), this.document);
+        }
+    }
+
+    private static final class SortEntry {
+
+        private final double key;
+        private final AuctionedItem auctionedItem;
+
+        private SortEntry(double key, AuctionedItem auctionedItem) {
+            this.key = key;
+            this.auctionedItem = auctionedItem;
+        }
+
+        private static Comparator<SortEntry> comparator(AuctionSortType sortType) {
+            Comparator<SortEntry> byKey = Comparator.comparingDouble(entry -> entry.key);
+            return (sortType.isDescending() ? byKey.reversed() : byKey).thenComparing(entry -> entry.auctionedItem.getId());
+        }
+    }
 }
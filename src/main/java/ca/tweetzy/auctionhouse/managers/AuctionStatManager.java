@@ -2,18 +2,25 @@ package ca.tweetzy.auctionhouse.managers;
 
 import ca.tweetzy.auctionhouse.AuctionHouse;
 import ca.tweetzy.auctionhouse.auction.AuctionStat;
-import lombok.Getter;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.entity.Player;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * The current file has been created by Kiran Hart
  * Date Created: September 01 2021
  * Time Created: 2:58 p.m.
  * Usage of any code found within this class is prohibited unless given explicit permission otherwise
+ *
+ * Player statistics are kept in adders so updates from the tick and the main thread never lose an increment,
+ * the global totals are kept alongside them and only players that changed are written on save
  */
 public final class AuctionStatManager {
 
@@ -24,57 +31,85 @@ public final class AuctionStatManager {
 		SPENT
 	}
 
-	@Getter
-	private final ConcurrentHashMap<UUID, AuctionStat<Integer, Integer, Integer, Double, Double>> stats = new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<UUID, Counters> stats = new ConcurrentHashMap<>();
+	private final Set<UUID> dirty = ConcurrentHashMap.newKeySet();
+
+	private final Counters global = new Counters();
 
 	public void loadStats() {
 		AuctionHouse.getInstance().getDataManager().getStats((error, stats) -> {
 			if (error == null) {
-				this.stats.putAll(stats);
+				// anything recorded before the stats finished loading is added on top, and stays dirty so it gets written
+				stats.forEach((id, stat) -> add(id, stat.getCreated(), stat.getSold(), stat.getExpired(), stat.getEarned(), stat.getSpent()));
 			}
 		});
 	}
 
 	public AuctionStat<Integer, Integer, Integer, Double, Double> getPlayerStats(final Player player) {
-		return this.stats.getOrDefault(player.getUniqueId(), new AuctionStat<>(0, 0, 0, 0D, 0D));
+		final Counters counters = this.stats.get(player.getUniqueId());
+		return counters == null ? new AuctionStat<>(0, 0, 0, 0D, 0D) : counters.snapshot();
 	}
 
 	public double getGlobalStat(final GlobalAuctionStatType globalAuctionStatType) {
-		double total = 0D;
 		switch (globalAuctionStatType) {
 			case CREATED:
-				total += stats.values().stream().mapToInt(AuctionStat::getCreated).sum();
-				break;
+				return this.global.created.sum();
 			case EXPIRED:
-				total += stats.values().stream().mapToInt(AuctionStat::getExpired).sum();
-				break;
+				return this.global.expired.sum();
 			case SOLD:
-				total += stats.values().stream().mapToInt(AuctionStat::getSold).sum();
-				break;
+				return this.global.sold.sum();
 			case SPENT:
-				total += stats.values().stream().mapToDouble(AuctionStat::getSpent).sum();
-				break;
+				return this.global.spent.sum();
 		}
-		return total;
+		return 0D;
 	}
 
+	/**
+	 * Writes every player whose stats changed since the last save, a failed write is retried on the next save
+	 */
 	public void saveStats() {
-		AuctionHouse.getInstance().getDataManager().updateStats(this.stats, null);
+		final Map<UUID, AuctionStat<Integer, Integer, Integer, Double, Double>> changed = new HashMap<>();
+		for (UUID id : this.dirty) {
+			// removed before the snapshot is taken, so a change made in between marks the player again
+			this.dirty.remove(id);
+			final Counters counters = this.stats.get(id);
+			if (counters != null) changed.put(id, counters.snapshot());
+		}
+
+		if (changed.isEmpty()) return;
+		AuctionHouse.getInstance().getDataManager().updateStats(changed, error -> {
+			if (error != null) this.dirty.addAll(changed.keySet());
+		});
 	}
 
-	public void insertOrUpdate(final OfflinePlayer player, final AuctionStat<Integer, Integer, Integer, Double, Double> stats) {
-		if (!this.stats.containsKey(player.getUniqueId())) {
-			this.stats.put(player.getUniqueId(), stats);
-			return;
-		}
+	public void insertOrUpdate(final OfflinePlayer player, final int created, final int sold, final int expired, final double earned, final double spent) {
+		add(player.getUniqueId(), created, sold, expired, earned, spent);
+		this.dirty.add(player.getUniqueId());
+	}
 
-		final AuctionStat<Integer, Integer, Integer, Double, Double> foundStats = this.stats.get(player.getUniqueId());
-		foundStats.setCreated(foundStats.getCreated() + stats.getCreated());
-		foundStats.setSold(foundStats.getSold() + stats.getSold());
-		foundStats.setExpired(foundStats.getExpired() + stats.getExpired());
-		foundStats.setEarned(foundStats.getEarned() + stats.getEarned());
-		foundStats.setSpent(foundStats.getSpent() + stats.getSpent());
+	private void add(final UUID id, final int created, final int sold, final int expired, final double earned, final double spent) {
+		this.stats.computeIfAbsent(id, key -> new Counters()).add(created, sold, expired, earned, spent);
+		this.global.add(created, sold, expired, earned, spent);
+	}
+
+	private static final class Counters {
+
+		private final LongAdder created = new LongAdder();
+		private final LongAdder sold = new LongAdder();
+		private final LongAdder expired = new LongAdder();
+		private final DoubleAdder earned = new DoubleAdder();
+		private final DoubleAdder spent = new DoubleAdder();
 
-		this.stats.put(player.getUniqueId(), foundStats);
+		private void add(final int created, final int sold, final int expired, final double earned, final double spent) {
+			if (created != 0) this.created.add(created);
+			if (sold != 0) this.sold.add(sold);
+			if (expired != 0) this.expired.add(expired);
+			if (earned != 0) this.earned.add(earned);
+			if (spent != 0) this.spent.add(spent);
+		}
+
+		private AuctionStat<Integer, Integer, Integer, Double, Double> snapshot() {
+			return new AuctionStat<>(this.created.intValue(), this.sold.intValue(), this.expired.intValue(), this.earned.sum(), this.spent.sum());
+		}
 	}
 }
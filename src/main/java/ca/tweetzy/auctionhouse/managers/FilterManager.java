@@ -5,6 +5,7 @@ import ca.tweetzy.auctionhouse.api.AuctionAPI;
 import ca.tweetzy.auctionhouse.auction.AuctionFilterItem;
 import ca.tweetzy.auctionhouse.auction.AuctionItemCategory;
 import ca.tweetzy.core.utils.TextUtils;
+import lombok.Getter;
 import org.bukkit.Bukkit;
 import org.bukkit.inventory.ItemStack;
 
@@ -21,15 +22,20 @@ import java.util.stream.Collectors;
 public class FilterManager {
 
     private final List<AuctionFilterItem> filterWhitelist = new ArrayList<>();
+    // moved whenever the whitelist changes, so views selected with the old whitelist are thrown away
+    @Getter
+    private volatile int version;
 
     public void addFilterItem(AuctionFilterItem auctionFilterItem) {
         if (auctionFilterItem == null) return;
         this.filterWhitelist.add(auctionFilterItem);
+        this.version++;
     }
 
     public void removeFilterItem(AuctionFilterItem auctionFilterItem) {
         if (auctionFilterItem == null) return;
         this.filterWhitelist.remove(auctionFilterItem);
+        this.version++;
     }
 
     public AuctionFilterItem getFilteredItem(ItemStack itemStack) {
@@ -40,6 +46,10 @@ public class FilterManager {
         return this.filterWhitelist;
     }
 
+    public boolean hasFilterItems(AuctionItemCategory category) {
+        return this.filterWhitelist.stream().anyMatch(item -> item.getCategory() == category);
+    }
+
     public List<ItemStack> getFilterWhitelist(AuctionItemCategory category) {
         return this.filterWhitelist.stream().filter(item -> item.getCategory() == category).map(item -> AuctionAPI.getInstance().deserializeItem(item.getRawItem())).collect(Collectors.toList());
     }
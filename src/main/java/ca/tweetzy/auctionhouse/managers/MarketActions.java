@@ -0,0 +1,232 @@
+package ca.tweetzy.auctionhouse.managers;
+
+import ca.tweetzy.auctionhouse.AuctionHouse;
+import ca.tweetzy.auctionhouse.api.AuctionAPI;
+import ca.tweetzy.auctionhouse.api.MarketEconomy;
+import ca.tweetzy.auctionhouse.api.events.AuctionBidEvent;
+import ca.tweetzy.auctionhouse.api.events.AuctionEndEvent;
+import ca.tweetzy.auctionhouse.auction.AuctionSaleType;
+import ca.tweetzy.auctionhouse.auction.AuctionedItem;
+import ca.tweetzy.auctionhouse.settings.Settings;
+import ca.tweetzy.core.utils.PlayerUtils;
+import lombok.NonNull;
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+
+/**
+ * The current file has been created by Kiran Hart
+ * Date Created: October 18 2026
+ * Time Created: 3:20 a.m.
+ * Usage of any code found within this class is prohibited unless given explicit permission otherwise
+ *
+ * The bids and buy now purchases the confirmation menus make. These change listings, so they have to be called from
+ * a market loop command, and they re-check the listing themselves since it could have changed since the menu opened
+ */
+public final class MarketActions {
+
+    private static MarketActions instance;
+
+    public static MarketActions getInstance() {
+        if (instance == null) {
+            instance = new MarketActions();
+        }
+        return instance;
+    }
+
+    public enum Result {
+        DONE,
+        NOT_LISTED,
+        BID_TOO_LOW,
+        NOT_ENOUGH_MONEY,
+        NO_ROOM,
+        CANCELLED
+    }
+
+    private MarketActions() {
+    }
+
+    /**
+     * Places a bid on a listing
+     *
+     * @param bidder      is who is bidding
+     * @param bidderName  is the name the bid is shown with
+     * @param auctionItem is the listing being bid on
+     * @param bidAmount   is what the bidder entered, -1 bids the listing's increment
+     * @param economy     is where the bidder's balance is checked
+     * @return what came of the bid
+     */
+    public Result placeBid(@NonNull OfflinePlayer bidder, @NonNull String bidderName, @NonNull AuctionedItem auctionItem, double bidAmount, @NonNull MarketEconomy economy) {
+        if (!AuctionHouse.getInstance().getAuctionItemManager().isListed(auctionItem)) return Result.NOT_LISTED;
+
+        final double newBiddingAmount = getNewBid(auctionItem, bidAmount);
+        if (newBiddingAmount == -1) return Result.BID_TOO_LOW;
+
+        if (Settings.PLAYER_NEEDS_TOTAL_PRICE_TO_BID.getBoolean() && !economy.hasBalance(bidder, newBiddingAmount)) {
+            return Result.NOT_ENOUGH_MONEY;
+        }
+
+        ItemStack itemStack = auctionItem.getItem();
+
+        OfflinePlayer oldBidder = Bukkit.getOfflinePlayer(auctionItem.getHighestBidder());
+        OfflinePlayer owner = Bukkit.getOfflinePlayer(auctionItem.getOwner());
+
+        AuctionBidEvent auctionBidEvent = new AuctionBidEvent(bidder, auctionItem, newBiddingAmount);
+        Bukkit.getServer().getPluginManager().callEvent(auctionBidEvent);
+        if (auctionBidEvent.isCancelled()) return Result.CANCELLED;
+
+        auctionItem.setHighestBidder(bidder.getUniqueId());
+        auctionItem.setHighestBidderName(bidderName);
+        auctionItem.setCurrentPrice(newBiddingAmount);
+        if (auctionItem.getBasePrice() != -1 && Settings.SYNC_BASE_PRICE_TO_HIGHEST_PRICE.getBoolean() && Settings.ALLOW_USAGE_OF_BUY_NOW_SYSTEM.getBoolean() && auctionItem.getCurrentPrice() > auctionItem.getBasePrice()) {
+            auctionItem.setBasePrice(auctionItem.getCurrentPrice());
+        }
+
+        if (Settings.INCREASE_TIME_ON_BID.getBoolean()) {
+            auctionItem.setExpiresAt(auctionItem.getExpiresAt() + 1000L * Settings.TIME_TO_INCREASE_BY_ON_BID.getInt());
+        }
+
+        if (Settings.BROADCAST_AUCTION_BID.getBoolean()) {
+            Bukkit.getOnlinePlayers().forEach(player -> AuctionHouse.getInstance().getLocale().getMessage("auction.broadcast.bid")
+                    .processPlaceholder("player", bidderName)
+                    .processPlaceholder("amount", AuctionAPI.getInstance().formatNumber(auctionItem.getCurrentPrice()))
+                    .processPlaceholder("item", AuctionAPI.getInstance().getItemName(itemStack))
+                    .sendPrefixedMessage(player));
+        }
+
+        if (oldBidder.isOnline()) {
+            AuctionHouse.getInstance().getLocale().getMessage("auction.outbid")
+                    .processPlaceholder("player", bidderName)
+                    .processPlaceholder("item", AuctionAPI.getInstance().getItemName(itemStack))
+                    .sendPrefixedMessage(oldBidder.getPlayer());
+        }
+
+        if (owner.isOnline()) {
+            AuctionHouse.getInstance().getLocale().getMessage("auction.placedbid")
+                    .processPlaceholder("player", bidderName)
+                    .processPlaceholder("amount", AuctionAPI.getInstance().formatNumber(auctionItem.getCurrentPrice()))
+                    .processPlaceholder("item", AuctionAPI.getInstance().getItemName(itemStack))
+                    .sendPrefixedMessage(owner.getPlayer());
+        }
+
+        return Result.DONE;
+    }
+
+    /**
+     * Works out the bid an entered amount comes to at the listing's current price, the menus use this to check a bid
+     * before asking for confirmation and {@link #placeBid} uses it again once the bid is placed
+     *
+     * @param auctionItem is the listing being bid on
+     * @param bidAmount   is what the bidder entered, -1 bids the listing's increment
+     * @return the new highest bid, or -1 if the entered amount is too low
+     */
+    public double getNewBid(@NonNull AuctionedItem auctionItem, double bidAmount) {
+        final double toIncrementBy = bidAmount == -1 ? auctionItem.getBidIncrementPrice() : bidAmount;
+
+        if (Settings.USE_REALISTIC_BIDDING.getBoolean()) {
+            if (toIncrementBy > auctionItem.getCurrentPrice()) return toIncrementBy;
+            if (Settings.BID_MUST_BE_HIGHER_THAN_PREVIOUS.getBoolean()) return -1;
+        }
+        return auctionItem.getCurrentPrice() + toIncrementBy;
+    }
+
+    /**
+     * Buys a listing, or part of its stack, at its buy now price
+     *
+     * @param buyer        is who is buying, the item is only handed over while they are online
+     * @param auctionItem  is the listing being bought
+     * @param quantity     is how many items of the stack are bought, -1 buys the whole listing
+     * @param pricePerItem is what each item costs when only part of the stack is bought
+     * @param economy      is where the money is taken from and paid to
+     * @return what came of the purchase
+     */
+    public Result buyNow(@NonNull OfflinePlayer buyer, @NonNull AuctionedItem auctionItem, int quantity, double pricePerItem, @NonNull MarketEconomy economy) {
+        final AuctionItemManager auctionItemManager = AuctionHouse.getInstance().getAuctionItemManager();
+        final AuctionedItem located = auctionItemManager.getItem(auctionItem.getId());
+        final boolean partial = quantity != -1;
+
+        if (located == null || !auctionItemManager.isListed(located) || (partial && located.getItem().getAmount() < quantity)) {
+            return Result.NOT_LISTED;
+        }
+
+        double buyNowPrice = partial ? quantity * pricePerItem : located.getBasePrice();
+        double tax = Settings.TAX_ENABLED.getBoolean() ? (Settings.TAX_SALES_TAX_BUY_NOW_PERCENTAGE.getDouble() / 100) * buyNowPrice : 0D;
+
+        if (!economy.hasBalance(buyer, buyNowPrice + (Settings.TAX_CHARGE_SALES_TAX_TO_BUYER.getBoolean() ? tax : 0D))) {
+            return Result.NOT_ENOUGH_MONEY;
+        }
+
+        AuctionEndEvent auctionEndEvent = new AuctionEndEvent(Bukkit.getOfflinePlayer(located.getOwner()), buyer, located, AuctionSaleType.WITHOUT_BIDDING_SYSTEM, false);
+        Bukkit.getServer().getPluginManager().callEvent(auctionEndEvent);
+        if (auctionEndEvent.isCancelled()) return Result.CANCELLED;
+
+        final Player player = buyer.getPlayer();
+        if (player != null && !Settings.ALLOW_PURCHASE_IF_INVENTORY_FULL.getBoolean() && player.getInventory().firstEmpty() == -1) {
+            return Result.NO_ROOM;
+        }
+
+        if (partial) {
+            ItemStack item = located.getItem().clone();
+
+            if (item.getAmount() - quantity >= 1) {
+                // give the listing its own stack, mutating the shared one in place would skip the write behind
+                ItemStack remaining = item.clone();
+                remaining.setAmount(item.getAmount() - quantity);
+                located.setItem(remaining);
+                located.setBasePrice(located.getBasePrice() - buyNowPrice);
+                item.setAmount(quantity);
+                transferFunds(buyer, located, buyNowPrice, economy);
+            } else {
+                transferFunds(buyer, located, buyNowPrice, economy);
+                auctionItemManager.sendToGarbage(located);
+            }
+
+            if (player != null) PlayerUtils.giveItem(player, item);
+            sendMessages(buyer, located, item, buyNowPrice, economy);
+        } else {
+            transferFunds(buyer, located, buyNowPrice, economy);
+            auctionItemManager.sendToGarbage(located);
+            if (player != null) PlayerUtils.giveItem(player, located.getItem());
+            sendMessages(buyer, located, located.getItem(), buyNowPrice, economy);
+        }
+
+        // anyone else about to buy it can't anymore
+        AuctionHouse.getInstance().getTransactionManager().getPrePurchasePlayers(located.getId()).forEach(other -> {
+            AuctionHouse.getInstance().getTransactionManager().removeAllRelatedPlayers(located.getId());
+            other.closeInventory();
+        });
+        return Result.DONE;
+    }
+
+    private void transferFunds(OfflinePlayer from, AuctionedItem located, double amount, MarketEconomy economy) {
+        double tax = Settings.TAX_ENABLED.getBoolean() ? (Settings.TAX_SALES_TAX_BUY_NOW_PERCENTAGE.getDouble() / 100) * amount : 0D;
+
+        economy.withdraw(from, Settings.TAX_CHARGE_SALES_TAX_TO_BUYER.getBoolean() ? amount + tax : amount);
+        economy.deposit(Bukkit.getOfflinePlayer(located.getOwner()), Settings.TAX_CHARGE_SALES_TAX_TO_BUYER.getBoolean() ? amount : amount - tax);
+    }
+
+    /**
+     * @param bought     is the stack the buyer received, after a partial purchase the listing only holds what is left
+     * @param totalPrice is what the bought stack cost before tax
+     */
+    private void sendMessages(OfflinePlayer buyer, AuctionedItem located, ItemStack bought, double totalPrice, MarketEconomy economy) {
+        double tax = Settings.TAX_ENABLED.getBoolean() ? (Settings.TAX_SALES_TAX_BUY_NOW_PERCENTAGE.getDouble() / 100) * totalPrice : 0D;
+
+        if (buyer.isOnline()) {
+            AuctionHouse.getInstance().getLocale().getMessage("pricing.moneyremove").processPlaceholder("player_balance", AuctionAPI.getInstance().formatNumber(economy.getBalance(buyer))).processPlaceholder("price", AuctionAPI.getInstance().formatNumber(Settings.TAX_CHARGE_SALES_TAX_TO_BUYER.getBoolean() ? totalPrice - tax : totalPrice)).sendPrefixedMessage(buyer.getPlayer());
+            AuctionHouse.getInstance().getLocale().getMessage("general.bought_item").processPlaceholder("amount", bought.getAmount()).processPlaceholder("item", AuctionAPI.getInstance().getItemName(bought)).processPlaceholder("price", AuctionAPI.getInstance().formatNumber(Settings.TAX_CHARGE_SALES_TAX_TO_BUYER.getBoolean() ? totalPrice - tax : totalPrice)).sendPrefixedMessage(buyer.getPlayer());
+        }
+
+        final OfflinePlayer owner = Bukkit.getOfflinePlayer(located.getOwner());
+        if (owner.isOnline()) {
+            AuctionHouse.getInstance().getLocale().getMessage("auction.itemsold")
+                    .processPlaceholder("item", AuctionAPI.getInstance().getItemName(bought))
+                    .processPlaceholder("amount", bought.getAmount())
+                    .processPlaceholder("price", AuctionAPI.getInstance().formatNumber(Settings.TAX_CHARGE_SALES_TAX_TO_BUYER.getBoolean() ? totalPrice : totalPrice - tax))
+                    .processPlaceholder("buyer_name", buyer.getName())
+                    .sendPrefixedMessage(owner.getPlayer());
+            AuctionHouse.getInstance().getLocale().getMessage("pricing.moneyadd").processPlaceholder("player_balance", AuctionAPI.getInstance().formatNumber(economy.getBalance(owner))).processPlaceholder("price", AuctionAPI.getInstance().formatNumber(Settings.TAX_CHARGE_SALES_TAX_TO_BUYER.getBoolean() ? totalPrice : totalPrice - tax)).sendPrefixedMessage(owner.getPlayer());
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package ca.tweetzy.auctionhouse.managers;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The current file has been created by Kiran Hart
+ * Date Created: October 18 2026
+ * Time Created: 9:12 p.m.
+ * Usage of any code found within this class is prohibited unless given explicit permission otherwise
+ *
+ * Live market statistics per material over the last hour, day and week. Every window is a fixed ring of time buckets
+ * with running totals, a bucket is subtracted from the totals as it falls out of the window so reads never scan history.
+ * Prices are kept in a log scale histogram, which is what the percentiles are read from
+ */
+public final class MarketAnalyticsManager {
+
+    @AllArgsConstructor
+    public enum Window {
+        HOUR("1h", TimeUnit.MINUTES.toMillis(5), 12),
+        DAY("24h", TimeUnit.HOURS.toMillis(1), 24),
+        WEEK("7d", TimeUnit.HOURS.toMillis(6), 28);
+
+        @Getter
+        private final String key;
+        private final long bucketMillis;
+        private final int buckets;
+
+        public static Window fromKey(String key) {
+            for (Window window : values()) {
+                if (window.key.equalsIgnoreCase(key)) return window;
+            }
+            return null;
+        }
+    }
+
+    // unit prices from 0.01 up to roughly 700 million, each bin is 25% wider than the one before
+    private static final double MIN_PRICE = 0.01;
+    private static final double BIN_GROWTH = 1.25;
+    private static final int BINS = 112;
+    private static final double LOG_GROWTH = Math.log(BIN_GROWTH);
+
+    private final ConcurrentHashMap<String, MaterialMarket> markets = new ConcurrentHashMap<>();
+
+    /**
+     * Records a new listing
+     *
+     * @param material is the material of the listed item
+     */
+    public void recordListing(@NonNull String material) {
+        market(material).record(System.currentTimeMillis(), 1, 0, 0, 0D);
+    }
+
+    /**
+     * Records a completed sale
+     *
+     * @param material is the material of the sold item
+     * @param amount   is the stack size of the sold item
+     * @param price    is what was paid for the whole stack
+     */
+    public void recordSale(@NonNull String material, int amount, double price) {
+        market(material).record(System.currentTimeMillis(), 0, 1, Math.max(1, amount), price);
+    }
+
+    /**
+     * @param material is the material being looked up
+     * @param window   is how far back the statistics go
+     * @return the market statistics of the material, empty if it was never listed or sold
+     */
+    public MarketSnapshot getSnapshot(@NonNull String material, @NonNull Window window) {
+        final MaterialMarket market = this.markets.get(normalize(material));
+        return market == null ? MarketSnapshot.EMPTY : market.snapshot(System.currentTimeMillis(), window);
+    }
+
+    private MaterialMarket market(String material) {
+        return this.markets.computeIfAbsent(normalize(material), key -> new MaterialMarket());
+    }
+
+    private static String normalize(String material) {
+        return material.toUpperCase(Locale.ROOT);
+    }
+
+    private static int bin(double unitPrice) {
+        if (unitPrice <= MIN_PRICE) return 0;
+        return Math.min(BINS - 1, (int) (Math.log(unitPrice / MIN_PRICE) / LOG_GROWTH));
+    }
+
+    private static double binPrice(int bin, double fraction) {
+        // interpolated on the log scale between the lower and upper edge of the bin
+        return MIN_PRICE * Math.pow(BIN_GROWTH, bin + fraction);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static final class MarketSnapshot {
+
+        public static final MarketSnapshot EMPTY = new MarketSnapshot(0, 0, 0, 0D, 0D, 0D, 0D, 0D);
+
+        private final int listed;
+        private final int sales;
+        // the amount of items sold, a sale of a stack of 64 adds 64
+        private final long volume;
+        private final double turnover;
+        private final double p25;
+        private final double median;
+        private final double p75;
+        private final double p90;
+
+        /**
+         * @return the average price of a single item
+         */
+        public double getAveragePrice() {
+            return this.volume == 0 ? 0D : this.turnover / this.volume;
+        }
+
+        /**
+         * @return the share of listings that sold, between 0 and 1
+         */
+        public double getSellThrough() {
+            if (this.listed == 0) return this.sales == 0 ? 0D : 1D;
+            return Math.min(1D, this.sales / (double) this.listed);
+        }
+    }
+
+    private static final class MaterialMarket {
+
+        private final WindowRing[] rings = new WindowRing[Window.values().length];
+
+        private MaterialMarket() {
+            for (Window window : Window.values()) {
+                this.rings[window.ordinal()] = new WindowRing(window);
+            }
+        }
+
+        private synchronized void record(long now, int listed, int sales, int volume, double turnover) {
+            for (WindowRing ring : this.rings) {
+                ring.record(now, listed, sales, volume, turnover);
+            }
+        }
+
+        private synchronized MarketSnapshot snapshot(long now, Window window) {
+            return this.rings[window.ordinal()].snapshot(now);
+        }
+    }
+
+    private static final class WindowRing {
+
+        private final Window window;
+
+        private final int[] listed;
+        private final int[] sales;
+        private final long[] volume;
+        private final double[] turnover;
+        // only allocated once a bucket sees a sale, most materials are rarely traded
+        private final int[][] histograms;
+
+        private long lastEpoch = Long.MIN_VALUE;
+        private int totalListed;
+        private int totalSales;
+        private long totalVolume;
+        private double totalTurnover;
+        private final int[] totalHistogram = new int[BINS];
+
+        private WindowRing(Window window) {
+            this.window = window;
+            this.listed = new int[window.buckets];
+            this.sales = new int[window.buckets];
+            this.volume = new long[window.buckets];
+            this.turnover = new double[window.buckets];
+            this.histograms = new int[window.buckets][];
+        }
+
+        private void record(long now, int listed, int sales, int volume, double turnover) {
+            final int slot = advance(now);
+
+            this.listed[slot] += listed;
+            this.totalListed += listed;
+
+            if (sales == 0) return;
+            this.sales[slot] += sales;
+            this.totalSales += sales;
+            this.volume[slot] += volume;
+            this.totalVolume += volume;
+            this.turnover[slot] += turnover;
+            this.totalTurnover += turnover;
+
+            // every item of the stack counts towards the price distribution
+            final int bin = bin(turnover / volume);
+            if (this.histograms[slot] == null) this.histograms[slot] = new int[BINS];
+            this.histograms[slot][bin] += volume;
+            this.totalHistogram[bin] += volume;
+        }
+
+        private MarketSnapshot snapshot(long now) {
+            advance(now);
+            if (this.totalListed == 0 && this.totalSales == 0) return MarketSnapshot.EMPTY;
+
+            return new MarketSnapshot(
+                    this.totalListed,
+                    this.totalSales,
+                    this.totalVolume,
+                    this.totalTurnover,
+                    percentile(0.25),
+                    percentile(0.5),
+                    percentile(0.75),
+                    percentile(0.9)
+            );
+        }
+
+        private double percentile(double quantile) {
+            if (this.totalVolume == 0) return 0D;
+
+            final double rank = quantile * this.totalVolume;
+            long seen = 0;
+            for (int bin = 0; bin < BINS; bin++) {
+                final int count = this.totalHistogram[bin];
+                if (count == 0) continue;
+                if (seen + count >= rank) {
+                    return binPrice(bin, (rank - seen) / count);
+                }
+                seen += count;
+            }
+            return binPrice(BINS - 1, 1);
+        }
+
+        /**
+         * Moves the window forward to the current time, clearing every bucket that fell out of it
+         *
+         * @return the slot of the current bucket
+         */
+        private int advance(long now) {
+            final long epoch = now / this.window.bucketMillis;
+            if (epoch > this.lastEpoch) {
+                // at most a full rotation needs clearing, no matter how long it has been
+                final long from = this.lastEpoch == Long.MIN_VALUE ? epoch : Math.max(this.lastEpoch + 1, epoch - this.window.buckets + 1);
+                for (long next = from; next <= epoch; next++) {
+                    clear((int) (next % this.window.buckets));
+                }
+                this.lastEpoch = epoch;
+            }
+            return (int) (epoch % this.window.buckets);
+        }
+
+        private void clear(int slot) {
+            this.totalListed -= this.listed[slot];
+            this.totalSales -= this.sales[slot];
+            this.totalVolume -= this.volume[slot];
+            // the running sum drifts a little with every subtraction, an empty window starts over from zero
+            this.totalTurnover = this.totalSales == 0 ? 0D : this.totalTurnover - this.turnover[slot];
+
+            final int[] histogram = this.histograms[slot];
+            if (histogram != null) {
+                for (int bin = 0; bin < BINS; bin++) {
+                    this.totalHistogram[bin] -= histogram[bin];
+                }
+                this.histograms[slot] = null;
+            }
+
+            this.listed[slot] = 0;
+            this.sales[slot] = 0;
+            this.volume[slot] = 0;
+            this.turnover[slot] = 0D;
+        }
+    }
+}
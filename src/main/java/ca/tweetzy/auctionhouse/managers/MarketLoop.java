@@ -0,0 +1,109 @@
+package ca.tweetzy.auctionhouse.managers;
+
+import ca.tweetzy.auctionhouse.AuctionHouse;
+import lombok.NonNull;
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * The current file has been created by Kiran Hart
+ * Date Created: October 18 2026
+ * Time Created: 1:06 a.m.
+ * Usage of any code found within this class is prohibited unless given explicit permission otherwise
+ *
+ * The only place listings are changed from. Every change to the market is a command that runs on the server thread
+ * in the order it was submitted, so a listing can't be sold twice or lose a bid to a change made at the same time on
+ * another thread. Threads other than the server thread only read listings, through the views selected from the indexes.
+ * The listings themselves aren't copied for readers, the indexes hold the keys a listing had when it was last indexed so
+ * a selection never depends on a listing changing under it, and whatever a reader acts on is checked again by a command.
+ * The queue is worked off for a limited time every tick, so a burst like loading every listing on startup is spread
+ * over several ticks instead of stalling one
+ */
+public final class MarketLoop {
+
+    private static MarketLoop instance;
+
+    public static MarketLoop getInstance() {
+        if (instance == null) {
+            instance = new MarketLoop();
+        }
+        return instance;
+    }
+
+    // how long queued commands may run for in one tick, whatever is left runs on the next one
+    private static final long DRAIN_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final Queue<Runnable> commands = new ConcurrentLinkedQueue<>();
+    private BukkitTask task;
+
+    private MarketLoop() {
+    }
+
+    public void start() {
+        if (this.task == null) {
+            this.task = Bukkit.getServer().getScheduler().runTaskTimer(AuctionHouse.getInstance(), () -> drain(DRAIN_BUDGET_NANOS), 1L, 1L);
+        }
+    }
+
+    /**
+     * Runs whatever was still submitted, called on the server thread while the plugin shuts down
+     */
+    public void stop() {
+        if (this.task != null) {
+            this.task.cancel();
+            this.task = null;
+        }
+
+        Runnable command;
+        while ((command = this.commands.poll()) != null) {
+            run(command);
+        }
+    }
+
+    /**
+     * Queues a change to the market, it runs on the server thread after every change submitted before it
+     *
+     * @param command is the change, it should check the listing is still in the state it expects before changing it
+     */
+    public void submit(@NonNull Runnable command) {
+        this.commands.add(command);
+    }
+
+    /**
+     * Runs a change to the market straight away when called from the server thread and nothing is queued,
+     * otherwise it is queued behind what is waiting so the order is kept
+     *
+     * @param command is the change
+     */
+    public void execute(@NonNull Runnable command) {
+        if (!Bukkit.isPrimaryThread() || !this.commands.isEmpty()) {
+            submit(command);
+            return;
+        }
+
+        run(command);
+    }
+
+    private void drain(long budgetNanos) {
+        final long started = System.nanoTime();
+        Runnable command;
+        while ((command = this.commands.poll()) != null) {
+            run(command);
+            if (System.nanoTime() - started >= budgetNanos) return;
+        }
+    }
+
+    private void run(Runnable command) {
+        try {
+            command.run();
+        } catch (Exception e) {
+            // one broken command can't be allowed to stop every change after it
+            AuctionHouse.getInstance().getLogger().log(Level.WARNING, "A market change failed", e);
+        }
+    }
+}
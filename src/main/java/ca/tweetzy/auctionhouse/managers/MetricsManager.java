@@ -0,0 +1,278 @@
+package ca.tweetzy.auctionhouse.managers;
+
+import ca.tweetzy.auctionhouse.AuctionHouse;
+import ca.tweetzy.auctionhouse.database.DataManager;
+import ca.tweetzy.auctionhouse.database.DatabaseExecutor;
+import lombok.Getter;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The current file has been created by Kiran Hart
+ * Date Created: October 18 2026
+ * Time Created: 11:48 p.m.
+ * Usage of any code found within this class is prohibited unless given explicit permission otherwise
+ *
+ * Keeps the timings and counts of the hot paths. Recording only bumps a few adders so it is safe to call from any
+ * thread as often as needed, everything is read back when the status is shown or the metrics file is written
+ */
+public final class MetricsManager {
+
+    // in seconds, from a cached menu lookup up to a tick that stalls the server
+    private static final double[] DURATION_BUCKETS = {0.00001, 0.00005, 0.0001, 0.00025, 0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5};
+    private static final double[] SIZE_BUCKETS = {0, 1, 5, 10, 45, 100, 250, 500, 1000, 2500, 5000, 10000, 50000};
+
+    private static MetricsManager instance;
+
+    public static MetricsManager getInstance() {
+        if (instance == null) {
+            instance = new MetricsManager();
+        }
+        return instance;
+    }
+
+    @Getter
+    private final Histogram tickDuration = new Histogram(DURATION_BUCKETS);
+    @Getter
+    private final Histogram drawItemsDuration = new Histogram(DURATION_BUCKETS);
+    @Getter
+    private final Histogram drawItemsResults = new Histogram(SIZE_BUCKETS);
+    @Getter
+    private final Histogram displayStackDuration = new Histogram(DURATION_BUCKETS);
+
+    @Getter
+    private final RateMeter listings = new RateMeter();
+    @Getter
+    private final RateMeter bids = new RateMeter();
+    @Getter
+    private final RateMeter purchases = new RateMeter();
+
+    private final ConcurrentHashMap<String, Histogram> databaseDuration = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LongAdder> databaseRows = new ConcurrentHashMap<>();
+
+    private MetricsManager() {
+    }
+
+    /**
+     * Records a finished database call
+     *
+     * @param method  is the name of the data manager method that made the call
+     * @param started is the {@link System#nanoTime()} the call started at
+     * @param rows    is how many rows the call wrote or read
+     */
+    public void recordDatabase(String method, long started, int rows) {
+        this.databaseDuration.computeIfAbsent(method, key -> new Histogram(DURATION_BUCKETS)).recordNanos(System.nanoTime() - started);
+        this.databaseRows.computeIfAbsent(method, key -> new LongAdder()).add(rows);
+    }
+
+    /**
+     * @return the database histograms by method name, in alphabetical order
+     */
+    public Map<String, Histogram> getDatabaseDurations() {
+        return new TreeMap<>(this.databaseDuration);
+    }
+
+    public long getDatabaseRows(String method) {
+        final LongAdder rows = this.databaseRows.get(method);
+        return rows == null ? 0 : rows.sum();
+    }
+
+    /**
+     * Writes every metric in the Prometheus text exposition format
+     *
+     * @return the text, ending with a new line
+     */
+    public String toPrometheus() {
+        final StringBuilder out = new StringBuilder(8192);
+
+        writeHeader(out, "auctionhouse_tick_duration_seconds", "Time taken by one run of the auction tick", "histogram");
+        writeHistogram(out, "auctionhouse_tick_duration_seconds", null, this.tickDuration);
+        writeHeader(out, "auctionhouse_menu_draw_duration_seconds", "Time taken to select the listings of an auction house page", "histogram");
+        writeHistogram(out, "auctionhouse_menu_draw_duration_seconds", null, this.drawItemsDuration);
+        writeHeader(out, "auctionhouse_menu_draw_results", "Listings matching the view of an auction house page", "histogram");
+        writeHistogram(out, "auctionhouse_menu_draw_results", null, this.drawItemsResults);
+        writeHeader(out, "auctionhouse_display_stack_duration_seconds", "Time taken to get the display stack of a listing", "histogram");
+        writeHistogram(out, "auctionhouse_display_stack_duration_seconds", null, this.displayStackDuration);
+
+        final Map<String, Histogram> durations = getDatabaseDurations();
+        if (!durations.isEmpty()) {
+            writeHeader(out, "auctionhouse_database_duration_seconds", "Time taken by a database call", "histogram");
+            durations.forEach((method, histogram) -> writeHistogram(out, "auctionhouse_database_duration_seconds", "method=\"" + method + "\"", histogram));
+            writeHeader(out, "auctionhouse_database_rows_total", "Rows written or read by a database call", "counter");
+            durations.keySet().forEach(method -> out.append("auctionhouse_database_rows_total{method=\"").append(method).append("\"} ").append(getDatabaseRows(method)).append('\n'));
+        }
+
+        writeCounter(out, "auctionhouse_listings_total", "Items listed", this.listings);
+        writeCounter(out, "auctionhouse_bids_total", "Bids placed", this.bids);
+        writeCounter(out, "auctionhouse_purchases_total", "Auctions that ended with a buyer", this.purchases);
+
+        final DataManager dataManager = AuctionHouse.getInstance().getDataManager();
+        if (dataManager != null) {
+            writeHeader(out, "auctionhouse_database_queue_depth", "Database tasks waiting for a connection", "gauge");
+            for (DatabaseExecutor.Lane lane : DatabaseExecutor.Lane.values()) {
+                out.append("auctionhouse_database_queue_depth{lane=\"").append(lane.name().toLowerCase(Locale.ROOT)).append("\"} ").append(dataManager.getExecutor().getLane(lane).getQueueDepth()).append('\n');
+            }
+        }
+
+        final AuctionItemManager auctionItemManager = AuctionHouse.getInstance().getAuctionItemManager();
+        if (auctionItemManager != null) {
+            writeHeader(out, "auctionhouse_active_listings", "Listings that have not expired", "gauge");
+            out.append("auctionhouse_active_listings ").append(auctionItemManager.getItemsByState(false).size()).append('\n');
+        }
+        return out.toString();
+    }
+
+    private static void writeHeader(StringBuilder out, String name, String help, String type) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void writeCounter(StringBuilder out, String name, String help, RateMeter meter) {
+        writeHeader(out, name, help, "counter");
+        out.append(name).append(' ').append(meter.getTotal()).append('\n');
+    }
+
+    /**
+     * @param labels are written in front of the bucket bound, null if the histogram has none
+     */
+    private static void writeHistogram(StringBuilder out, String name, String labels, Histogram histogram) {
+        final long[] counts = histogram.getCounts();
+        long cumulative = 0;
+        for (int i = 0; i < counts.length; i++) {
+            cumulative += counts[i];
+            out.append(name).append("_bucket{").append(labels == null ? "" : labels + ",").append("le=\"").append(i < histogram.bounds.length ? format(histogram.bounds[i]) : "+Inf").append("\"} ").append(cumulative).append('\n');
+        }
+
+        final String suffix = labels == null ? "" : "{" + labels + "}";
+        out.append(name).append("_sum").append(suffix).append(' ').append(format(histogram.getSum())).append('\n');
+        out.append(name).append("_count").append(suffix).append(' ').append(cumulative).append('\n');
+    }
+
+    private static String format(double value) {
+        return value == Math.rint(value) && Math.abs(value) < 1e15 ? Long.toString((long) value) : Double.toString(value);
+    }
+
+    /**
+     * A histogram over fixed buckets, each bucket counts the values up to and including its bound
+     * and one more bucket past the last bound counts everything larger
+     */
+    public static final class Histogram {
+
+        private final double[] bounds;
+        private final LongAdder[] counts;
+        private final DoubleAdder sum = new DoubleAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, Double.doubleToLongBits(0));
+
+        private Histogram(double[] bounds) {
+            this.bounds = bounds;
+            this.counts = new LongAdder[bounds.length + 1];
+            for (int i = 0; i < this.counts.length; i++) this.counts[i] = new LongAdder();
+        }
+
+        public void recordNanos(long nanos) {
+            record(nanos / 1_000_000_000D);
+        }
+
+        public void record(double value) {
+            int bucket = 0;
+            while (bucket < this.bounds.length && value > this.bounds[bucket]) bucket++;
+            this.counts[bucket].increment();
+            this.sum.add(value);
+            // the bits of positive doubles order the same way as the doubles themselves
+            this.max.accumulate(Double.doubleToLongBits(Math.max(0, value)));
+        }
+
+        public long getCount() {
+            long count = 0;
+            for (LongAdder adder : this.counts) count += adder.sum();
+            return count;
+        }
+
+        public double getSum() {
+            return this.sum.sum();
+        }
+
+        public double getMax() {
+            return Double.longBitsToDouble(this.max.get());
+        }
+
+        public double getAverage() {
+            final long count = getCount();
+            return count == 0 ? 0 : getSum() / count;
+        }
+
+        /**
+         * Estimates a quantile from the buckets
+         *
+         * @param quantile is between 0 and 1, 0.5 being the median
+         * @return the bound of the bucket the quantile falls in, never more than the largest value recorded
+         */
+        public double getQuantile(double quantile) {
+            final long[] counts = getCounts();
+            long total = 0;
+            for (long count : counts) total += count;
+            if (total == 0) return 0;
+
+            final long rank = (long) Math.ceil(quantile * total);
+            long seen = 0;
+            for (int i = 0; i < this.bounds.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) return Math.min(this.bounds[i], getMax());
+            }
+            return getMax();
+        }
+
+        private long[] getCounts() {
+            final long[] counts = new long[this.counts.length];
+            for (int i = 0; i < counts.length; i++) counts[i] = this.counts[i].sum();
+            return counts;
+        }
+    }
+
+    /**
+     * Counts events in total and over the last minute, the minute is kept as twelve buckets
+     * of five seconds so the rate moves smoothly instead of resetting every minute
+     */
+    public static final class RateMeter {
+
+        private static final int BUCKETS = 12;
+        private static final long BUCKET_MILLIS = 5000;
+
+        private final LongAdder total = new LongAdder();
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+        private final AtomicLongArray periods = new AtomicLongArray(BUCKETS);
+
+        public void mark() {
+            this.total.increment();
+
+            final long period = System.currentTimeMillis() / BUCKET_MILLIS;
+            final int index = (int) (period % BUCKETS);
+            final long seen = this.periods.get(index);
+            // the first event of a new period clears what the bucket counted a minute ago
+            if (seen != period && this.periods.compareAndSet(index, seen, period)) {
+                this.counts.set(index, 0);
+            }
+            this.counts.incrementAndGet(index);
+        }
+
+        public long getTotal() {
+            return this.total.sum();
+        }
+
+        public long getPerMinute() {
+            final long period = System.currentTimeMillis() / BUCKET_MILLIS;
+            long count = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                if (period - this.periods.get(i) < BUCKETS) count += this.counts.get(i);
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package ca.tweetzy.auctionhouse.managers;
+
+import ca.tweetzy.auctionhouse.transaction.Transaction;
+import lombok.NonNull;
+
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The current file has been created by Kiran Hart
+ * Date Created: October 18 2026
+ * Time Created: 8:41 p.m.
+ * Usage of any code found within this class is prohibited unless given explicit permission otherwise
+ *
+ * Keeps how many items each player bought and sold, so reading a
+ * player's totals never has to look at anyone else's history
+ */
+public final class PlayerTransactionIndex {
+
+    private final ConcurrentHashMap<UUID, Entry> entries = new ConcurrentHashMap<>();
+
+    public void add(@NonNull Transaction transaction) {
+        entry(transaction.getSeller()).sold.incrementAndGet();
+        entry(transaction.getBuyer()).bought.incrementAndGet();
+    }
+
+    public void remove(@NonNull Transaction transaction) {
+        Entry seller = this.entries.get(transaction.getSeller());
+        if (seller != null) seller.sold.updateAndGet(count -> Math.max(0, count - 1));
+
+        Entry buyer = this.entries.get(transaction.getBuyer());
+        if (buyer != null) buyer.bought.updateAndGet(count -> Math.max(0, count - 1));
+    }
+
+    /**
+     * Adds counts read from the database on top of the transactions added to the index,
+     * these must not include any transaction that was added
+     *
+     * @param player is whose counts these are
+     * @param sold   is how many items the player sold
+     * @param bought is how many items the player bought
+     */
+    public void seed(@NonNull UUID player, int sold, int bought) {
+        Entry entry = entry(player);
+        entry.sold.addAndGet(sold);
+        entry.bought.addAndGet(bought);
+    }
+
+    public int getSold(@NonNull UUID player) {
+        Entry entry = this.entries.get(player);
+        return entry == null ? 0 : entry.sold.get();
+    }
+
+    public int getBought(@NonNull UUID player) {
+        Entry entry = this.entries.get(player);
+        return entry == null ? 0 : entry.bought.get();
+    }
+
+    /**
+     * @param player is whose transactions are wanted
+     * @return true if the player never bought or sold anything
+     */
+    public boolean isEmpty(@NonNull UUID player) {
+        Entry entry = this.entries.get(player);
+        return entry == null || (entry.sold.get() == 0 && entry.bought.get() == 0);
+    }
+
+    private Entry entry(UUID player) {
+        return this.entries.computeIfAbsent(player, key -> new Entry());
+    }
+
+    private static final class Entry {
+
+        private final AtomicInteger sold = new AtomicInteger();
+        private final AtomicInteger bought = new AtomicInteger();
+    }
+}
@@ -0,0 +1,203 @@
+package ca.tweetzy.auctionhouse.managers;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * The current file has been created by Kiran Hart
+ * Date Created: October 18 2026
+ * Time Created: 9:58 p.m.
+ * Usage of any code found within this class is prohibited unless given explicit permission otherwise
+ *
+ * A streaming quantile sketch over prices with a fixed relative error. Every price is counted in a logarithmic bin
+ * that is at most 1% wide on either side, so any quantile it answers is within 1% of a price that was actually seen.
+ * The bins only span the range of prices seen so far and two sketches merge by adding their bins
+ */
+public final class PriceSketch {
+
+    private static final double RELATIVE_ACCURACY = 0.01;
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+
+    // anything cheaper than this is counted as free
+    private static final double MIN_PRICE = 0.01;
+    // once the range is wider than this the cheapest bins are folded together, a factor of about e^80 in price
+    private static final int MAX_BINS = 4096;
+
+    private long zeroCount;
+    private long count;
+    private int offset;
+    private long[] bins = new long[0];
+
+    public synchronized void add(double price) {
+        add(price, 1);
+    }
+
+    public synchronized void add(double price, long weight) {
+        if (weight <= 0) return;
+        this.count += weight;
+
+        if (price < MIN_PRICE) {
+            this.zeroCount += weight;
+            return;
+        }
+
+        final int index = index(price);
+        ensureCapacity(index);
+        this.bins[Math.max(0, index - this.offset)] += weight;
+    }
+
+    /**
+     * Adds every price counted by another sketch to this one
+     *
+     * @param other is the sketch being merged in
+     */
+    public void merge(PriceSketch other) {
+        final long zeroCount;
+        final int offset;
+        final long[] bins;
+        synchronized (other) {
+            zeroCount = other.zeroCount;
+            offset = other.offset;
+            bins = other.bins.clone();
+        }
+
+        synchronized (this) {
+            this.zeroCount += zeroCount;
+            this.count += zeroCount;
+            for (int i = 0; i < bins.length; i++) {
+                if (bins[i] == 0) continue;
+                ensureCapacity(offset + i);
+                this.bins[Math.max(0, offset + i - this.offset)] += bins[i];
+                this.count += bins[i];
+            }
+        }
+    }
+
+    public synchronized long getCount() {
+        return this.count;
+    }
+
+    /**
+     * Reads several quantiles in a single pass over the bins
+     *
+     * @param quantiles are between 0 and 1 in ascending order, 0.5 being the median
+     * @return the price at each quantile, all 0 if nothing was counted
+     */
+    public synchronized double[] getQuantiles(double... quantiles) {
+        final double[] values = new double[quantiles.length];
+        if (this.count == 0) return values;
+
+        int next = 0;
+        long seen = this.zeroCount;
+        // everything that falls on the free prices stays 0
+        while (next < quantiles.length && rank(quantiles[next]) < seen) next++;
+
+        for (int i = 0; i < this.bins.length && next < quantiles.length; i++) {
+            seen += this.bins[i];
+            while (next < quantiles.length && rank(quantiles[next]) < seen) {
+                values[next++] = value(this.offset + i);
+            }
+        }
+        return values;
+    }
+
+    private long rank(double quantile) {
+        return (long) Math.floor(quantile * (this.count - 1));
+    }
+
+    /**
+     * Writes the non empty bins as (gap, count) pairs of variable length numbers, a sketch of
+     * a few dozen distinct price levels takes well under a hundred bytes
+     */
+    public synchronized void write(DataOutputStream out) throws IOException {
+        writeVarLong(out, this.zeroCount);
+
+        int used = 0;
+        for (long bin : this.bins) if (bin != 0) used++;
+        writeVarLong(out, used);
+
+        out.writeInt(this.offset);
+        int previous = 0;
+        for (int i = 0; i < this.bins.length; i++) {
+            if (this.bins[i] == 0) continue;
+            writeVarLong(out, i - previous);
+            writeVarLong(out, this.bins[i]);
+            previous = i;
+        }
+    }
+
+    public static PriceSketch read(DataInputStream in) throws IOException {
+        final PriceSketch sketch = new PriceSketch();
+        sketch.zeroCount = readVarLong(in);
+        sketch.count = sketch.zeroCount;
+
+        final int used = (int) readVarLong(in);
+        final int offset = in.readInt();
+        int index = 0;
+        for (int i = 0; i < used; i++) {
+            index += (int) readVarLong(in);
+            final long weight = readVarLong(in);
+            sketch.ensureCapacity(offset + index);
+            sketch.bins[Math.max(0, offset + index - sketch.offset)] += weight;
+            sketch.count += weight;
+        }
+        return sketch;
+    }
+
+    private void ensureCapacity(int index) {
+        if (this.bins.length == 0) {
+            this.offset = index;
+            this.bins = new long[8];
+            return;
+        }
+
+        if (index >= this.offset && index < this.offset + this.bins.length) return;
+
+        final int low = Math.min(this.offset, index);
+        final int high = Math.max(this.offset + this.bins.length - 1, index);
+        int newOffset = low;
+        if (high - low + 1 > MAX_BINS) {
+            // keep the expensive end exact and fold everything cheaper into the lowest kept bin
+            newOffset = high - MAX_BINS + 1;
+        }
+
+        final int length = Math.min(MAX_BINS, Math.max(high - newOffset + 1, this.bins.length * 2));
+        final long[] grown = new long[length];
+        for (int i = 0; i < this.bins.length; i++) {
+            if (this.bins[i] == 0) continue;
+            grown[Math.max(0, this.offset + i - newOffset)] += this.bins[i];
+        }
+
+        this.bins = grown;
+        this.offset = newOffset;
+    }
+
+    private static int index(double price) {
+        return (int) Math.ceil(Math.log(price) / LOG_GAMMA);
+    }
+
+    private static double value(int index) {
+        // the middle of the bin in relative terms, which is where the 1% guarantee comes from
+        return 2 * Math.pow(GAMMA, index) / (GAMMA + 1);
+    }
+
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            final byte b = in.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IOException("Malformed variable length number");
+    }
+}
@@ -0,0 +1,159 @@
+package ca.tweetzy.auctionhouse.managers;
+
+import ca.tweetzy.auctionhouse.AuctionHouse;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NonNull;
+import org.bukkit.inventory.ItemStack;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+
+/**
+ * The current file has been created by Kiran Hart
+ * Date Created: October 18 2026
+ * Time Created: 10:24 p.m.
+ * Usage of any code found within this class is prohibited unless given explicit permission otherwise
+ *
+ * Suggests a price band for an item from what that material sold for before. Every material has a quantile sketch of
+ * the unit prices it sold at, the sketches are saved to a small binary file and built from the recorded transactions
+ * the first time the plugin runs with this
+ */
+public final class PriceSuggestionManager {
+
+    private static final int FILE_VERSION = 1;
+    // fewer sales than this say more about the sellers than about the market
+    private static final int MIN_SALES = 3;
+
+    private final File file = new File(AuctionHouse.getInstance().getDataFolder(), "price_sketches.dat");
+    private final ConcurrentHashMap<String, PriceSketch> sketches = new ConcurrentHashMap<>();
+    private volatile boolean changed;
+
+    public void loadSketches() {
+        if (!this.file.exists()) {
+            rebuild();
+            return;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(this.file)))) {
+            if (in.readInt() != FILE_VERSION) {
+                rebuild();
+                return;
+            }
+
+            final int size = in.readInt();
+            for (int i = 0; i < size; i++) {
+                final String material = in.readUTF();
+                sketch(material).merge(PriceSketch.read(in));
+            }
+        } catch (IOException e) {
+            AuctionHouse.getInstance().getLogger().log(Level.WARNING, "Could not read the price sketches, rebuilding them from the transactions", e);
+            this.sketches.clear();
+            rebuild();
+        }
+    }
+
+    public synchronized void saveSketches() {
+        if (!this.changed) return;
+        this.changed = false;
+
+        final Map<String, PriceSketch> snapshot = new HashMap<>(this.sketches);
+        final File temp = new File(this.file.getParentFile(), this.file.getName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            out.writeInt(FILE_VERSION);
+            out.writeInt(snapshot.size());
+            for (Map.Entry<String, PriceSketch> entry : snapshot.entrySet()) {
+                out.writeUTF(entry.getKey());
+                entry.getValue().write(out);
+            }
+        } catch (IOException e) {
+            this.changed = true;
+            AuctionHouse.getInstance().getLogger().log(Level.WARNING, "Could not save the price sketches", e);
+            return;
+        }
+
+        try {
+            Files.move(temp.toPath(), this.file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            this.changed = true;
+            AuctionHouse.getInstance().getLogger().log(Level.WARNING, "Could not save the price sketches", e);
+        }
+    }
+
+    /**
+     * Records a completed sale
+     *
+     * @param material is the material of the sold item
+     * @param amount   is the stack size of the sold item
+     * @param price    is what was paid for the whole stack
+     */
+    public void recordSale(@NonNull String material, int amount, double price) {
+        sketch(material).add(price / Math.max(1, amount));
+        this.changed = true;
+    }
+
+    /**
+     * Suggests a price band for the whole stack
+     *
+     * @param item is the item being sold
+     * @return the suggestion, or null if the material didn't sell often enough yet
+     */
+    public PriceSuggestion getSuggestion(ItemStack item) {
+        if (item == null) return null;
+
+        final PriceSketch sketch = this.sketches.get(normalize(item.getType().name()));
+        if (sketch == null) return null;
+
+        final long sales = sketch.getCount();
+        if (sales < MIN_SALES) return null;
+
+        final double[] unit = sketch.getQuantiles(0.25, 0.5, 0.75);
+        final int amount = Math.max(1, item.getAmount());
+        return new PriceSuggestion(unit[0] * amount, unit[1] * amount, unit[2] * amount, sales);
+    }
+
+    /**
+     * Builds the sketches from every recorded transaction in the background, sales made while this
+     * runs are counted in the live sketches and the rebuilt ones are merged on top of them
+     */
+    private void rebuild() {
+        final Map<String, PriceSketch> rebuilt = new HashMap<>();
+        AuctionHouse.getInstance().getLogger().info("Building price suggestions from the recorded transactions");
+
+        AuctionHouse.getInstance().getDataManager().forEachTransactionSale((item, price) -> rebuilt.computeIfAbsent(normalize(item.getType().name()), key -> new PriceSketch()).add(price / Math.max(1, item.getAmount())), error -> {
+            if (error != null) {
+                AuctionHouse.getInstance().getLogger().log(Level.WARNING, "Could not build the price suggestions", error);
+                return;
+            }
+
+            rebuilt.forEach((material, sketch) -> sketch(material).merge(sketch));
+            this.changed = true;
+            saveSketches();
+            AuctionHouse.getInstance().getLogger().info("Built price suggestions for " + rebuilt.size() + " material(s)");
+        });
+    }
+
+    private PriceSketch sketch(String material) {
+        return this.sketches.computeIfAbsent(normalize(material), key -> new PriceSketch());
+    }
+
+    private static String normalize(String material) {
+        return material.toUpperCase(Locale.ROOT);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static final class PriceSuggestion {
+
+        private final double low;
+        private final double median;
+        private final double high;
+        private final long sales;
+    }
+}
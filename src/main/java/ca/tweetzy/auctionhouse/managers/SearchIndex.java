@@ -0,0 +1,139 @@
+package ca.tweetzy.auctionhouse.managers;
+
+import ca.tweetzy.auctionhouse.auction.AuctionedItem;
+import lombok.NonNull;
+import org.bukkit.ChatColor;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The current file has been created by Kiran Hart
+ * Date Created: October 18 2026
+ * Time Created: 5:37 p.m.
+ * Usage of any code found within this class is prohibited unless given explicit permission otherwise
+ *
+ * An inverted trigram index over the searchable text of the active listings. A search is a literal,
+ * case insensitive substring lookup: the posting lists of the phrase's trigrams are intersected and
+ * the few remaining candidates are checked against their text
+ */
+public final class SearchIndex {
+
+    // separates the fields of a document so a phrase can't match across two of them
+    private static final char FIELD_SEPARATOR = '\n';
+
+    private final ConcurrentHashMap<AuctionedItem, String> documents = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Set<AuctionedItem>> postings = new ConcurrentHashMap<>();
+
+    /**
+     * Builds the text an item can be found by: its name, material, category, owner name, lore and enchantments
+     *
+     * @param auctionedItem is the item being indexed
+     * @return the normalized document of the item
+     */
+    public static String document(@NonNull AuctionedItem auctionedItem) {
+        StringBuilder builder = new StringBuilder();
+        appendField(builder, auctionedItem.getItemName());
+        appendField(builder, auctionedItem.getItemMaterial());
+        appendField(builder, auctionedItem.getCategory() == null ? null : auctionedItem.getCategory().getTranslatedType());
+        appendField(builder, auctionedItem.getOwnerName());
+        appendLines(builder, auctionedItem.getItemLore());
+        appendLines(builder, auctionedItem.getItemEnchants());
+        return builder.toString();
+    }
+
+    public void add(@NonNull AuctionedItem auctionedItem, @NonNull String document) {
+        this.documents.put(auctionedItem, document);
+        for (long trigram : trigrams(document)) {
+            this.postings.compute(trigram, (key, posting) -> {
+                if (posting == null) posting = ConcurrentHashMap.newKeySet();
+                posting.add(auctionedItem);
+                return posting;
+            });
+        }
+    }
+
+    public void remove(@NonNull AuctionedItem auctionedItem, @NonNull String document) {
+        this.documents.remove(auctionedItem, document);
+        for (long trigram : trigrams(document)) {
+            this.postings.computeIfPresent(trigram, (key, posting) -> {
+                posting.remove(auctionedItem);
+                return posting.isEmpty() ? null : posting;
+            });
+        }
+    }
+
+    public void clear() {
+        this.documents.clear();
+        this.postings.clear();
+    }
+
+    /**
+     * Find every indexed item whose text contains the phrase, colors and case are ignored
+     *
+     * @param phrase is what is being searched for
+     * @return the matching items
+     */
+    public Set<AuctionedItem> search(@NonNull String phrase) {
+        final String needle = normalize(phrase);
+        final Set<AuctionedItem> found = new HashSet<>();
+
+        final Set<Long> trigrams = trigrams(needle);
+        if (trigrams.isEmpty()) {
+            // too short to have a trigram, so every document has to be checked
+            this.documents.forEach((item, document) -> {
+                if (document.contains(needle)) found.add(item);
+            });
+            return found;
+        }
+
+        final List<Set<AuctionedItem>> lists = new ArrayList<>(trigrams.size());
+        for (long trigram : trigrams) {
+            Set<AuctionedItem> posting = this.postings.get(trigram);
+            if (posting == null) return found;
+            lists.add(posting);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+
+        outer:
+        for (AuctionedItem item : lists.get(0)) {
+            for (int i = 1; i < lists.size(); i++) {
+                if (!lists.get(i).contains(item)) continue outer;
+            }
+            // sharing every trigram doesn't mean the trigrams are in the right order
+            if (matches(item, needle)) found.add(item);
+        }
+        return found;
+    }
+
+    private boolean matches(AuctionedItem item, String needle) {
+        String document = this.documents.get(item);
+        return document != null && document.contains(needle);
+    }
+
+    private static void appendField(StringBuilder builder, String field) {
+        if (builder.length() != 0) builder.append(FIELD_SEPARATOR);
+        if (field != null) builder.append(normalize(field));
+    }
+
+    // lore and enchantments are stored as serialized lines, each line becomes its own field
+    private static void appendLines(StringBuilder builder, String lines) {
+        if (lines == null) return;
+        for (String line : lines.split(";=;")) appendField(builder, line);
+    }
+
+    private static String normalize(String text) {
+        String stripped = ChatColor.stripColor(text);
+        return (stripped == null ? text : stripped).toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<Long> trigrams(String text) {
+        final Set<Long> trigrams = new HashSet<>();
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            char a = text.charAt(i), b = text.charAt(i + 1), c = text.charAt(i + 2);
+            if (a == FIELD_SEPARATOR || b == FIELD_SEPARATOR || c == FIELD_SEPARATOR) continue;
+            trigrams.add(((long) a << 32) | ((long) b << 16) | c);
+        }
+        return trigrams;
+    }
+}
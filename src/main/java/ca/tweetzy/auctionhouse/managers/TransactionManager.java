@@ -1,11 +1,22 @@
 package ca.tweetzy.auctionhouse.managers;
 
 import ca.tweetzy.auctionhouse.AuctionHouse;
+import ca.tweetzy.auctionhouse.database.Callback;
+import ca.tweetzy.auctionhouse.database.UpdateCallback;
 import ca.tweetzy.auctionhouse.transaction.Transaction;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 /**
@@ -13,51 +24,181 @@ import java.util.stream.Collectors;
  * Date Created: March 22 2021
  * Time Created: 3:34 p.m.
  * Usage of any code found within this class is prohibited unless given explicit permission otherwise
+ *
+ * Transaction history stays in the database and is read a page at a time, only the most
+ * recently viewed pages and the amount each player bought and sold are kept in memory
  */
 public class TransactionManager {
 
-    private final ConcurrentHashMap<UUID, Transaction> transactions = new ConcurrentHashMap<>();
+    private static final int PAGE_CACHE_SIZE = 64;
+
     private final ConcurrentHashMap<Player, UUID> prePurchaseHolding = new ConcurrentHashMap<>();
 
+    // settled auctions waiting to be written, everything that ends within the same tick goes in one batch
+    private final ConcurrentLinkedQueue<Transaction> pendingInserts = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean insertScheduled = new AtomicBoolean(false);
+
+    @Getter
+    private final PlayerTransactionIndex index = new PlayerTransactionIndex();
+
+    private final Map<PageKey, List<Transaction>> pages = new LinkedHashMap<PageKey, List<Transaction>>(16, 0.75F, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<PageKey, List<Transaction>> eldest) {
+            return size() > PAGE_CACHE_SIZE;
+        }
+    };
+    // bumped whenever cached pages are dropped, so a read that started before can't cache a stale page
+    private final AtomicLong pageEpoch = new AtomicLong();
+
+    // the index only knows every player's counts once they were read from the database
+    private volatile boolean loaded;
+    // transactions up to this time are counted by the database, the index only adds the ones after it
+    private volatile long countedUntil = Long.MIN_VALUE;
+
     public void addTransaction(Transaction transaction) {
         if (transaction == null) return;
-        this.transactions.put(transaction.getId(), transaction);
+        if (transaction.getTransactionTime() > this.countedUntil) this.index.add(transaction);
+        // new transactions are the newest, so only the first pages they show up on change
+        invalidatePages(key -> key.afterId == null && key.involves(transaction));
+    }
+
+    /**
+     * Queues a transaction to be inserted with any others recorded
+     * in the same tick, it is added once the batch was written
+     *
+     * @param transaction is the transaction being recorded
+     */
+    public void recordTransaction(Transaction transaction) {
+        this.pendingInserts.add(transaction);
+        if (this.insertScheduled.compareAndSet(false, true)) {
+            Bukkit.getServer().getScheduler().runTaskLaterAsynchronously(AuctionHouse.getInstance(), this::insertPending, 1L);
+        }
     }
 
+    private void insertPending() {
+        this.insertScheduled.set(false);
+
+        final List<Transaction> batch = new ArrayList<>();
+        Transaction transaction;
+        while ((transaction = this.pendingInserts.poll()) != null) {
+            batch.add(transaction);
+        }
+
+        if (batch.isEmpty()) return;
+        AuctionHouse.getInstance().getDataManager().insertTransactionsAsync(batch, (error, inserted) -> {
+            if (error == null) {
+                inserted.forEach(this::addTransaction);
+            } else {
+                AuctionHouse.getInstance().getLogger().warning("Could not record " + batch.size() + " transaction(s): " + error.getMessage());
+            }
+        });
+    }
+
+    public void removeTransaction(Transaction transaction) {
+        if (transaction == null) return;
+        this.index.remove(transaction);
+        invalidatePages(key -> key.involves(transaction));
+    }
+
+    /**
+     * Deletes transactions from the database, they are removed from the counts and the cached pages once that was committed
+     *
+     * @param transactions is the transactions being deleted
+     * @param callback     is called once the delete has been committed or rolled back
+     */
+    public void deleteTransactions(Collection<Transaction> transactions, UpdateCallback callback) {
+        final List<Transaction> deleted = new ArrayList<>(transactions);
+        AuctionHouse.getInstance().getDataManager().deleteTransactions(deleted.stream().map(Transaction::getId).collect(Collectors.toList()), error -> {
+            if (error == null) deleted.forEach(this::removeTransaction);
+            if (callback != null) callback.accept(error);
+        });
+    }
+
+    /**
+     * @deprecated transactions are no longer kept in memory, this reads the transaction from the database
+     * on the calling thread. Use {@link #getPage(UUID, Transaction, int, Callback)} instead
+     */
+    @Deprecated
     public void removeTransaction(UUID uuid) {
-        this.transactions.remove(uuid);
+        removeTransaction(getTransaction(uuid));
     }
 
+    /**
+     * @deprecated transactions are no longer kept in memory, this reads the transaction from the database
+     * on the calling thread. Use {@link #getPage(UUID, Transaction, int, Callback)} instead
+     */
+    @Deprecated
     public Transaction getTransaction(UUID uuid) {
-        return this.transactions.getOrDefault(uuid, null);
+        final AtomicReference<Transaction> found = new AtomicReference<>();
+        AuctionHouse.getInstance().getDataManager().getTransaction(uuid, (error, transaction) -> {
+            if (error == null) found.set(transaction);
+            else AuctionHouse.getInstance().getLogger().warning("Could not read transaction " + uuid + ": " + error.getMessage());
+        });
+        return found.get();
     }
 
+    /**
+     * @deprecated transactions are no longer kept in memory, this reads the whole table from the database
+     * on the calling thread and changes to the returned map aren't kept. Use {@link #getPage(UUID, Transaction, int, Callback)} instead
+     */
+    @Deprecated
     public ConcurrentHashMap<UUID, Transaction> getTransactions() {
-        return this.transactions;
+        final ConcurrentHashMap<UUID, Transaction> transactions = new ConcurrentHashMap<>();
+        AuctionHouse.getInstance().getDataManager().getTransactions((error, results) -> {
+            if (error == null) results.forEach(transaction -> transactions.put(transaction.getId(), transaction));
+            else AuctionHouse.getInstance().getLogger().warning("Could not read the transactions: " + error.getMessage());
+        });
+        return transactions;
     }
 
-    public int getTotalItemsBought(UUID buyer) {
-        int total = 0;
-        Iterator<Map.Entry<UUID, Transaction>> iterator = this.transactions.entrySet().iterator();
-        while (iterator.hasNext()) {
-            Map.Entry<UUID, Transaction> entry = iterator.next();
-            if (entry.getValue().getBuyer().equals(buyer)) {
-                total++;
-            }
+    /**
+     * Gets a page of transactions, newest first. A page is continued from the last transaction of the previous one,
+     * the callback runs on the calling thread if the page was cached and on a database thread otherwise
+     *
+     * @param player   is whose transactions are shown, null shows everyone's
+     * @param after    is the last transaction of the previous page, null for the first page
+     * @param limit    is the most transactions on the page
+     * @param callback receives the page
+     */
+    public void getPage(UUID player, Transaction after, int limit, Callback<List<Transaction>> callback) {
+        // someone who never traded has nothing to read
+        if (player != null && after == null && this.loaded && this.index.isEmpty(player)) {
+            callback.accept(null, Collections.emptyList());
+            return;
+        }
+
+        final PageKey key = new PageKey(player, after == null ? 0 : after.getTransactionTime(), after == null ? null : after.getId(), limit);
+
+        List<Transaction> cached;
+        synchronized (this.pages) {
+            cached = this.pages.get(key);
         }
-        return total;
+
+        if (cached != null) {
+            callback.accept(null, cached);
+            return;
+        }
+
+        final long epoch = this.pageEpoch.get();
+        AuctionHouse.getInstance().getDataManager().getTransactionPage(player, after, limit, (error, page) -> {
+            if (error == null) {
+                final List<Transaction> result = Collections.unmodifiableList(page);
+                synchronized (this.pages) {
+                    if (this.pageEpoch.get() == epoch) this.pages.put(key, result);
+                }
+                callback.accept(null, result);
+            } else {
+                callback.accept(error, null);
+            }
+        });
+    }
+
+    public int getTotalItemsBought(UUID buyer) {
+        return this.index.getBought(buyer);
     }
 
     public int getTotalItemsSold(UUID seller) {
-        int total = 0;
-        Iterator<Map.Entry<UUID, Transaction>> iterator = this.transactions.entrySet().iterator();
-        while (iterator.hasNext()) {
-            Map.Entry<UUID, Transaction> entry = iterator.next();
-            if (entry.getValue().getSeller().equals(seller)) {
-                total++;
-            }
-        }
-        return total;
+        return this.index.getSold(seller);
     }
 
     public void addPrePurchase(Player player, UUID uuid) {
@@ -77,12 +218,35 @@ public class TransactionManager {
     }
 
     public void loadTransactions() {
-        AuctionHouse.getInstance().getDataManager().getTransactions((error, results) -> {
+        // the count can finish after new transactions were added, so it stops where the index takes over
+        final long snapshot = System.currentTimeMillis();
+        this.countedUntil = snapshot;
+        AuctionHouse.getInstance().getDataManager().getTransactionCounts(snapshot, (error, results) -> {
             if (error == null) {
-                for (Transaction transaction : results) {
-                    addTransaction(transaction);
-                }
+                results.forEach((player, counts) -> this.index.seed(player, counts[0], counts[1]));
+                this.loaded = true;
             }
         });
     }
+
+    private void invalidatePages(Predicate<PageKey> predicate) {
+        synchronized (this.pages) {
+            this.pageEpoch.incrementAndGet();
+            this.pages.keySet().removeIf(predicate);
+        }
+    }
+
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    private static final class PageKey {
+
+        private final UUID player;
+        private final long afterTime;
+        private final UUID afterId;
+        private final int limit;
+
+        private boolean involves(Transaction transaction) {
+            return this.player == null || this.player.equals(transaction.getSeller()) || this.player.equals(transaction.getBuyer());
+        }
+    }
 }
@@ -58,6 +58,7 @@ public class LocaleSettings {
         languageNodes.put("pricing.maxstartingprice", "&cThe maximum starting bid price is &a$%price%");
         languageNodes.put("pricing.maxbidincrementprice", "&cThe maximum bid increment is &a$%price%");
         languageNodes.put("pricing.basepricetoolow", "&cThe buy now price must be higher than the starting bid.");
+        languageNodes.put("pricing.suggestion", "&7This item usually sells for &a$%suggested_low% &7- &a$%suggested_high% &7(median &a$%suggested_median%&7)");
         languageNodes.put("pricing.moneyremove", "&c&l- $%price% &7(%player_balance%)");
         languageNodes.put("pricing.moneyadd", "&a&l+ $%price% &7(%player_balance%)");
         languageNodes.put("pricing.bidmusthigherthanprevious", "&cYour bid must be higher than &4%current_bid%");
@@ -108,6 +109,7 @@ public class LocaleSettings {
         languageNodes.put("auction_filter.categories.search", "Search");
         languageNodes.put("auction_filter.sort_order.recent", "Recent");
         languageNodes.put("auction_filter.sort_order.price", "Price");
+        languageNodes.put("auction_filter.sort_order.unit_price", "Unit Price");
 
         languageNodes.put("auction.listed.withbid", "&eListed &fx%amount% &6%item% &e&lBuy Now&f: &a%base_price% &e&lStarting&f: &a%start_price% &e&lIncrement&f: &a%increment_price%");
         languageNodes.put("auction.listed.nobid", "&eListed &fx%amount% &6%item% &efor &a%base_price%");
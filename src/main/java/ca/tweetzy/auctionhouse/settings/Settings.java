@@ -71,6 +71,11 @@ public class Settings {
     public static final ConfigSetting ALLOW_USAGE_OF_BUY_NOW_SYSTEM = new ConfigSetting(config, "auction setting.allow buy now system usage", true, "Should players be allowed to use the right-click buy now feature on biddable items?");
     public static final ConfigSetting AUTO_SAVE_ENABLED = new ConfigSetting(config, "auction setting.auto save.enabled", true, "Should the auto save task be enabled?");
     public static final ConfigSetting AUTO_SAVE_EVERY = new ConfigSetting(config, "auction setting.auto save.time", 900, "How often should the auto save active? (in seconds. Ex. 900 = 15min)");
+    public static final ConfigSetting METRICS_EXPORT_ENABLED = new ConfigSetting(config, "auction setting.metrics export.enabled", true, "Should the plugin write its performance metrics to metrics.prom in the plugin folder?", "The file uses the Prometheus text format, so it can be picked up by the node exporter textfile collector");
+    public static final ConfigSetting METRICS_EXPORT_EVERY = new ConfigSetting(config, "auction setting.metrics export.time", 30, "How often should the metrics file be written? (in seconds)");
+    public static final ConfigSetting DECODED_ITEM_CACHE_SIZE = new ConfigSetting(config, "auction setting.decoded item cache size", 2000, "How many listed items should be kept decoded in memory at once?", "Items outside of this are decoded again when they are viewed, lower this if memory is tight");
+    public static final ConfigSetting VIEW_CACHE_SIZE = new ConfigSetting(config, "auction setting.view cache size", 32, "How many filtered and sorted auction house views should be kept between market changes?", "Views are shared by everyone looking at the same filter, sort and search");
+    public static final ConfigSetting COMPRESS_STORED_ITEMS = new ConfigSetting(config, "auction setting.compress stored items", true, "Should larger items (ex. shulkers, books) be compressed before they are saved?", "Items saved either way can always be read back");
     public static final ConfigSetting ALLOW_PURCHASE_OF_SPECIFIC_QUANTITIES = new ConfigSetting(config, "auction setting.allow purchase of specific quantities", false, "When a buy now item is right-clicked should it open a", "special gui to specify the quantity of items to buy from the stack?");
     public static final ConfigSetting USE_REFRESH_COOL_DOWN = new ConfigSetting(config, "auction setting.use refresh cool down", true, "Should the refresh cooldown be enabled?");
     public static final ConfigSetting REFRESH_COOL_DOWN = new ConfigSetting(config, "auction setting.refresh cool down", 2, "How many seconds should pass before the player can refresh the auction house again?");
@@ -212,6 +217,7 @@ public class Settings {
     public static final ConfigSetting DATABASE_NAME = new ConfigSetting(config, "database.name", "plugin_dev", "What is the name of the database?");
     public static final ConfigSetting DATABASE_USERNAME = new ConfigSetting(config, "database.username", "root", "What is the name of the user connecting?");
     public static final ConfigSetting DATABASE_PASSWORD = new ConfigSetting(config, "database.password", "Password1.", "What is the password to the user connecting?");
+    public static final ConfigSetting DATABASE_MAX_CONNECTIONS = new ConfigSetting(config, "database.max connections", 10, "How many connections can the database pool hand out? (this should match your pool size)", "These are split between player actions, background saves and loading");
     public static final ConfigSetting DATABASE_USE_SSL = new ConfigSetting(config, "database.use ssl", true, "Should the database connection use ssl?");
 
 
@@ -734,6 +740,19 @@ public class Settings {
             "&7Click to edit the price"
     ));
 
+    public static final ConfigSetting GUI_SELL_ITEMS_PRICE_SUGGESTION_ITEM = new ConfigSetting(config, "gui.sell.items.price suggestion.item", XMaterial.GOLD_NUGGET.name());
+    public static final ConfigSetting GUI_SELL_ITEMS_PRICE_SUGGESTION_NAME = new ConfigSetting(config, "gui.sell.items.price suggestion.name", "&e&lSuggested Price");
+    public static final ConfigSetting GUI_SELL_ITEMS_PRICE_SUGGESTION_LORE = new ConfigSetting(config, "gui.sell.items.price suggestion.lore", Arrays.asList(
+            "&7Based on &e%suggested_sales% &7past sales of this item",
+            "",
+            "&7Low&f: &a$%suggested_low%",
+            "&7Median&f: &a$%suggested_median%",
+            "&7High&f: &a$%suggested_high%",
+            "",
+            "&7Click to use the median price"
+    ));
+    public static final ConfigSetting GUI_SELL_ITEMS_PRICE_SUGGESTION_NO_DATA_LORE = new ConfigSetting(config, "gui.sell.items.price suggestion.no data lore", Collections.singletonList("&7This item hasn't sold often enough yet"));
+
     public static final ConfigSetting GUI_SELL_ITEMS_LIST_TIME_ITEM = new ConfigSetting(config, "gui.sell.items.list time.item", XMaterial.CLOCK.name());
     public static final ConfigSetting GUI_SELL_ITEMS_LIST_TIME_NAME = new ConfigSetting(config, "gui.sell.items.list time.name", "&e&lListing Time");
     public static final ConfigSetting GUI_SELL_ITEMS_LIST_TIME_LORE = new ConfigSetting(config, "gui.sell.items.list time.lore", Arrays.asList(
@@ -791,6 +810,17 @@ public class Settings {
             "&7Money Spent: &a$%auctions_money_spent%"
     ));
 
+    public static final ConfigSetting GUI_STATS_ITEMS_MARKET_ITEM = new ConfigSetting(config, "gui.stats.items.market.item", XMaterial.GOLD_INGOT.name());
+    public static final ConfigSetting GUI_STATS_ITEMS_MARKET_NAME = new ConfigSetting(config, "gui.stats.items.market.name", "&e&lMarket &7(&f%material%&7)");
+    public static final ConfigSetting GUI_STATS_ITEMS_MARKET_LORE = new ConfigSetting(config, "gui.stats.items.market.lore", Arrays.asList(
+            "&7Hold an item to see its market",
+            "",
+            "&7Sold (1h / 24h / 7d): &e%volume_1h% &7/ &e%volume_24h% &7/ &e%volume_7d%",
+            "&7Median Price (24h): &a$%median_24h%",
+            "&7Price Range (24h): &a$%p25_24h% &7- &a$%p75_24h%",
+            "&7Sell Through (24h): &e%sell_through_24h%%"
+    ));
+
 
     /*  ===============================
      *         ITEM ADMIN GUI
@@ -1,6 +1,7 @@
 package ca.tweetzy.auctionhouse.tasks;
 
 import ca.tweetzy.auctionhouse.AuctionHouse;
+import ca.tweetzy.auctionhouse.database.DatabaseExecutor;
 import ca.tweetzy.auctionhouse.settings.Settings;
 import ca.tweetzy.core.utils.TextUtils;
 import org.bukkit.Bukkit;
@@ -26,9 +27,11 @@ public class AutoSaveTask extends BukkitRunnable {
 
     @Override
     public void run() {
-        AuctionHouse.getInstance().getDataManager().updateItems(AuctionHouse.getInstance().getAuctionItemManager().getItems().values(), null);
-        AuctionHouse.getInstance().getDataManager().updateStats(AuctionHouse.getInstance().getAuctionStatManager().getStats(), null);
+        AuctionHouse.getInstance().getDataManager().getExecutor().execute(DatabaseExecutor.Lane.BULK, () -> {
+            AuctionHouse.getInstance().getAuctionStatManager().saveStats();
+            AuctionHouse.getInstance().getLocale().newMessage(TextUtils.formatText("&aAuto saved auction stats & filter whitelist")).sendPrefixedMessage(Bukkit.getConsoleSender());
+        });
         AuctionHouse.getInstance().getFilterManager().saveFilterWhitelist(true);
-        AuctionHouse.getInstance().getLocale().newMessage(TextUtils.formatText("&aAuto saved auction items & transactions")).sendPrefixedMessage(Bukkit.getConsoleSender());
+        AuctionHouse.getInstance().getPriceSuggestionManager().saveSketches();
     }
 }
@@ -0,0 +1,65 @@
+package ca.tweetzy.auctionhouse.tasks;
+
+import ca.tweetzy.auctionhouse.AuctionHouse;
+import ca.tweetzy.auctionhouse.database.DatabaseExecutor;
+import ca.tweetzy.auctionhouse.managers.AuctionItemManager;
+import ca.tweetzy.auctionhouse.settings.Settings;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The current file has been created by Kiran Hart
+ * Date Created: October 18 2026
+ * Time Created: 2:14 p.m.
+ * Usage of any code found within this class is prohibited unless given explicit permission otherwise
+ *
+ * Writes changed auction items back to the database every second on the bulk lane, the batch size is
+ * scaled so that everything that is dirty gets written within one auto save interval
+ * instead of rewriting the whole auction table at once
+ */
+public class FlushItemsTask extends BukkitRunnable {
+
+    private static final int MIN_BATCH_SIZE = 25;
+    private static final long MAX_JOURNAL_SIZE = 8 * 1024 * 1024;
+
+    private static FlushItemsTask instance;
+
+    public static FlushItemsTask startTask() {
+        if (instance == null) {
+            instance = new FlushItemsTask();
+            instance.runTaskTimerAsynchronously(AuctionHouse.getInstance(), 20 * 5, 20);
+        }
+        return instance;
+    }
+
+    // a flush that is still queued on the bulk lane covers whatever changed since, so never queue a second one
+    private final AtomicBoolean queued = new AtomicBoolean(false);
+
+    @Override
+    public void run() {
+        if (!this.queued.compareAndSet(false, true)) return;
+
+        AuctionHouse.getInstance().getDataManager().getExecutor().execute(DatabaseExecutor.Lane.BULK, () -> {
+            try {
+                flush();
+            } finally {
+                this.queued.set(false);
+            }
+        });
+    }
+
+    private void flush() {
+        final AuctionItemManager auctionItemManager = AuctionHouse.getInstance().getAuctionItemManager();
+
+        final int dirty = auctionItemManager.getDirtyCount();
+        if (dirty != 0) {
+            final int interval = Math.max(1, Settings.AUTO_SAVE_EVERY.getInt());
+            // a busy market may never drain on its own, write everything once the journal gets too big so it can be truncated
+            final boolean journalFull = auctionItemManager.getJournal().getSize() > MAX_JOURNAL_SIZE;
+            auctionItemManager.flushDirtyItems(journalFull ? Integer.MAX_VALUE : Math.max(MIN_BATCH_SIZE, (dirty + interval - 1) / interval));
+        }
+
+        auctionItemManager.checkpoint();
+    }
+}
@@ -0,0 +1,436 @@
+package ca.tweetzy.auctionhouse.tasks;
+
+import ca.tweetzy.auctionhouse.AuctionHouse;
+import ca.tweetzy.auctionhouse.api.MarketEconomy;
+import ca.tweetzy.auctionhouse.auction.AuctionedItem;
+import ca.tweetzy.auctionhouse.database.DatabaseExecutor;
+import ca.tweetzy.auctionhouse.helpers.MaterialCategorizer;
+import ca.tweetzy.auctionhouse.managers.AuctionItemManager;
+import ca.tweetzy.auctionhouse.managers.MarketActions;
+import ca.tweetzy.auctionhouse.managers.MarketLoop;
+import ca.tweetzy.auctionhouse.settings.Settings;
+import ca.tweetzy.auctionhouse.transaction.Transaction;
+import ca.tweetzy.core.compatibility.XMaterial;
+import ca.tweetzy.core.utils.TextUtils;
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The current file has been created by Kiran Hart
+ * Date Created: October 18 2026
+ * Time Created: 8:42 a.m.
+ * Usage of any code found within this class is prohibited unless given explicit permission otherwise
+ *
+ * Drives the market with synthetic sellers and buyers to see how the database and the tick hold up. Listings are
+ * inserted first, then bids and buy now purchases run at the given rates while the auction tick ends listings as usual.
+ * Bids and purchases go through the same market commands as the confirmation menus, events included, only the money
+ * comes from an economy that always has enough for the synthetic players, auctions they win are paid from it too.
+ * The synthetic players are registered with the item manager, which hides their listings from players and keeps their
+ * trades out of the statistics, market analytics, price suggestions and discord alerts. The listings and transactions
+ * the test created are removed again once it's done
+ */
+public class LoadTestTask extends BukkitRunnable {
+
+    private static final int SELLERS = 100;
+    // listings are only submitted while the interactive lane has room, so the main thread never ends up running them
+    private static final int MAX_LISTINGS_PER_TICK = 50;
+    private static final int MAX_QUEUED_LISTINGS = 256;
+    // purchases record their transaction a couple of ticks later, these are looked up once they all should have been written
+    private static final long TRANSACTION_CLEANUP_DELAY = 100L;
+    private static final int TRANSACTION_PAGE_SIZE = 500;
+    private static final String BUYER_NAME = "LoadTestBuyer";
+
+    // the synthetic players can always pay, and are never paid anything
+    private static final MarketEconomy ECONOMY = new MarketEconomy() {
+        @Override
+        public boolean hasBalance(OfflinePlayer player, double amount) {
+            return true;
+        }
+
+        @Override
+        public double getBalance(OfflinePlayer player) {
+            return Double.MAX_VALUE;
+        }
+
+        @Override
+        public void withdraw(OfflinePlayer player, double amount) {
+        }
+
+        @Override
+        public void deposit(OfflinePlayer player, double amount) {
+        }
+    };
+
+    private static final XMaterial[] MATERIALS = {
+            XMaterial.DIAMOND, XMaterial.IRON_INGOT, XMaterial.GOLD_INGOT, XMaterial.EMERALD, XMaterial.COBBLESTONE,
+            XMaterial.OAK_LOG, XMaterial.BREAD, XMaterial.DIAMOND_SWORD, XMaterial.BOW, XMaterial.ENCHANTED_BOOK
+    };
+
+    private static volatile LoadTestTask running;
+
+    public static LoadTestTask getRunning() {
+        return running;
+    }
+
+    /**
+     * @return false if a load test is already running
+     */
+    public static synchronized boolean start(CommandSender sender, int listings, double bidsPerSecond, double buysPerSecond, int durationSeconds) {
+        if (running != null) return false;
+        running = new LoadTestTask(sender, listings, bidsPerSecond, buysPerSecond, durationSeconds);
+        running.runTaskTimer(AuctionHouse.getInstance(), 1L, 1L);
+        return true;
+    }
+
+    /**
+     * Ends the running load test early, it still cleans up and reports what it measured
+     *
+     * @return false if no load test is running
+     */
+    public static synchronized boolean stop() {
+        if (running == null) return false;
+        running.phase = Phase.CLEANUP;
+        return true;
+    }
+
+    private enum Phase {
+        LISTING, MARKET, CLEANUP
+    }
+
+    private final CommandSender sender;
+    private final int listings;
+    private final double bidsPerTick;
+    private final double buysPerTick;
+    private final long durationMillis;
+
+    private final UUID[] sellers = new UUID[SELLERS];
+    private final UUID buyer;
+    private final OfflinePlayer buyerPlayer;
+
+    private final Set<UUID> items = ConcurrentHashMap.newKeySet();
+    // filled from the database threads, drained into the pools on the main thread
+    private final Queue<AuctionedItem> inserted = new ConcurrentLinkedQueue<>();
+    private final List<AuctionedItem> bidPool = new ArrayList<>();
+    private final List<AuctionedItem> buyPool = new ArrayList<>();
+
+    private final Recorder listingLatency = new Recorder();
+    private final Recorder bidLatency = new Recorder();
+    private final Recorder buyLatency = new Recorder();
+    private final Recorder tickDuration = new Recorder();
+    private final AtomicInteger failedListings = new AtomicInteger();
+    private final AtomicInteger failedBids = new AtomicInteger();
+    private final AtomicInteger failedBuys = new AtomicInteger();
+
+    private final int[] maxQueueDepth = new int[DatabaseExecutor.Lane.values().length];
+    private final long[] totalQueueDepth = new long[DatabaseExecutor.Lane.values().length];
+    private long samples;
+
+    private volatile Phase phase = Phase.LISTING;
+    // set before the cleanup looks for what to remove, anything confirmed later removes itself
+    private volatile boolean finished;
+    private int submitted;
+    private double bidCarry;
+    private double buyCarry;
+    private long startedAt;
+    private long marketStartedAt;
+    private long marketEndedAt;
+    private long lastTickRun = -1;
+
+    private LoadTestTask(CommandSender sender, int listings, double bidsPerSecond, double buysPerSecond, int durationSeconds) {
+        this.sender = sender;
+        this.listings = listings;
+        this.bidsPerTick = bidsPerSecond / 20D;
+        this.buysPerTick = buysPerSecond / 20D;
+        this.durationMillis = TimeUnit.SECONDS.toMillis(durationSeconds);
+
+        // name based ids so they can never belong to a real account
+        final String run = "AuctionHouse-LoadTest:" + System.currentTimeMillis() + ":";
+        final AuctionItemManager auctionItemManager = AuctionHouse.getInstance().getAuctionItemManager();
+        for (int i = 0; i < SELLERS; i++) {
+            this.sellers[i] = UUID.nameUUIDFromBytes((run + i).getBytes(StandardCharsets.UTF_8));
+            auctionItemManager.addSyntheticPlayer(this.sellers[i], ECONOMY);
+        }
+        this.buyer = UUID.nameUUIDFromBytes((run + "buyer").getBytes(StandardCharsets.UTF_8));
+        auctionItemManager.addSyntheticPlayer(this.buyer, ECONOMY);
+        this.buyerPlayer = Bukkit.getOfflinePlayer(this.buyer);
+    }
+
+    @Override
+    public void run() {
+        if (this.startedAt == 0) this.startedAt = System.currentTimeMillis();
+        sample();
+
+        switch (this.phase) {
+            case LISTING:
+                list();
+                break;
+            case MARKET:
+                trade();
+                break;
+            case CLEANUP:
+                cleanup();
+                break;
+        }
+    }
+
+    private void sample() {
+        final DatabaseExecutor executor = AuctionHouse.getInstance().getDataManager().getExecutor();
+        for (DatabaseExecutor.Lane lane : DatabaseExecutor.Lane.values()) {
+            final int depth = executor.getLane(lane).getQueueDepth();
+            this.maxQueueDepth[lane.ordinal()] = Math.max(this.maxQueueDepth[lane.ordinal()], depth);
+            this.totalQueueDepth[lane.ordinal()] += depth;
+        }
+        this.samples++;
+
+        final TickAuctionsTask tickTask = TickAuctionsTask.getInstance();
+        if (tickTask != null && tickTask.getRuns() != this.lastTickRun) {
+            // the first reading is a run from before the test started
+            if (this.lastTickRun != -1) this.tickDuration.record(tickTask.getLastRunNanos());
+            this.lastTickRun = tickTask.getRuns();
+        }
+    }
+
+    private void list() {
+        final DatabaseExecutor.LaneExecutor lane = AuctionHouse.getInstance().getDataManager().getExecutor().getLane(DatabaseExecutor.Lane.INTERACTIVE);
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        for (int i = 0; i < MAX_LISTINGS_PER_TICK && this.submitted < this.listings && lane.getQueueDepth() < MAX_QUEUED_LISTINGS; i++) {
+            final AuctionedItem auctionedItem = createListing(random);
+            this.items.add(auctionedItem.getId());
+            this.submitted++;
+
+            final long started = System.nanoTime();
+            AuctionHouse.getInstance().getDataManager().insertAuctionAsync(auctionedItem, (error, item) -> {
+                this.listingLatency.record(System.nanoTime() - started);
+                if (error != null) {
+                    this.failedListings.incrementAndGet();
+                    this.items.remove(auctionedItem.getId());
+                    return;
+                }
+                // the listing joins the market on the market loop, like one listed by a player
+                MarketLoop.getInstance().submit(() -> {
+                    AuctionHouse.getInstance().getAuctionItemManager().addAuctionItem(item);
+                    if (this.finished) {
+                        AuctionHouse.getInstance().getAuctionItemManager().sendToGarbage(item);
+                        return;
+                    }
+                    this.inserted.add(item);
+                });
+            });
+        }
+
+        drainInserted();
+        if (this.listingLatency.getCount() == this.listings) {
+            this.phase = Phase.MARKET;
+            this.marketStartedAt = System.currentTimeMillis();
+        }
+    }
+
+    private AuctionedItem createListing(ThreadLocalRandom random) {
+        final int seller = random.nextInt(SELLERS);
+        final ItemStack item = MATERIALS[random.nextInt(MATERIALS.length)].parseItem();
+        item.setAmount(1 + random.nextInt(item.getMaxStackSize()));
+
+        final boolean isBidItem = random.nextBoolean();
+        final double price = Math.floor(Math.pow(10, 1 + random.nextDouble() * 4));
+        // spread over the test so the tick expires listings the whole time
+        final long expiresAt = System.currentTimeMillis() + (long) (this.durationMillis * (0.25 + random.nextDouble() * 1.25));
+
+        return new AuctionedItem(
+                UUID.randomUUID(),
+                this.sellers[seller],
+                this.sellers[seller],
+                "LoadTest" + seller,
+                "LoadTest" + seller,
+                MaterialCategorizer.getMaterialCategory(item),
+                item,
+                price,
+                isBidItem ? price / 2 : 0,
+                isBidItem ? 1 : 0,
+                isBidItem ? price / 2 : price,
+                isBidItem,
+                false,
+                expiresAt
+        );
+    }
+
+    private void drainInserted() {
+        AuctionedItem item;
+        while ((item = this.inserted.poll()) != null) {
+            (item.isBidItem() ? this.bidPool : this.buyPool).add(item);
+        }
+    }
+
+    private void trade() {
+        drainInserted();
+        if (System.currentTimeMillis() - this.marketStartedAt >= this.durationMillis) {
+            this.phase = Phase.CLEANUP;
+            return;
+        }
+
+        this.bidCarry += this.bidsPerTick;
+        for (; this.bidCarry >= 1; this.bidCarry--) {
+            final AuctionedItem item = take(this.bidPool, false);
+            if (item == null) break;
+
+            // what a player would enter to bid one increment more
+            final double increment = Math.max(1, item.getBidIncrementPrice());
+            final double bid = Settings.USE_REALISTIC_BIDDING.getBoolean() ? item.getCurrentPrice() + increment : increment;
+
+            // measured until the bid ran, that includes waiting behind other market commands
+            final long started = System.nanoTime();
+            MarketLoop.getInstance().execute(() -> {
+                if (MarketActions.getInstance().placeBid(this.buyerPlayer, BUYER_NAME, item, bid, ECONOMY) != MarketActions.Result.DONE) {
+                    this.failedBids.incrementAndGet();
+                }
+                this.bidLatency.record(System.nanoTime() - started);
+            });
+        }
+
+        this.buyCarry += this.buysPerTick;
+        for (; this.buyCarry >= 1; this.buyCarry--) {
+            final AuctionedItem item = take(this.buyPool, true);
+            if (item == null) break;
+
+            final long started = System.nanoTime();
+            MarketLoop.getInstance().execute(() -> {
+                if (MarketActions.getInstance().buyNow(this.buyerPlayer, item, -1, 0, ECONOMY) != MarketActions.Result.DONE) {
+                    this.failedBuys.incrementAndGet();
+                }
+                this.buyLatency.record(System.nanoTime() - started);
+            });
+        }
+    }
+
+    /**
+     * Picks a random listing that is still on the auction house, the ones that expired are dropped from the pool
+     */
+    private AuctionedItem take(List<AuctionedItem> pool, boolean remove) {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (!pool.isEmpty()) {
+            final int index = random.nextInt(pool.size());
+            final AuctionedItem item = pool.get(index);
+            final boolean available = AuctionHouse.getInstance().getAuctionItemManager().isListed(item);
+
+            if (!available || remove) {
+                // swap with the last one so removing stays cheap
+                pool.set(index, pool.get(pool.size() - 1));
+                pool.remove(pool.size() - 1);
+            }
+            if (available) return item;
+        }
+        return null;
+    }
+
+    private void cleanup() {
+        cancel();
+        this.finished = true;
+        this.marketEndedAt = System.currentTimeMillis();
+        if (this.marketStartedAt == 0) this.marketStartedAt = this.marketEndedAt;
+
+        final AuctionItemManager auctionItemManager = AuctionHouse.getInstance().getAuctionItemManager();
+        // queued behind the bids and purchases that are still waiting, so the report counts them
+        MarketLoop.getInstance().execute(() -> {
+            int expired = 0;
+            for (UUID id : this.items) {
+                final AuctionedItem item = auctionItemManager.getItem(id);
+                if (item == null) continue;
+                if (item.isExpired()) expired++;
+                // the auction tick deletes these like any other garbage
+                auctionItemManager.sendToGarbage(item);
+            }
+            report(expired);
+        });
+
+        Bukkit.getServer().getScheduler().runTaskLater(AuctionHouse.getInstance(), () -> deleteTransactions(null, new ArrayList<>()), TRANSACTION_CLEANUP_DELAY);
+        synchronized (LoadTestTask.class) {
+            running = null;
+        }
+    }
+
+    /**
+     * Every purchase was made by the synthetic buyer, so its history is exactly what the test recorded
+     */
+    private void deleteTransactions(Transaction after, List<Transaction> found) {
+        AuctionHouse.getInstance().getTransactionManager().getPage(this.buyer, after, TRANSACTION_PAGE_SIZE, (error, page) -> {
+            if (error != null) {
+                AuctionHouse.getInstance().getLogger().warning("Could not read the load test transactions: " + error.getMessage());
+                return;
+            }
+
+            found.addAll(page);
+            if (page.size() == TRANSACTION_PAGE_SIZE) {
+                deleteTransactions(page.get(page.size() - 1), found);
+                return;
+            }
+
+            if (found.isEmpty()) return;
+            AuctionHouse.getInstance().getTransactionManager().deleteTransactions(found, deleteError -> {
+                if (deleteError != null) AuctionHouse.getInstance().getLogger().warning("Could not delete the " + found.size() + " load test transaction(s)");
+            });
+        });
+    }
+
+    private void report(int expired) {
+        final double listingSeconds = Math.max(1, this.marketStartedAt - this.startedAt) / 1000D;
+        final double marketSeconds = Math.max(1, this.marketEndedAt - this.marketStartedAt) / 1000D;
+
+        send("&eLoad test finished&7, &f" + this.items.size() + " &7listing(s) cleaned up");
+        send(String.format("&elistings&7: &f%d &7in &f%.1fs&7, &f%.1f&7/s, &f%d &7failed, %s", this.listingLatency.getCount(), listingSeconds, this.listingLatency.getCount() / listingSeconds, this.failedListings.get(), this.listingLatency.describe()));
+        send(String.format("&ebids&7: &f%d &7in &f%.1fs&7, &f%.1f&7/s, &f%d &7failed, %s", this.bidLatency.getCount(), marketSeconds, this.bidLatency.getCount() / marketSeconds, this.failedBids.get(), this.bidLatency.describe()));
+        send(String.format("&ebuys&7: &f%d &7in &f%.1fs&7, &f%.1f&7/s, &f%d &7failed, %s", this.buyLatency.getCount(), marketSeconds, this.buyLatency.getCount() / marketSeconds, this.failedBuys.get(), this.buyLatency.describe()));
+        send(String.format("&eexpirations&7: &f%d &7in &f%.1fs&7, &f%.1f&7/s", expired, marketSeconds, expired / marketSeconds));
+        send(String.format("&etick&7: &f%d &7run(s), %s", this.tickDuration.getCount(), this.tickDuration.describe()));
+
+        for (DatabaseExecutor.Lane lane : DatabaseExecutor.Lane.values()) {
+            send(String.format("&e%s queue&7: avg &f%.1f &7max &f%d", lane.name().toLowerCase(), this.totalQueueDepth[lane.ordinal()] / (double) Math.max(1, this.samples), this.maxQueueDepth[lane.ordinal()]));
+        }
+    }
+
+    private void send(String message) {
+        final CommandSender receiver = this.sender instanceof Player && !((Player) this.sender).isOnline() ? Bukkit.getConsoleSender() : this.sender;
+        AuctionHouse.getInstance().getLocale().newMessage(TextUtils.formatText(message)).sendPrefixedMessage(receiver);
+    }
+
+    /**
+     * Keeps every measurement, a load test records at most a few hundred thousand of them
+     */
+    private static final class Recorder {
+
+        private long[] values = new long[64];
+        private int count;
+
+        private synchronized void record(long nanos) {
+            if (this.count == this.values.length) this.values = Arrays.copyOf(this.values, this.count * 2);
+            this.values[this.count++] = nanos;
+        }
+
+        private synchronized int getCount() {
+            return this.count;
+        }
+
+        private synchronized String describe() {
+            if (this.count == 0) return "no samples";
+
+            final long[] sorted = Arrays.copyOf(this.values, this.count);
+            Arrays.sort(sorted);
+            return String.format("p50 &f%.2fms &7p99 &f%.2fms &7max &f%.2fms", millis(sorted, 0.5), millis(sorted, 0.99), sorted[sorted.length - 1] / 1_000_000D);
+        }
+
+        private static double millis(long[] sorted, double quantile) {
+            return sorted[(int) Math.min(sorted.length - 1, Math.floor(quantile * sorted.length))] / 1_000_000D;
+        }
+    }
+}
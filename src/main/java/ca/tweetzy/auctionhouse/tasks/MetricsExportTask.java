@@ -0,0 +1,55 @@
+package ca.tweetzy.auctionhouse.tasks;
+
+import ca.tweetzy.auctionhouse.AuctionHouse;
+import ca.tweetzy.auctionhouse.managers.MetricsManager;
+import ca.tweetzy.auctionhouse.settings.Settings;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.logging.Level;
+
+/**
+ * The current file has been created by Kiran Hart
+ * Date Created: October 18 2026
+ * Time Created: 11:59 p.m.
+ * Usage of any code found within this class is prohibited unless given explicit permission otherwise
+ *
+ * Writes the metrics to metrics.prom in the plugin folder. The file is replaced in one move so
+ * whatever scrapes it never reads a half written file
+ */
+public class MetricsExportTask extends BukkitRunnable {
+
+    private static MetricsExportTask instance;
+
+    public static MetricsExportTask startTask() {
+        if (instance == null) {
+            instance = new MetricsExportTask();
+            final long period = (long) 20 * Math.max(1, Settings.METRICS_EXPORT_EVERY.getInt());
+            instance.runTaskTimerAsynchronously(AuctionHouse.getInstance(), period, period);
+        }
+        return instance;
+    }
+
+    private final File file = new File(AuctionHouse.getInstance().getDataFolder(), "metrics.prom");
+    private boolean warned;
+
+    @Override
+    public void run() {
+        final File temp = new File(this.file.getParentFile(), this.file.getName() + ".tmp");
+        try {
+            Files.write(temp.toPath(), MetricsManager.getInstance().toPrometheus().getBytes(StandardCharsets.UTF_8));
+            Files.move(temp.toPath(), this.file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            this.warned = false;
+        } catch (IOException e) {
+            // the next run tries again, there is no point in filling the log every few seconds
+            if (!this.warned) {
+                this.warned = true;
+                AuctionHouse.getInstance().getLogger().log(Level.WARNING, "Could not write the metrics file", e);
+            }
+        }
+    }
+}
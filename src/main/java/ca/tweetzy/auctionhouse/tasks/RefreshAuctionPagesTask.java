@@ -0,0 +1,58 @@
+package ca.tweetzy.auctionhouse.tasks;
+
+import ca.tweetzy.auctionhouse.AuctionHouse;
+import ca.tweetzy.auctionhouse.guis.AuctionView;
+import ca.tweetzy.auctionhouse.guis.GUIAuctionHouse;
+import ca.tweetzy.auctionhouse.settings.Settings;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The current file has been created by Kiran Hart
+ * Date Created: October 18 2026
+ * Time Created: 12:32 a.m.
+ * Usage of any code found within this class is prohibited unless given explicit permission otherwise
+ *
+ * Refreshes every open auction house in one go. The open menus are grouped by what they show, each
+ * view is looked up once and every menu showing it only draws its own page and buttons from it
+ */
+public class RefreshAuctionPagesTask extends BukkitRunnable {
+
+    private static RefreshAuctionPagesTask instance;
+
+    private static final Set<GUIAuctionHouse> viewers = ConcurrentHashMap.newKeySet();
+
+    public static RefreshAuctionPagesTask startTask() {
+        if (instance == null) {
+            instance = new RefreshAuctionPagesTask();
+            instance.runTaskTimerAsynchronously(AuctionHouse.getInstance(), 0, (long) 20 * Settings.TICK_UPDATE_GUI_TIME.getInt());
+        }
+        return instance;
+    }
+
+    public static void register(GUIAuctionHouse gui) {
+        viewers.add(gui);
+    }
+
+    public static void unregister(GUIAuctionHouse gui) {
+        viewers.remove(gui);
+    }
+
+    @Override
+    public void run() {
+        if (viewers.isEmpty()) return;
+
+        final Map<AuctionView.Key, List<GUIAuctionHouse>> byView = new HashMap<>();
+        // menus are unregistered when they close, and their keys are computed on the main thread when they draw
+        for (GUIAuctionHouse viewer : viewers) {
+            byView.computeIfAbsent(viewer.getViewKey(), key -> new ArrayList<>()).add(viewer);
+        }
+
+        byView.forEach((key, showing) -> {
+            final AuctionView view = AuctionView.get(key);
+            showing.forEach(viewer -> viewer.refresh(view));
+        });
+    }
+}
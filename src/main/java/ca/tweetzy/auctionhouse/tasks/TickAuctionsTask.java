@@ -2,21 +2,20 @@ package ca.tweetzy.auctionhouse.tasks;
 
 import ca.tweetzy.auctionhouse.AuctionHouse;
 import ca.tweetzy.auctionhouse.api.AuctionAPI;
+import ca.tweetzy.auctionhouse.api.MarketEconomy;
 import ca.tweetzy.auctionhouse.api.events.AuctionEndEvent;
 import ca.tweetzy.auctionhouse.auction.AuctionSaleType;
-import ca.tweetzy.auctionhouse.auction.AuctionStat;
 import ca.tweetzy.auctionhouse.auction.AuctionedItem;
+import ca.tweetzy.auctionhouse.managers.AuctionItemManager;
+import ca.tweetzy.auctionhouse.managers.MarketLoop;
+import ca.tweetzy.auctionhouse.managers.MetricsManager;
 import ca.tweetzy.auctionhouse.settings.Settings;
-import ca.tweetzy.core.hooks.EconomyManager;
 import ca.tweetzy.core.utils.PlayerUtils;
+import lombok.Getter;
 import org.bukkit.Bukkit;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.scheduler.BukkitRunnable;
-import org.checkerframework.checker.units.qual.A;
-
-import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * The current file has been created by Kiran Hart
@@ -36,32 +35,44 @@ public class TickAuctionsTask extends BukkitRunnable {
         return instance;
     }
 
+    public static TickAuctionsTask getInstance() {
+        return instance;
+    }
+
+    // only written by the task itself, which never runs twice at once
+    @Getter
+    private volatile long runs;
+    @Getter
+    private volatile long lastRunNanos;
+
     @Override
     public void run() {
+        final long started = System.nanoTime();
+        try {
+            tick();
+        } finally {
+            this.lastRunNanos = System.nanoTime() - started;
+            this.runs++;
+            MetricsManager.getInstance().getTickDuration().recordNanos(this.lastRunNanos);
+        }
+    }
 
-        Set<Map.Entry<UUID, AuctionedItem>> entrySet = AuctionHouse.getInstance().getAuctionItemManager().getItems().entrySet();
-        Iterator<Map.Entry<UUID, AuctionedItem>> auctionItemIterator = entrySet.iterator();
+    private void tick() {
+        final AuctionItemManager auctionItemManager = AuctionHouse.getInstance().getAuctionItemManager();
 
-        while (auctionItemIterator.hasNext()) {
-            Map.Entry<UUID, AuctionedItem> entry = auctionItemIterator.next();
-            AuctionedItem auctionItem = entry.getValue();
-            ItemStack itemStack = auctionItem.getItem();
+        auctionItemManager.deleteGarbage(true);
 
-            if (!AuctionHouse.getInstance().getAuctionItemManager().getGarbageBin().keySet().isEmpty()) {
-                AuctionHouse.getInstance().getDataManager().deleteItems(AuctionHouse.getInstance().getAuctionItemManager().getGarbageBin().values().stream().map(AuctionedItem::getId).collect(Collectors.toList()));
-            }
-
-            if (AuctionHouse.getInstance().getAuctionItemManager().getGarbageBin().containsKey(auctionItem.getId())) {
-                AuctionHouse.getInstance().getAuctionItemManager().getGarbageBin().remove(auctionItem.getId());
-                auctionItemIterator.remove();
-                continue;
-            }
+        // only the items that are due, or close enough to be broadcast, need to be looked at
+        final long now = System.currentTimeMillis();
+        final long horizon = Settings.BROADCAST_AUCTION_ENDING.getBoolean() ? now + 1000L * (Settings.BROADCAST_AUCTION_ENDING_AT_TIME.getInt() + 1) : now + 1000L;
 
+        for (AuctionedItem auctionItem : auctionItemManager.getItemsExpiringBefore(horizon)) {
             long timeRemaining = (auctionItem.getExpiresAt() - System.currentTimeMillis()) / 1000;
 
             if (!auctionItem.isExpired()) {
                 if (Settings.BROADCAST_AUCTION_ENDING.getBoolean()) {
                     if (timeRemaining <= Settings.BROADCAST_AUCTION_ENDING_AT_TIME.getInt() && timeRemaining % 10 == 0 && timeRemaining != 0) {
+                        ItemStack itemStack = auctionItem.getItem();
                         Bukkit.getOnlinePlayers().forEach(player -> AuctionHouse.getInstance().getLocale().getMessage("auction.broadcast.ending")
                                 .processPlaceholder("item", AuctionAPI.getInstance().getItemName(itemStack))
                                 .processPlaceholder("seconds", timeRemaining)
@@ -70,72 +81,85 @@ public class TickAuctionsTask extends BukkitRunnable {
                 }
             }
 
+            // the scan only finds the auctions that are due, ending them is a change to the market like any other
             if (timeRemaining <= 0 && !auctionItem.isExpired()) {
-                if (auctionItem.getHighestBidder().equals(auctionItem.getOwner())) {
-                    auctionItem.setExpired(true);
-                    if (auctionItem.isExpired()) {
-                        AuctionHouse.getInstance().getAuctionStatManager().insertOrUpdate(Bukkit.getOfflinePlayer(auctionItem.getOwner()), new AuctionStat<>(
-                                0, 0, 1, 0D, 0D
-                        ));
-                    }
-                    continue;
-                }
+                MarketLoop.getInstance().submit(() -> endAuction(auctionItem));
+            }
+        }
+    }
 
-                OfflinePlayer auctionWinner = Bukkit.getOfflinePlayer(auctionItem.getHighestBidder());
+    private void endAuction(AuctionedItem auctionItem) {
+        final AuctionItemManager auctionItemManager = AuctionHouse.getInstance().getAuctionItemManager();
 
-                double finalPrice = auctionItem.getCurrentPrice();
-                double tax = Settings.TAX_ENABLED.getBoolean() ? (Settings.TAX_SALES_TAX_AUCTION_WON_PERCENTAGE.getDouble() / 100) * auctionItem.getCurrentPrice() : 0D;
+        // it could have been bought, removed or bid on with extra time added since the scan saw it
+        if (!auctionItemManager.isListed(auctionItem) || auctionItem.getExpiresAt() > System.currentTimeMillis()) return;
 
-                if (!EconomyManager.hasBalance(auctionWinner, Settings.TAX_CHARGE_SALES_TAX_TO_BUYER.getBoolean() ? finalPrice + tax : finalPrice)) {
-                    auctionItem.setExpired(true);
-                    continue;
-                }
+        ItemStack itemStack = auctionItem.getItem();
 
-                AuctionEndEvent auctionEndEvent = new AuctionEndEvent(Bukkit.getOfflinePlayer(auctionItem.getOwner()), auctionWinner, auctionItem, AuctionSaleType.USED_BIDDING_SYSTEM);
-                AuctionHouse.getInstance().getServer().getPluginManager().callEvent(auctionEndEvent);
-                if (auctionEndEvent.isCancelled()) continue;
+        if (auctionItem.getHighestBidder().equals(auctionItem.getOwner())) {
+            auctionItem.setExpired(true);
+            if (auctionItem.isExpired() && !auctionItemManager.isSynthetic(auctionItem)) {
+                AuctionHouse.getInstance().getAuctionStatManager().insertOrUpdate(Bukkit.getOfflinePlayer(auctionItem.getOwner()), 0, 0, 1, 0D, 0D);
+            }
+            return;
+        }
 
+        OfflinePlayer auctionWinner = Bukkit.getOfflinePlayer(auctionItem.getHighestBidder());
+        // a load test's players are paid from its own economy, never the server's
+        final MarketEconomy winnerEconomy = auctionItemManager.getEconomy(auctionItem.getHighestBidder());
+        final MarketEconomy ownerEconomy = auctionItemManager.getEconomy(auctionItem.getOwner());
 
-                AuctionAPI.getInstance().withdrawBalance(auctionWinner, Settings.TAX_CHARGE_SALES_TAX_TO_BUYER.getBoolean() ? finalPrice + tax : finalPrice);
-                AuctionAPI.getInstance().depositBalance(Bukkit.getOfflinePlayer(auctionItem.getOwner()), Settings.TAX_CHARGE_SALES_TAX_TO_BUYER.getBoolean() ? finalPrice : finalPrice - tax);
+        double finalPrice = auctionItem.getCurrentPrice();
+        double tax = Settings.TAX_ENABLED.getBoolean() ? (Settings.TAX_SALES_TAX_AUCTION_WON_PERCENTAGE.getDouble() / 100) * auctionItem.getCurrentPrice() : 0D;
 
-                if (Bukkit.getOfflinePlayer(auctionItem.getOwner()).isOnline()) {
-                    AuctionHouse.getInstance().getLocale().getMessage("auction.itemsold")
-                            .processPlaceholder("item", AuctionAPI.getInstance().getItemName(itemStack))
-                            .processPlaceholder("amount", itemStack.getAmount())
-                            .processPlaceholder("price", AuctionAPI.getInstance().formatNumber(Settings.TAX_CHARGE_SALES_TAX_TO_BUYER.getBoolean() ? finalPrice : finalPrice - tax))
-                            .processPlaceholder("buyer_name", Bukkit.getOfflinePlayer(auctionItem.getHighestBidder()).getName())
-                            .sendPrefixedMessage(Bukkit.getOfflinePlayer(auctionItem.getOwner()).getPlayer());
-                    AuctionHouse.getInstance().getLocale().getMessage("pricing.moneyadd").processPlaceholder("player_balance", AuctionAPI.getInstance().formatNumber(EconomyManager.getBalance(Bukkit.getOfflinePlayer(auctionItem.getOwner())))).processPlaceholder("price", AuctionAPI.getInstance().formatNumber(Settings.TAX_CHARGE_SALES_TAX_TO_BUYER.getBoolean() ? finalPrice : finalPrice - tax)).sendPrefixedMessage(Bukkit.getOfflinePlayer(auctionItem.getOwner()).getPlayer());
-                }
+        if (!winnerEconomy.hasBalance(auctionWinner, Settings.TAX_CHARGE_SALES_TAX_TO_BUYER.getBoolean() ? finalPrice + tax : finalPrice)) {
+            auctionItem.setExpired(true);
+            return;
+        }
 
-                if (auctionWinner.isOnline()) {
-                    assert auctionWinner.getPlayer() != null;
-                    AuctionHouse.getInstance().getLocale().getMessage("auction.bidwon")
-                            .processPlaceholder("item", AuctionAPI.getInstance().getItemName(itemStack))
-                            .processPlaceholder("amount", itemStack.getAmount())
-                            .processPlaceholder("price", AuctionAPI.getInstance().formatNumber(Settings.TAX_CHARGE_SALES_TAX_TO_BUYER.getBoolean() ? finalPrice + tax : finalPrice))
-                            .sendPrefixedMessage(auctionWinner.getPlayer());
-                    AuctionHouse.getInstance().getLocale().getMessage("pricing.moneyremove").processPlaceholder("player_balance", AuctionAPI.getInstance().formatNumber(EconomyManager.getBalance(auctionWinner.getPlayer()))).processPlaceholder("price", AuctionAPI.getInstance().formatNumber(Settings.TAX_CHARGE_SALES_TAX_TO_BUYER.getBoolean() ? finalPrice + tax : finalPrice)).sendPrefixedMessage(auctionWinner.getPlayer());
-
-                    if (Settings.ALLOW_PURCHASE_IF_INVENTORY_FULL.getBoolean()) {
-                        PlayerUtils.giveItem(auctionWinner.getPlayer(), itemStack);
-                        auctionItemIterator.remove();
-                        continue;
-                    }
+        AuctionEndEvent auctionEndEvent = new AuctionEndEvent(Bukkit.getOfflinePlayer(auctionItem.getOwner()), auctionWinner, auctionItem, AuctionSaleType.USED_BIDDING_SYSTEM, false);
+        AuctionHouse.getInstance().getServer().getPluginManager().callEvent(auctionEndEvent);
+        if (auctionEndEvent.isCancelled()) return;
 
-                    if (auctionWinner.getPlayer().getInventory().firstEmpty() != -1) {
-                        PlayerUtils.giveItem(auctionWinner.getPlayer(), itemStack);
-                        auctionItemIterator.remove();
-                        continue;
-                    }
-                }
 
-                auctionItem.setOwner(auctionWinner.getUniqueId());
-                auctionItem.setHighestBidder(auctionWinner.getUniqueId());
-                auctionItem.setExpired(true);
+        winnerEconomy.withdraw(auctionWinner, Settings.TAX_CHARGE_SALES_TAX_TO_BUYER.getBoolean() ? finalPrice + tax : finalPrice);
+        ownerEconomy.deposit(Bukkit.getOfflinePlayer(auctionItem.getOwner()), Settings.TAX_CHARGE_SALES_TAX_TO_BUYER.getBoolean() ? finalPrice : finalPrice - tax);
+
+        if (Bukkit.getOfflinePlayer(auctionItem.getOwner()).isOnline()) {
+            AuctionHouse.getInstance().getLocale().getMessage("auction.itemsold")
+                    .processPlaceholder("item", AuctionAPI.getInstance().getItemName(itemStack))
+                    .processPlaceholder("amount", itemStack.getAmount())
+                    .processPlaceholder("price", AuctionAPI.getInstance().formatNumber(Settings.TAX_CHARGE_SALES_TAX_TO_BUYER.getBoolean() ? finalPrice : finalPrice - tax))
+                    .processPlaceholder("buyer_name", Bukkit.getOfflinePlayer(auctionItem.getHighestBidder()).getName())
+                    .sendPrefixedMessage(Bukkit.getOfflinePlayer(auctionItem.getOwner()).getPlayer());
+            AuctionHouse.getInstance().getLocale().getMessage("pricing.moneyadd").processPlaceholder("player_balance", AuctionAPI.getInstance().formatNumber(ownerEconomy.getBalance(Bukkit.getOfflinePlayer(auctionItem.getOwner())))).processPlaceholder("price", AuctionAPI.getInstance().formatNumber(Settings.TAX_CHARGE_SALES_TAX_TO_BUYER.getBoolean() ? finalPrice : finalPrice - tax)).sendPrefixedMessage(Bukkit.getOfflinePlayer(auctionItem.getOwner()).getPlayer());
+        }
+
+        if (auctionWinner.isOnline()) {
+            assert auctionWinner.getPlayer() != null;
+            AuctionHouse.getInstance().getLocale().getMessage("auction.bidwon")
+                    .processPlaceholder("item", AuctionAPI.getInstance().getItemName(itemStack))
+                    .processPlaceholder("amount", itemStack.getAmount())
+                    .processPlaceholder("price", AuctionAPI.getInstance().formatNumber(Settings.TAX_CHARGE_SALES_TAX_TO_BUYER.getBoolean() ? finalPrice + tax : finalPrice))
+                    .sendPrefixedMessage(auctionWinner.getPlayer());
+            AuctionHouse.getInstance().getLocale().getMessage("pricing.moneyremove").processPlaceholder("player_balance", AuctionAPI.getInstance().formatNumber(winnerEconomy.getBalance(auctionWinner))).processPlaceholder("price", AuctionAPI.getInstance().formatNumber(Settings.TAX_CHARGE_SALES_TAX_TO_BUYER.getBoolean() ? finalPrice + tax : finalPrice)).sendPrefixedMessage(auctionWinner.getPlayer());
+
+            if (Settings.ALLOW_PURCHASE_IF_INVENTORY_FULL.getBoolean()) {
+                PlayerUtils.giveItem(auctionWinner.getPlayer(), itemStack);
+                auctionItemManager.sendToGarbage(auctionItem);
+                return;
+            }
+
+            if (auctionWinner.getPlayer().getInventory().firstEmpty() != -1) {
+                PlayerUtils.giveItem(auctionWinner.getPlayer(), itemStack);
+                auctionItemManager.sendToGarbage(auctionItem);
+                return;
             }
         }
+
+        auctionItem.setOwner(auctionWinner.getUniqueId());
+        auctionItem.setHighestBidder(auctionWinner.getUniqueId());
+        auctionItem.setExpired(true);
     }
 
 }
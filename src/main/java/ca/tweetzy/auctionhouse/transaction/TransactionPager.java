@@ -0,0 +1,66 @@
+package ca.tweetzy.auctionhouse.transaction;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The current file has been created by Kiran Hart
+ * Date Created: October 18 2026
+ * Time Created: 7:48 a.m.
+ * Usage of any code found within this class is prohibited unless given explicit permission otherwise
+ *
+ * Keeps track of where each page of a newest first transaction list ends, so the next page
+ * can be read from the last transaction shown instead of counting an offset
+ */
+public final class TransactionPager {
+
+    private final int pageSize;
+
+    // the last transaction of every page that was read, the next page continues from it
+    private final List<Transaction> pageEnds = new ArrayList<>();
+    private int pages = 1;
+
+    public TransactionPager(int pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * @param page is the page about to be read, starting at 1. Every page before it must have been read
+     * @return the transaction the page continues from, null for the first page
+     */
+    public Transaction getAfter(int page) {
+        return page == 1 ? null : this.pageEnds.get(page - 2);
+    }
+
+    /**
+     * @return how many transactions to read for a page, one more than is shown to know if there is a next page
+     */
+    public int getReadLimit() {
+        return this.pageSize + 1;
+    }
+
+    /**
+     * Records what was read for a page. A page read again replaces its end and forgets the ends of the pages after
+     * it, since new or removed transactions may have moved where those start
+     *
+     * @param page is the page that was read
+     * @param read is what was read, at most {@link #getReadLimit()} transactions
+     * @return the transactions to show on the page
+     */
+    public List<Transaction> accept(int page, List<Transaction> read) {
+        final List<Transaction> shown = read.subList(0, Math.min(this.pageSize, read.size()));
+
+        while (this.pageEnds.size() >= page) this.pageEnds.remove(this.pageEnds.size() - 1);
+        if (!shown.isEmpty()) this.pageEnds.add(shown.get(shown.size() - 1));
+
+        this.pages = read.size() > this.pageSize ? page + 1 : page;
+        return shown;
+    }
+
+    /**
+     * @return how many pages are known to exist, one past the last page read if it had more after it
+     */
+    public int getPages() {
+        return this.pages;
+    }
+}
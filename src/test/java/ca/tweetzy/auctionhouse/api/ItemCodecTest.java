@@ -0,0 +1,101 @@
+package ca.tweetzy.auctionhouse.api;
+
+import ca.tweetzy.auctionhouse.standin.BukkitStandIn;
+import org.bukkit.Material;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.util.io.BukkitObjectOutputStream;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Base64;
+
+import static org.junit.Assert.*;
+
+/**
+ * The current file has been created by Kiran Hart
+ * Date Created: October 18 2026
+ * Time Created: 7:05 a.m.
+ * Usage of any code found within this class is prohibited unless given explicit permission otherwise
+ */
+public class ItemCodecTest {
+
+	@BeforeClass
+	public static void install() {
+		BukkitStandIn.install();
+	}
+
+	@Test
+	public void roundTripsAnItem() {
+		final ItemStack item = new ItemStack(Material.DIAMOND_SWORD);
+		final String encoded = AuctionAPI.encodeItem(item);
+
+		assertTrue(encoded.startsWith(AuctionAPI.BINARY_ITEM_PREFIX));
+		assertEquals(item, AuctionAPI.decodeItem(encoded));
+	}
+
+	@Test
+	public void roundTripsAFullStack() {
+		final ItemStack item = new ItemStack(Material.COBBLESTONE, 64);
+		final ItemStack decoded = AuctionAPI.decodeItem(AuctionAPI.encodeItem(item));
+
+		assertEquals(item, decoded);
+		assertEquals(64, decoded.getAmount());
+	}
+
+	@Test
+	public void decodesALegacyYamlItem() {
+		final ItemStack item = new ItemStack(Material.GOLDEN_APPLE, 3);
+		final YamlConfiguration config = new YamlConfiguration();
+		config.set("i", item);
+		final String legacy = config.saveToString();
+
+		assertFalse(AuctionAPI.isBinaryEncodedItem(legacy));
+		assertEquals(item, AuctionAPI.decodeItem(legacy));
+	}
+
+	@Test
+	public void takesLessRoomThanTheLegacyYaml() {
+		for (ItemStack item : new ItemStack[]{new ItemStack(Material.DIAMOND_SWORD), new ItemStack(Material.COBBLESTONE, 64), new ItemStack(Material.GOLDEN_APPLE, 3)}) {
+			final YamlConfiguration config = new YamlConfiguration();
+			config.set("i", item);
+
+			assertTrue(item.getType().name(), AuctionAPI.encodeItem(item).length() < config.saveToString().length());
+		}
+	}
+
+	@Test
+	public void decodesTheObjectStreamCodec() throws IOException {
+		final ItemStack item = new ItemStack(Material.GOLDEN_APPLE, 3);
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		// codec version 1 without any flags, followed by the bukkit object stream
+		bytes.write(1);
+		bytes.write(0);
+		try (BukkitObjectOutputStream stream = new BukkitObjectOutputStream(bytes)) {
+			stream.writeObject(item);
+		}
+
+		assertEquals(item, AuctionAPI.decodeItem(AuctionAPI.BINARY_ITEM_PREFIX + Base64.getEncoder().encodeToString(bytes.toByteArray())));
+	}
+
+	@Test
+	public void decodesNullAsNull() {
+		assertNull(AuctionAPI.decodeItem(null));
+	}
+
+	@Test
+	public void rejectsAnUnknownCodecVersion() {
+		final String encoded = AuctionAPI.encodeItem(new ItemStack(Material.DIAMOND));
+		final byte[] bytes = Base64.getDecoder().decode(encoded.substring(AuctionAPI.BINARY_ITEM_PREFIX.length()));
+		bytes[0] = 99;
+
+		assertNull(AuctionAPI.decodeItem(AuctionAPI.BINARY_ITEM_PREFIX + Base64.getEncoder().encodeToString(bytes)));
+	}
+
+	@Test
+	public void rejectsBrokenBase64() {
+		assertNull(AuctionAPI.decodeItem(AuctionAPI.BINARY_ITEM_PREFIX + "not base64!"));
+	}
+}
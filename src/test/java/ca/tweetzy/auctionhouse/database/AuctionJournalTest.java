@@ -0,0 +1,179 @@
+package ca.tweetzy.auctionhouse.database;
+
+import ca.tweetzy.auctionhouse.AuctionHouse;
+import ca.tweetzy.auctionhouse.auction.AuctionItemCategory;
+import ca.tweetzy.auctionhouse.auction.AuctionedItem;
+import ca.tweetzy.auctionhouse.standin.BukkitStandIn;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+import static org.junit.Assert.*;
+
+/**
+ * The current file has been created by Kiran Hart
+ * Date Created: October 18 2026
+ * Time Created: 6:41 a.m.
+ * Usage of any code found within this class is prohibited unless given explicit permission otherwise
+ */
+public class AuctionJournalTest {
+
+    private AuctionHouse plugin;
+    private File file;
+
+    @Before
+    public void setUp() {
+        this.plugin = BukkitStandIn.install();
+        this.file = new File(this.plugin.getDataFolder(), "auctions.journal");
+        this.file.delete();
+    }
+
+    @Test
+    public void replaysTheLastStateOfEachItem() {
+        final AuctionedItem kept = newItem(1, 100);
+        final AuctionedItem deleted = newItem(2, 50);
+
+        final AuctionJournal journal = new AuctionJournal(this.plugin);
+        journal.open();
+        journal.appendUpdate(kept, true);
+        journal.appendUpdate(deleted, true);
+        kept.setCurrentPrice(150);
+        journal.appendUpdate(kept, false);
+        journal.appendDelete(deleted.getId());
+        journal.close();
+
+        final Map<UUID, AuctionJournal.Entry> entries = new AuctionJournal(this.plugin).replay();
+        assertEquals(2, entries.size());
+
+        final AuctionJournal.Entry keptEntry = entries.get(kept.getId());
+        assertFalse(keptEntry.isDeleted());
+        assertEquals(150, keptEntry.getCurrentPrice(), 0);
+        // the later record left the stack out, the one from the first record is carried over
+        assertEquals(kept.getEncodedItem(), keptEntry.getEncodedItem());
+
+        assertTrue(entries.get(deleted.getId()).isDeleted());
+    }
+
+    @Test
+    public void replaysTheListingDetails() {
+        final AuctionedItem item = newItem(1, 100);
+        item.setCategory(AuctionItemCategory.TOOLS);
+        item.setListedWorld("world_nether");
+        item.setBidItem(true);
+
+        final AuctionJournal journal = new AuctionJournal(this.plugin);
+        journal.open();
+        journal.appendUpdate(item, false);
+        journal.close();
+
+        final AuctionJournal.Entry entry = new AuctionJournal(this.plugin).replay().get(item.getId());
+        assertEquals(AuctionItemCategory.TOOLS, entry.getCategory());
+        assertEquals("world_nether", entry.getListedWorld());
+        assertTrue(entry.isBidItem());
+    }
+
+    @Test
+    public void ignoresATornRecordAtTheEnd() throws IOException {
+        final UUID first = new UUID(0, 1);
+        final UUID second = new UUID(0, 2);
+        writeDeletes(first, second);
+
+        // the length and crc made it to disk but only half of the payload did
+        final byte[] payload = deletePayload(new UUID(0, 3));
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(this.file, true))) {
+            out.writeInt(payload.length);
+            out.writeInt(crc(payload));
+            out.write(payload, 0, payload.length / 2);
+        }
+
+        final Map<UUID, AuctionJournal.Entry> entries = new AuctionJournal(this.plugin).replay();
+        assertEquals(2, entries.size());
+        assertTrue(entries.containsKey(first));
+        assertTrue(entries.containsKey(second));
+    }
+
+    @Test
+    public void ignoresATornLengthAtTheEnd() throws IOException {
+        final UUID first = new UUID(0, 1);
+        writeDeletes(first);
+
+        try (FileOutputStream out = new FileOutputStream(this.file, true)) {
+            out.write(new byte[]{0, 0});
+        }
+
+        final Map<UUID, AuctionJournal.Entry> entries = new AuctionJournal(this.plugin).replay();
+        assertEquals(1, entries.size());
+        assertTrue(entries.containsKey(first));
+    }
+
+    @Test
+    public void stopsAtARecordWithABadChecksum() throws IOException {
+        final UUID first = new UUID(0, 1);
+        writeDeletes(first);
+
+        final byte[] corrupt = deletePayload(new UUID(0, 2));
+        final byte[] after = deletePayload(new UUID(0, 3));
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(this.file, true))) {
+            out.writeInt(corrupt.length);
+            out.writeInt(crc(corrupt) ^ 1);
+            out.write(corrupt);
+            out.writeInt(after.length);
+            out.writeInt(crc(after));
+            out.write(after);
+        }
+
+        final Map<UUID, AuctionJournal.Entry> entries = new AuctionJournal(this.plugin).replay();
+        assertEquals(1, entries.size());
+        assertTrue(entries.containsKey(first));
+    }
+
+    @Test
+    public void checkpointDropsEverythingItCovers() {
+        final AuctionJournal journal = new AuctionJournal(this.plugin);
+        journal.open();
+        journal.appendDelete(new UUID(0, 1));
+        journal.appendDelete(new UUID(0, 2));
+        journal.checkpoint(journal.getLastSequence());
+        journal.close();
+
+        assertTrue(new AuctionJournal(this.plugin).replay().isEmpty());
+        assertEquals(0, this.file.length());
+    }
+
+    private void writeDeletes(UUID... ids) {
+        final AuctionJournal journal = new AuctionJournal(this.plugin);
+        journal.open();
+        for (UUID id : ids) journal.appendDelete(id);
+        journal.close();
+    }
+
+    private static byte[] deletePayload(UUID id) {
+        final ByteBuffer payload = ByteBuffer.allocate(17);
+        payload.put((byte) 2);
+        payload.putLong(id.getMostSignificantBits());
+        payload.putLong(id.getLeastSignificantBits());
+        return payload.array();
+    }
+
+    private static int crc(byte[] payload) {
+        final CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private static AuctionedItem newItem(long id, double price) {
+        final UUID owner = new UUID(1, id);
+        return new AuctionedItem(new UUID(0, id), owner, owner, "Seller" + id, "Seller" + id, AuctionItemCategory.WEAPONS,
+                new ItemStack(Material.DIAMOND_SWORD), price, 0, 0, price, false, false, System.currentTimeMillis() + 60_000);
+    }
+}
@@ -0,0 +1,94 @@
+package ca.tweetzy.auctionhouse.managers;
+
+import ca.tweetzy.auctionhouse.auction.AuctionedItem;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import static org.junit.Assert.*;
+
+/**
+ * The current file has been created by Kiran Hart
+ * Date Created: October 18 2026
+ * Time Created: 7:22 a.m.
+ * Usage of any code found within this class is prohibited unless given explicit permission otherwise
+ */
+public class SearchIndexTest {
+
+    private SearchIndex index;
+    private AuctionedItem sword;
+    private AuctionedItem pickaxe;
+    private AuctionedItem bread;
+
+    @Before
+    public void setUp() {
+        this.index = new SearchIndex();
+        this.sword = add("\u00a7bSharp Sword", "DIAMOND_SWORD", "Kiran", "Forged in the nether;=;Very sharp", "DAMAGE_ALL:5");
+        this.pickaxe = add("Miner's Pick", "DIAMOND_PICKAXE", "Steve", "", "DIG_SPEED:4");
+        this.bread = add("Bread", "BREAD", "Alex", "Fresh from the oven", "");
+    }
+
+    @Test
+    public void findsASubstringOfAnyField() {
+        assertEquals(Collections.singleton(this.sword), this.index.search("nether"));
+        assertEquals(Collections.singleton(this.pickaxe), this.index.search("steve"));
+        assertEquals(new HashSet<>(Arrays.asList(this.sword, this.pickaxe)), this.index.search("diamond_"));
+    }
+
+    @Test
+    public void ignoresCaseAndColors() {
+        assertEquals(Collections.singleton(this.sword), this.index.search("SHARP SWORD"));
+        assertEquals(Collections.singleton(this.sword), this.index.search("\u00a7bSHARP"));
+    }
+
+    @Test
+    public void searchesShortPhrasesWithoutTrigrams() {
+        assertEquals(Collections.singleton(this.bread), this.index.search("ex"));
+        assertEquals(new HashSet<>(Arrays.asList(this.sword, this.pickaxe, this.bread)), this.index.search("e"));
+    }
+
+    @Test
+    public void doesNotMatchAcrossFields() {
+        // the lore lines "nether" and "very" are next to each other in the document
+        assertTrue(this.index.search("nether very").isEmpty());
+        assertTrue(this.index.search("sword diamond").isEmpty());
+    }
+
+    @Test
+    public void doesNotMatchTrigramsOutOfOrder() {
+        final AuctionedItem item = new AuctionedItem();
+        this.index.add(item, "xabcx bcdex");
+
+        // every trigram of the phrase is in the document, but never in a row
+        assertTrue(this.index.search("abcde").isEmpty());
+        assertEquals(Collections.singleton(item), this.index.search("abcx bcd"));
+    }
+
+    @Test
+    public void forgetsRemovedItems() {
+        this.index.remove(this.sword, SearchIndex.document(this.sword));
+
+        assertTrue(this.index.search("nether").isEmpty());
+        assertTrue(this.index.search("sw").isEmpty());
+        assertEquals(Collections.singleton(this.pickaxe), this.index.search("diamond"));
+    }
+
+    @Test
+    public void clearDropsEverything() {
+        this.index.clear();
+
+        assertTrue(this.index.search("diamond").isEmpty());
+        assertTrue(this.index.search("e").isEmpty());
+    }
+
+    private AuctionedItem add(String name, String material, String ownerName, String lore, String enchants) {
+        final AuctionedItem item = new AuctionedItem();
+        item.setOwnerName(ownerName);
+        item.setStoredItem("", 1, material, name, lore, enchants);
+        this.index.add(item, SearchIndex.document(item));
+        return item;
+    }
+}
@@ -0,0 +1,279 @@
+package ca.tweetzy.auctionhouse.standin;
+
+import ca.tweetzy.auctionhouse.AuctionHouse;
+import ca.tweetzy.auctionhouse.managers.AuctionItemManager;
+import ca.tweetzy.core.configuration.Config;
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.Server;
+import org.bukkit.UnsafeValues;
+import org.bukkit.craftbukkit.v1_17_R1.StandInServerFactory;
+import org.bukkit.inventory.ItemFactory;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.plugin.PluginDescriptionFile;
+import org.bukkit.plugin.PluginLogger;
+import org.bukkit.plugin.java.JavaPlugin;
+import sun.misc.Unsafe;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.logging.Logger;
+
+/**
+ * The current file has been created by Kiran Hart
+ * Date Created: October 18 2026
+ * Time Created: 11:12 p.m.
+ * Usage of any code found within this class is prohibited unless given explicit permission otherwise
+ *
+ * A stand in for the parts of Bukkit the tests and benchmarks touch. The server, item factory and item meta are
+ * proxies that answer the handful of calls the plugin makes and return empty values for everything else, and the
+ * plugin instance is allocated without running the plugin loader so the settings resolve to their defaults
+ */
+public final class BukkitStandIn {
+
+    // the data version of 1.17, stored with every encoded item
+    private static final int DATA_VERSION = 2724;
+
+    private static AuctionHouse plugin;
+
+    private BukkitStandIn() {
+    }
+
+    public static synchronized AuctionHouse install() {
+        if (plugin != null) return plugin;
+
+        try {
+            final Logger logger = Logger.getLogger("AuctionHouse-StandIn");
+            final ItemFactory itemFactory = proxy(ItemFactory.class, BukkitStandIn::handleItemFactory);
+            final UnsafeValues unsafeValues = proxy(UnsafeValues.class, (method, args) -> {
+                switch (method.getName()) {
+                    case "getDataVersion":
+                        return DATA_VERSION;
+                    case "getMaterial":
+                        return Material.getMaterial((String) args[0]);
+                    default:
+                        return defaultValue(method);
+                }
+            });
+
+            final Server server = StandInServerFactory.create(new StandInHandler((method, args) -> {
+                switch (method.getName()) {
+                    case "getLogger":
+                        return logger;
+                    case "getName":
+                        return "StandIn";
+                    case "getVersion":
+                        return "git-StandIn (MC: 1.17)";
+                    case "getBukkitVersion":
+                        return "1.17-R0.1-SNAPSHOT";
+                    case "getItemFactory":
+                        return itemFactory;
+                    case "getUnsafe":
+                        return unsafeValues;
+                    default:
+                        return defaultValue(method);
+                }
+            }));
+            Bukkit.setServer(server);
+
+            plugin = allocatePlugin(server);
+            return plugin;
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not install the Bukkit stand in", e);
+        }
+    }
+
+    public static void useAuctionItemManager(AuctionItemManager auctionItemManager) {
+        try {
+            setField(AuctionHouse.class, install(), "auctionItemManager", auctionItemManager);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * JavaPlugin refuses to be constructed outside of a plugin class loader, so the instance is allocated
+     * directly and only the fields the plugin reads while under test are filled in
+     */
+    private static AuctionHouse allocatePlugin(Server server) throws Exception {
+        final Field theUnsafe = Unsafe.class.getDeclaredField("theUnsafe");
+        theUnsafe.setAccessible(true);
+        final AuctionHouse instance = (AuctionHouse) ((Unsafe) theUnsafe.get(null)).allocateInstance(AuctionHouse.class);
+
+        final File dataFolder = Files.createTempDirectory("auctionhouse-standin").toFile();
+        dataFolder.deleteOnExit();
+
+        setField(JavaPlugin.class, instance, "server", server);
+        setField(JavaPlugin.class, instance, "dataFolder", dataFolder);
+        setField(JavaPlugin.class, instance, "description", new PluginDescriptionFile("AuctionHouse", "standin", AuctionHouse.class.getName()));
+        setField(JavaPlugin.class, instance, "logger", new PluginLogger(instance));
+        setField(AuctionHouse.class, null, "instance", instance);
+
+        // the core config is a field of the core plugin class, nothing is ever loaded into it so every setting keeps its default
+        for (Class<?> type = AuctionHouse.class.getSuperclass(); type != JavaPlugin.class; type = type.getSuperclass()) {
+            for (Field field : type.getDeclaredFields()) {
+                if (field.getType() != Config.class) continue;
+                field.setAccessible(true);
+                field.set(instance, new Config(instance, "config.yml"));
+            }
+        }
+        return instance;
+    }
+
+    private static Object handleItemFactory(Method method, Object[] args) {
+        switch (method.getName()) {
+            case "getItemMeta":
+                return newItemMeta(null, null);
+            case "isApplicable":
+                return true;
+            case "asMetaFor":
+                return args[0];
+            case "equals":
+                return Objects.equals(metaState(args[0]), metaState(args[1]));
+            default:
+                return defaultValue(method);
+        }
+    }
+
+    /**
+     * An item meta that only knows its display name and lore, which is all the plugin reads or writes
+     * on the items it lists. A meta with neither is the same as no meta at all
+     */
+    @SuppressWarnings("unchecked")
+    private static ItemMeta newItemMeta(String initialName, List<String> initialLore) {
+        final MetaState state = new MetaState(initialName, initialLore);
+        final StandInHandler handler = new StandInHandler((method, args) -> {
+            switch (method.getName()) {
+                case "hasDisplayName":
+                    return state.displayName != null;
+                case "getDisplayName":
+                    return state.displayName == null ? "" : state.displayName;
+                case "setDisplayName":
+                    state.displayName = (String) args[0];
+                    return null;
+                case "hasLore":
+                    return state.lore != null && !state.lore.isEmpty();
+                case "getLore":
+                    return state.lore == null ? null : new ArrayList<>(state.lore);
+                case "setLore":
+                    state.lore = args[0] == null ? null : new ArrayList<>((List<String>) args[0]);
+                    return null;
+                case "clone":
+                    return newItemMeta(state.displayName, state.lore);
+                case "serialize":
+                    return state.serialize();
+                default:
+                    return defaultValue(method);
+            }
+        });
+        handler.state = state;
+        return (ItemMeta) Proxy.newProxyInstance(BukkitStandIn.class.getClassLoader(), new Class<?>[]{ItemMeta.class}, handler);
+    }
+
+    private static MetaState metaState(Object meta) {
+        if (!(meta instanceof ItemMeta) || !Proxy.isProxyClass(meta.getClass())) return MetaState.EMPTY;
+        final InvocationHandler handler = Proxy.getInvocationHandler(meta);
+        return handler instanceof StandInHandler && ((StandInHandler) handler).state instanceof MetaState ? (MetaState) ((StandInHandler) handler).state : MetaState.EMPTY;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Answer answer) {
+        return (T) Proxy.newProxyInstance(BukkitStandIn.class.getClassLoader(), new Class<?>[]{type}, new StandInHandler(answer));
+    }
+
+    private static Object defaultValue(Method method) {
+        final Class<?> type = method.getReturnType();
+        if (type == boolean.class) return false;
+        if (type == int.class) return 0;
+        if (type == long.class) return 0L;
+        if (type == double.class) return 0D;
+        if (type == float.class) return 0F;
+        if (type == short.class) return (short) 0;
+        if (type == byte.class) return (byte) 0;
+        if (type == char.class) return (char) 0;
+        if (type == String.class) return "";
+        if (type == List.class || type == Collection.class) return Collections.emptyList();
+        if (type == Set.class) return Collections.emptySet();
+        if (type == Map.class) return Collections.emptyMap();
+        return null;
+    }
+
+    private static void setField(Class<?> owner, Object target, String name, Object value) throws ReflectiveOperationException {
+        final Field field = owner.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+
+    @FunctionalInterface
+    private interface Answer {
+        Object answer(Method method, Object[] args) throws Throwable;
+    }
+
+    private static final class StandInHandler implements InvocationHandler {
+
+        private final Answer answer;
+        // the state behind a stand in meta, so the item factory can compare two of them
+        private Object state;
+
+        private StandInHandler(Answer answer) {
+            this.answer = answer;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) {
+                switch (method.getName()) {
+                    case "equals":
+                        return proxy == args[0] || (this.state != null && this.state.equals(metaState(args[0])));
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    default:
+                        return "StandIn" + proxy.getClass().getInterfaces()[0].getSimpleName();
+                }
+            }
+            return this.answer.answer(method, args);
+        }
+    }
+
+    private static final class MetaState {
+
+        private static final MetaState EMPTY = new MetaState(null, null);
+
+        private String displayName;
+        private List<String> lore;
+
+        private MetaState(String displayName, List<String> lore) {
+            this.displayName = displayName;
+            this.lore = lore == null ? null : new ArrayList<>(lore);
+        }
+
+        private Map<String, Object> serialize() {
+            final Map<String, Object> serialized = new LinkedHashMap<>();
+            if (this.displayName != null) serialized.put("display-name", this.displayName);
+            if (this.lore != null && !this.lore.isEmpty()) serialized.put("lore", new ArrayList<>(this.lore));
+            return serialized;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof MetaState)) return false;
+            final MetaState other = (MetaState) o;
+            return Objects.equals(this.displayName, other.displayName) && Objects.equals(normalizedLore(), other.normalizedLore());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.displayName, normalizedLore());
+        }
+
+        private List<String> normalizedLore() {
+            return this.lore == null || this.lore.isEmpty() ? null : this.lore;
+        }
+    }
+}
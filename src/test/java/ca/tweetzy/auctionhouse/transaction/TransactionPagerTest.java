@@ -0,0 +1,130 @@
+package ca.tweetzy.auctionhouse.transaction;
+
+import ca.tweetzy.auctionhouse.auction.AuctionSaleType;
+import ca.tweetzy.auctionhouse.standin.BukkitStandIn;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+/**
+ * The current file has been created by Kiran Hart
+ * Date Created: October 18 2026
+ * Time Created: 8:10 a.m.
+ * Usage of any code found within this class is prohibited unless given explicit permission otherwise
+ */
+public class TransactionPagerTest {
+
+    private static final int PAGE_SIZE = 10;
+
+    // newest first like the database returns them, transaction_time DESC then id DESC
+    private static final Comparator<Transaction> NEWEST_FIRST = Comparator.comparing(Transaction::getTransactionTime).thenComparing(transaction -> transaction.getId().toString()).reversed();
+
+    private final List<Transaction> stored = new ArrayList<>();
+    private TransactionPager pager;
+    private long nextId;
+
+    @BeforeClass
+    public static void install() {
+        BukkitStandIn.install();
+    }
+
+    @Before
+    public void setUp() {
+        this.pager = new TransactionPager(PAGE_SIZE);
+        // a few transactions share every timestamp, so pages end in the middle of a tie
+        for (int i = 0; i < 95; i++) store(1_000 + i / 7);
+    }
+
+    @Test
+    public void walksEveryTransactionOnce() {
+        final List<Transaction> walked = new ArrayList<>();
+        int page = 1;
+        while (true) {
+            walked.addAll(read(page));
+            if (this.pager.getPages() == page) break;
+            page++;
+        }
+
+        assertEquals(10, page);
+        assertEquals(sorted(), walked);
+    }
+
+    @Test
+    public void goingBackShowsTheSamePages() {
+        final List<Transaction> first = read(1);
+        final List<Transaction> second = read(2);
+        final List<Transaction> third = read(3);
+
+        assertEquals(second, read(2));
+        assertEquals(first, read(1));
+        assertEquals(second, read(2));
+        assertEquals(third, read(3));
+        assertEquals(sorted().subList(0, 3 * PAGE_SIZE), concat(first, second, third));
+    }
+
+    @Test
+    public void rereadingAPageMovesThePagesAfterIt() {
+        read(1);
+        read(2);
+        read(3);
+
+        // new sales push everything down, the first page shows the newest again and the next pages follow on from it
+        for (int i = 0; i < 4; i++) store(2_000);
+        final List<Transaction> first = read(1);
+        final List<Transaction> second = read(2);
+
+        assertEquals(sorted().subList(0, 2 * PAGE_SIZE), concat(first, second));
+    }
+
+    @Test
+    public void theLastPageHasNoNextPage() {
+        this.stored.clear();
+        for (int i = 0; i < PAGE_SIZE; i++) store(1_000);
+
+        assertEquals(PAGE_SIZE, read(1).size());
+        assertEquals(1, this.pager.getPages());
+    }
+
+    @Test
+    public void anEmptyListHasOnePage() {
+        this.stored.clear();
+
+        assertTrue(read(1).isEmpty());
+        assertEquals(1, this.pager.getPages());
+    }
+
+    private List<Transaction> read(int page) {
+        final Transaction after = this.pager.getAfter(page);
+        final List<Transaction> read = sorted().stream()
+                .filter(transaction -> after == null || NEWEST_FIRST.compare(transaction, after) > 0)
+                .limit(this.pager.getReadLimit())
+                .collect(Collectors.toList());
+        return new ArrayList<>(this.pager.accept(page, read));
+    }
+
+    private List<Transaction> sorted() {
+        final List<Transaction> sorted = new ArrayList<>(this.stored);
+        sorted.sort(NEWEST_FIRST);
+        return sorted;
+    }
+
+    @SafeVarargs
+    private static List<Transaction> concat(List<Transaction>... pages) {
+        final List<Transaction> all = new ArrayList<>();
+        for (List<Transaction> page : pages) all.addAll(page);
+        return all;
+    }
+
+    private void store(long time) {
+        final UUID id = new UUID(0x5eed, this.nextId++ * 0x9E3779B97F4A7C15L);
+        final UUID player = new UUID(0, 1);
+        this.stored.add(new Transaction(id, player, player, "Seller", "Buyer", time, new ItemStack(Material.STONE), AuctionSaleType.WITHOUT_BIDDING_SYSTEM, 1));
+    }
+}
@@ -0,0 +1,28 @@
+package org.bukkit.craftbukkit.v1_17_R1;
+
+import org.bukkit.Server;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+
+/**
+ * The current file has been created by Kiran Hart
+ * Date Created: October 18 2026
+ * Time Created: 11:05 p.m.
+ * Usage of any code found within this class is prohibited unless given explicit permission otherwise
+ *
+ * Creates the stand in server for the tests and benchmarks. A proxy of a non public interface is defined in that interface's
+ * package, so everything that reads the server version from the package of the server class sees 1.17
+ */
+public final class StandInServerFactory {
+
+    interface VersionedServer extends Server {
+    }
+
+    private StandInServerFactory() {
+    }
+
+    public static Server create(InvocationHandler handler) {
+        return (Server) Proxy.newProxyInstance(StandInServerFactory.class.getClassLoader(), new Class<?>[]{VersionedServer.class}, handler);
+    }
+}